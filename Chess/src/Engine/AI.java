@@ -2,14 +2,13 @@ package Engine;
 
 import static Engine.EvaluationConstants.CHECKMATE_VALUE;
 import static Engine.PieceConverter.PIECE_CONVERTER;
-import static Engine.Pieces.checkBlackEnPassantRightsSlow;
-import static Engine.Pieces.checkWhiteEnPassantRightsSlow;
 import GUI.Chess;
 import Util.ChessConstants;
 import Util.Constants;
 import static Util.Constants.NEGATIVE_INFINITY;
 import static Util.Constants.POSITIVE_INFINITY;
 import Util.ImageUtils;
+import Util.LongShortMap;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
@@ -19,83 +18,29 @@ import java.awt.font.FontRenderContext;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.RejectedExecutionHandler;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
 /**
- * NOTE: Parallel Processing play may be worse than Normal play.
- *
- * NOTE: ENPASSANT IS ENABLED. I may change my logic to only consider search
- * results only if they all finish a particular depth. If some searches at a
- * depth do not finish, they WILL adversely affect the selection of moves from
- * the AI, thus this CANNOT be countered by the argument that such deeper
- * searches yield more data. This scenario pops up often after using parallel
- * processing.
+ * NOTE: Parallel processing uses Lazy SMP. The main search runs exactly like
+ * the normal search, while helper threads search the same root positions at
+ * the same time and share their results through the transposition table. Only
+ * the scores of the main search are used to pick a move, so both modes select
+ * moves the same way, the parallel mode just reaches deeper in the same time.
  *
  * Bug, Non-parallel processing with depth extension (aka default mode) having
  * trouble finding checkmate, most likely located in this class, as parallel
  * processing does it just fine. This bug seems to be resolved as of 4/30/17 by
  * just sorting the possible positions and selecting the one at the top.
- *
- * Could make parallel search better by conducting a single threaded search to
- * depth 3, then sorting and starting parallel searching. However, there may be
- * no need since each position is searched at the same time.
- *
- * Although making sure all results are of the same depth is critical, if a
- * branch detects a checkmate, we should return that branch immediately. This
- * has been done.
  */
 public final class AI {
 
-    //NOTE THAT WHEN USING CONCURRENT EXECUTORS, TESTING WILL FAIL!!!
-    //THIS IS BECAUSE STATIC SEARCH METHODS ARE BEING ACCESSED CONCURRENTLY
-    //EVEN THOUGH THEY ARE NOT THREAD SAFE!!! 
-    //SOLUTION: MAKE THE STATIC SEARCH METHODS SYNCHRONIZED
-    //number of parallel threads to use, minimum
-    private static final int CORE_THREADS = Constants.RUNTIME.availableProcessors() + 1;
-
-    //used for parallel processing
-    //https://stackoverflow.com/questions/19528304/how-to-get-the-threadpoolexecutor-to-increase-threads-to-max-before-queueing
-    private static final BlockingQueue<Runnable> TASK_QUEUE = new LinkedTransferQueue<Runnable>() {
-
-        @Override
-        public final boolean offer(Runnable task) {
-            //http://stackoverflow.com/questions/19528304/how-to-get-the-threadpoolexecutor-to-increase-threads-to-max-before-queueing?rq=1
-            return tryTransfer(task);
-        }
-    };
-
-    //https://stackoverflow.com/questions/19528304/how-to-get-the-threadpoolexecutor-to-increase-threads-to-max-before-queueing
-    @SuppressWarnings("Convert2Lambda")
-    private static final RejectedExecutionHandler HANDLER = new RejectedExecutionHandler() {
-        @Override
-        public final void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
-            try {
-                executor.getQueue().put(task);
-            }
-            catch (InterruptedException ex) {
-                ex.printStackTrace(System.err);
-                Thread.currentThread().interrupt();
-            }
-        }
-    };
-
-    //stores positions and their values, in both white and black's persepctive.
-    static final Database BLACK_STORE = new Database();
-    static final Database WHITE_STORE = new Database();
+    //number of helper threads used by the parallel search, which runs
+    //the main search on the calling thread
+    private static final int HELPER_THREADS = Constants.RUNTIME.availableProcessors() - 1;
 
     //test mode flag
     private static final boolean CHECK_MODE = true;
@@ -124,6 +69,16 @@ public final class AI {
     //test depth used for check mode
     private static final int TEST_DEPTH = 1;
 
+    //half width of the aspiration window around the previous iteration's score
+    private static final int ASPIRATION_WINDOW = 50;
+
+    //shallower iterations are too unstable and too cheap to narrow
+    private static final int ASPIRATION_DEPTH = 3;
+
+    //number of chosen positions remembered per game, far more than any
+    //game lasts
+    private static final int MAX_SELECTED_POSITIONS = 1 << 12;
+
     //images corresponding to the AI difficulty
     private static final BufferedImage[] WHITE_IMAGES = new BufferedImage[DIFFICULTY.length];
     private static final BufferedImage[] BLACK_IMAGES = new BufferedImage[DIFFICULTY.length];
@@ -142,7 +97,7 @@ public final class AI {
     private static BufferedImage IMAGE;
 
     //global search timer used by the status dialog
-    //and by static search classes for timing
+    //searches are timed through their SearchContext instead
     //updated per call to makeMove
     static SearchTimer TIMER;
 
@@ -181,8 +136,14 @@ public final class AI {
     private final List<PositionHolder> possiblePositions = new ArrayList<>(ChessConstants.INITAL_NUMBER_OF_POSITIONS);
 
     //table of chosen positions and the number of times each position was chosen
-    //used to avoid threefold repetition
-    private final Map<String, Integer> selectedPositions = new HashMap<>();
+    //used to avoid threefold repetition, keyed by the full Zobrist key
+    //once full, new positions are simply not counted
+    private final LongShortMap selectedPositions = new LongShortMap(MAX_SELECTED_POSITIONS);
+
+    //table of every position this AI has seen in the current game, its root
+    //positions and the positions after its moves, and the number of times
+    //each was reached, searches score a third occurrence as a draw
+    private final LongShortMap gameHistory = new LongShortMap(MAX_SELECTED_POSITIONS);
 
     //parallel processing capability, disabled by default
     private boolean parallel = false;
@@ -249,13 +210,21 @@ public final class AI {
         throw new IllegalStateException();
     }
 
-    public void setSelectedPositions(Map<String, Integer> savedSelectedPositions) {
-        selectedPositions.clear();
-        selectedPositions.putAll(savedSelectedPositions);
+    public LongShortMap getSelectedPositions() {
+        return selectedPositions;
     }
 
-    public Map<String, Integer> getSelectedPositions() {
-        return selectedPositions;
+    public LongShortMap getGameHistory() {
+        return gameHistory;
+    }
+
+    /**
+     * Forgets the positions of the previous game, must be called whenever a
+     * new game starts.
+     */
+    public void clearGameHistory() {
+        selectedPositions.clear();
+        gameHistory.clear();
     }
 
     public boolean isParallelProcessing() {
@@ -266,37 +235,20 @@ public final class AI {
         parallel = enable;
     }
 
+    /**
+     * A position the AI may move to. Only the move leading to it is kept, the
+     * move is made on the board of the search whenever the position is needed.
+     */
     static final class PositionHolder implements Comparable<PositionHolder> {
 
-        final Grid grid;
-        final List<Piece> whites;
-        final List<Piece> blacks;
-
-        private final Grid clonedGrid;
-        private final List<Piece> clonedWhites;
-        private final List<Piece> clonedBlacks;
+        //packed by Moves
+        final int move;
 
         private final String description;
         private int value = NEGATIVE_INFINITY;
 
-        private PositionHolder(Grid copiedGrid, String moveInfo) {
-            List<Piece> pieces = (grid = copiedGrid).getPieces();
-            Pieces.sort(pieces);
-            clonedGrid = new Grid(grid);
-            clonedWhites = Pieces.getDeepCopy(whites = Pieces.getWhite(pieces));
-            clonedBlacks = Pieces.getDeepCopy(blacks = Pieces.getBlack(pieces));
-            //most valuable pieces appear first
-            //AlphaBetaBlack loops backwards from Pawns to Kings
-            
-            for (Piece piece : clonedWhites) {
-                System.out.println(piece.getName() + " " + piece.getIndex());
-            }
-            System.out.println();
-            for (Piece piece : clonedBlacks) {
-                System.out.println(piece.getName() + " " + piece.getIndex());
-            }
-            System.out.println("====================");
-            
+        private PositionHolder(int rootMove, String moveInfo) {
+            move = rootMove;
             description = moveInfo;
         }
 
@@ -327,134 +279,233 @@ public final class AI {
         }
     };
 
-    private final class ParallelSearch implements Callable<Integer> {
-
-        private final PositionHolder position;
-        private final ArrayList<Integer> results = new ArrayList<>(6);
-
-        private ParallelSearch(PositionHolder holder) {
-            position = holder;
+    /**
+     * Helper thread of the parallel (Lazy SMP) search. Every helper searches
+     * all root positions with its own copy of the board and its own context, so
+     * the only thing shared with the main search is the transposition table.
+     * Helpers start at different depths and visit the root positions in
+     * different orders, which spreads them over different parts of the tree.
+     * Their scores are thrown away, only the entries they leave in the table
+     * are used by the main search.
+     */
+    private final class HelperSearch extends Thread {
+
+        private final Board board;
+        private final int[] moves;
+        private final SearchContext context;
+        private final int firstDepth;
+
+        //must be created before the main search starts making moves on the grid
+        private HelperSearch(int helperIndex) {
+            super((side ? "White" : "Black") + " AI Helper " + helperIndex);
+            final int numberOfPositions = possiblePositions.size();
+            board = new Board(new Grid(grid));
+            moves = new int[numberOfPositions];
+            for (int index = 0; index != numberOfPositions; ++index) {
+                moves[index] = possiblePositions.get((index + helperIndex) % numberOfPositions).move;
+            }
+            context = new SearchContext(timer, Evaluators.MAIN, SearchContext.NO_STATISTICS);
+            context.setGameHistory(gameHistory);
+            //every other helper searches 1 ply deeper than the main search
+            firstDepth = 1 + (helperIndex & 1);
         }
 
         @Override
-        public final Integer call() {
-            Board board = new Board(position.grid, position.whites, position.blacks);
-            if (timer.getCountdownTime() == SEARCH_TIMES[SEARCH_TIMES.length - 1])  {
-                System.out.println("GRAND MASTER");
-                if (side) {
-                    results.add(AlphaBetaWhite.min(board, 6)); //guaranteed to finish
-                    System.out.println("FINISHED DEPTH 6");
-                    for (int searchDepth = 7; searchDepth <= maxDepth; ++searchDepth) {
-                        if (timer.timeElapsed() >= 60) {
-                            //After all threads have finished to depth 6, if more than
-                            //a minute has elapsed, stop all threads.
-                            timer.setOverride(true);
-                            return 0;
-                        }
-                        int result = AlphaBetaWhite.min(board, searchDepth);
-                        if (result <= -CHECKMATE_VALUE) {
-                            int inflate = 20;
-                            results.ensureCapacity(searchDepth + inflate);
-                            results.add(result);
-                            for (--result; inflate >= 0; --inflate, --result) {
-                                results.add(result);
-                            }
-                            return 0;
-                        }
-                        if (timer.timeOver()) {
-                            return 0;
-                        }
-                        results.add(result);
+        public final void run() {
+            for (int searchDepth = firstDepth; searchDepth <= maxDepth; ++searchDepth) {
+                for (int move : moves) {
+                    board.makeMove(move, side);
+                    if (side) {
+                        AlphaBetaWhite.min(context, board, searchDepth);
                     }
-                }
-                else {
-                    results.add(AlphaBetaBlack.min(board, 6)); //guaranteed to finish
-                    for (int searchDepth = 7; searchDepth <= maxDepth; ++searchDepth) {
-                        if (timer.timeElapsed() >= 60) {
-                            return 0;
-                        }
-                        int result = AlphaBetaBlack.min(board, searchDepth);
-                        if (result <= -CHECKMATE_VALUE) {
-                            int inflate = 20;
-                            results.ensureCapacity(searchDepth + inflate);
-                            results.add(result);
-                            for (--result; inflate >= 0; --inflate, --result) {
-                                results.add(result);
-                            }
-                            return 0;
-                        }
-                        if (timer.timeOver()) {
-                            return 0;
-                        }
-                        results.add(result);
-                    }
-                }
-            }
-            if (side) {
-                results.add(AlphaBetaWhite.min(board, 1)); //guarantee list size of 1
-                for (int searchDepth = 2; searchDepth <= maxDepth; ++searchDepth) {
-                    int result = AlphaBetaWhite.min(board, searchDepth);
-                    if (result <= -CHECKMATE_VALUE) {
-                        //If we detect a position where we lose, we need to inflate the size of
-                        //of the results list. This will ensure that the minimum depth chosen 
-                        //to select moves is not prematurely lower than it should be
-                        
-                        //also we can stop wasting CPU resources on a position
-                        //whose outcome we already know
-                        int inflate = 20;
-                        results.ensureCapacity(searchDepth + inflate);
-                        results.add(result);
-                        for (--result; inflate >= 0; --inflate, --result) {
-                            results.add(result);
-                        }
-                        return 0;
+                    else {
+                        AlphaBetaBlack.min(context, board, searchDepth);
                     }
-                    if (timer.timeOver()) {
-                        return 0;
+                    board.unmakeMove();
+                    if (context.timeOver()) {
+                        return;
                     }
-                    results.add(result);
                 }
             }
+        }
+    }
+
+    private HelperSearch[] startHelpers() {
+        HelperSearch[] helpers = new HelperSearch[HELPER_THREADS];
+        for (int index = 0; index != HELPER_THREADS; ++index) {
+            helpers[index] = new HelperSearch(index + 1);
+        }
+        for (HelperSearch helper : helpers) {
+            helper.start();
+        }
+        return helpers;
+    }
+
+    private static void stopHelpers(HelperSearch[] helpers) {
+        for (HelperSearch helper : helpers) {
+            helper.context.stop();
+        }
+        try {
+            for (HelperSearch helper : helpers) {
+                helper.join();
+            }
+        }
+        catch (InterruptedException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Searches every root position with principal variation search. The first
+     * position (the best of the previous iteration) is searched with the whole
+     * window, the others only with a null window proving they are no better.
+     * A position that does turn out better is searched again with the whole
+     * window. Positions proven worse only keep an upper bound as their value,
+     * which is enough to order them but not to compare them, so when exact
+     * scores are needed every position is searched with an infinite window.
+     *
+     * @param context The state of the search.
+     * @param board The root position, the move of each root position is made
+     * on it and taken back.
+     * @param positions The root positions, best first.
+     * @param depth Number of ply to search ahead.
+     * @param alpha Lowest score of interest, in the perspective of the side to
+     * move at the root.
+     * @param beta Highest score of interest.
+     * @param white Whether White moves at the root.
+     * @param exact Whether every position must get its exact score.
+     * @return The score of the best position, or a bound if it is outside the
+     * window or time ran out.
+     */
+    private static int searchRoot(final SearchContext context, final Board board, final List<PositionHolder> positions, final int depth, int alpha, final int beta, final boolean white, final boolean exact) {
+        int best = NEGATIVE_INFINITY;
+        for (int positionIndex = 0, numberOfPositions = positions.size(); positionIndex != numberOfPositions; ++positionIndex) {
+            final PositionHolder position = positions.get(positionIndex);
+            board.makeMove(position.move, white);
+            int result;
+            if (exact) {
+                result = search(context, board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY, white);
+            }
+            else if (positionIndex == 0) {
+                result = search(context, board, depth, alpha, beta, white);
+            }
             else {
-                results.add(AlphaBetaBlack.min(board, 1)); //guarantee list size of 1
-                for (int searchDepth = 2; searchDepth <= maxDepth; ++searchDepth) {
-                    int result = AlphaBetaBlack.min(board, searchDepth);
-                    if (result <= -CHECKMATE_VALUE) {
-                        //If we detect a position where we lose, we need to inflate the size of
-                        //of the results list. This will ensure that the minimum depth chosen 
-                        //to select moves is not prematurely lower than it should be
-
-                        //also we can stop wasting CPU resources on a position
-                        //whose outcome we already know
-                        int inflate = 20;
-                        results.ensureCapacity(searchDepth + inflate);
-                        results.add(result);
-                        for (--result; inflate >= 0; --inflate, --result) {
-                            results.add(result);
-                        }
-                        return 0;
-                    }
-                    if (timer.timeOver()) {
-                        return 0;
-                    }
-                    results.add(result);
+                result = search(context, board, depth, alpha, alpha + 1, white);
+                if (result > alpha && result < beta && !context.timeOver()) {
+                    result = search(context, board, depth, alpha, beta, white);
                 }
             }
-            return 0;
+            board.unmakeMove();
+            if (context.isStopped()) {
+                return best;
+            }
+            position.value = result;
+            DIALOG.increaseMovesCompleted();
+            if (result > best) {
+                best = result;
+            }
+            if (result > alpha) {
+                alpha = result;
+            }
+            if (alpha >= beta) {
+                //fail high, the window has to be widened anyway
+                break;
+            }
         }
+        return best;
+    }
 
-        private int getMaxDepth() {
-            return results.size();
+    private static int search(final SearchContext context, final Board board, final int depth, final int alpha, final int beta, final boolean white) {
+        if (AlphaBetaBlack.CHECK_MODE) {
+            return white ? AlphaBetaWhite.min(context, board, depth) : AlphaBetaBlack.min(context, board, depth);
         }
+        return white ? AlphaBetaWhite.min(context, board, depth, alpha, beta) : AlphaBetaBlack.INSTANCE.min(context, board, depth, alpha, beta);
+    }
 
-        private int getScore(int index) {
-            return results.get(index);
+    /**
+     * Adds a root position for every legal move of the side to move.
+     *
+     * @param board The root position.
+     * @param white Whether White moves at the root.
+     */
+    private void addPositions(final Board board, final boolean white) {
+        final Grid grid = board.grid;
+        final int[] moves = new int[Moves.MAX_MOVES];
+        for (int index = 0, numberOfMoves = AlphaBetaBlack.generateMoves(board, white, true, moves, 0); index != numberOfMoves; ++index) {
+            final int move = moves[index];
+            final Tile previousTile = grid.getTile(Moves.getFrom(move));
+            final Tile moveTile = grid.getTile(Moves.getTo(move));
+            final Piece piece = previousTile.getOccupant();
+            //read before the captured piece leaves the grid
+            final Piece enemy = (Moves.getType(move) == Moves.EN_PASSANT) ? grid.getTile(previousTile.getRow(), moveTile.getColumn()).getOccupant() : moveTile.getOccupant();
+            if (board.makeMove(move, white)) {
+                possiblePositions.add(new PositionHolder(move, getMoveText(grid, move, piece, previousTile, enemy)));
+            }
+            board.unmakeMove();
         }
+    }
 
-        @Override
-        public final String toString() {
-            return "Depth: " + results.size() + " Results: " + results.toString();
+    //describes a move that has just been made
+    private static String getMoveText(final Grid grid, final int move, final Piece piece, final Tile previousTile, final Piece enemy) {
+        switch (Moves.getType(move)) {
+            case Moves.CASTLE: {
+                final int row = previousTile.getRow();
+                final boolean left = grid.getTile(Moves.getTo(move)).getColumn() < previousTile.getColumn();
+                final Tile rookTile = grid.getTile(row, left ? ChessConstants.LEFT_ROOK_START_COLUMN : ChessConstants.RIGHT_ROOK_START_COLUMN);
+                final Piece rook = grid.getTile(row, left ? ChessConstants.LEFT_ROOK_CASTLE_COLUMN : ChessConstants.RIGHT_ROOK_CASTLE_COLUMN).getOccupant();
+                return MoveUtils.getCastleText((King) piece, previousTile, rook, rookTile);
+            }
+            case Moves.EN_PASSANT: {
+                return MoveUtils.getEnPassantText(piece, previousTile, enemy);
+            }
+        }
+        if (Moves.isPromotion(move)) {
+            final Piece promoted = grid.getTile(Moves.getTo(move)).getOccupant();
+            return (enemy != null) ? MoveUtils.getCapturePromotedText(piece, previousTile, promoted, enemy) : MoveUtils.getPromotedMoveText(piece, previousTile, promoted);
+        }
+        return (enemy != null) ? MoveUtils.getCaptureText(piece, previousTile, enemy) : MoveUtils.getMoveText(piece, previousTile);
+    }
+
+    //pieces of a root position in the order a new Board sorts them
+    private static List<Piece> getPieces(final Board board) {
+        final List<Piece> pieces = board.grid.getPieces();
+        Pieces.sort(pieces);
+        return pieces;
+    }
+
+    //encodes a root position for threefold repetition checks
+    private static long encode(final Board board, final PositionHolder position, final boolean white) {
+        board.makeMove(position.move, white);
+        final long encoded = Zobrist.getKey(board, !white);
+        board.unmakeMove();
+        return encoded;
+    }
+
+    //whether a root position has been selected twice already, then the
+    //positions may have to be ranked by their scores to pick another one
+    private boolean mayRepeat(final Board board, final boolean white) {
+        for (int index = 0, numberOfPositions = possiblePositions.size(); index != numberOfPositions; ++index) {
+            if (selectedPositions.get(encode(board, possiblePositions.get(index), white), (short) 0) >= 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //counts a position reached in the game, once full new positions are
+    //simply not counted
+    private void addToGameHistory(final long key) {
+        gameHistory.put(key, (short) (gameHistory.get(key, (short) 0) + 1));
+    }
+
+    //writes the pieces of the chosen root position, White first
+    private static void addPieces(final Board board, final PositionHolder position, final boolean white, final List<String> list) {
+        board.makeMove(position.move, white);
+        final List<Piece> pieces = getPieces(board);
+        for (int index = 0, size = pieces.size(); index != size; ++index) {
+            list.add(PIECE_CONVERTER.convertBackward(pieces.get(index)));
         }
+        board.unmakeMove();
     }
 
     @SuppressWarnings({"Convert2Lambda", "UnusedAssignment"})
@@ -474,12 +525,15 @@ public final class AI {
                 ? (side ? "White AI - (Parallel)" : "Black AI - (Parallel)")
                 : (side ? "White AI - (Normal)" : "Black AI - (Normal)"));
 
+        //results from previous moves remain valid, but are replaced first
+        AlphaBetaBlack.TABLE.increaseAge();
+
         if (CHECK_MODE) {
             if (!side) {
-                //Evaluators.MAIN = Evaluators.STANDARD;
+                //Evaluators.MAIN = Evaluators.CACHED_STANDARD;
             }
             else {
-                //Evaluators.MAIN = Evaluators.POWERFUL;
+                //Evaluators.MAIN = Evaluators.CACHED_POWERFUL;
                 //The Powerful Evaluator is strong enough to overcome
                 //the standard evaluator despite search 1 depth less for example
             }
@@ -506,21 +560,22 @@ public final class AI {
         Pieces.WHITES.sort(Pieces.BEST_PIECES_FIRST);
         Pieces.BLACKS.sort(Pieces.BEST_PIECES_LAST);
         for (int index = 0; index != NUMBER_OF_WHITE_PIECES; ++index) {
-            Piece white = Pieces.WHITES.get(index);
-            white.setProtectedTiles(grid);
-            pieces.add(white);
+            pieces.add(Pieces.WHITES.get(index));
         }
         for (int index = 0; index != NUMBER_OF_BLACK_PIECES; ++index) {
-            Piece black = Pieces.BLACKS.get(index);
-            black.setProtectedTiles(grid);
-            pieces.add(black);
+            pieces.add(Pieces.BLACKS.get(index));
         }
+        grid.setProtections(pieces);
         Pieces.WHITES.clear();
         Pieces.BLACKS.clear();
 
+        //every root position is reached by making its move on this board
+        final Board board = new Board(grid);
+        addToGameHistory(Zobrist.getKey(board, side));
+
         //For Debugging:
-        final List<Piece> clonedPieces = Pieces.getDeepCopy(pieces);
-        final Grid clonedGrid = new Grid(grid);
+        final List<Piece> clonedPieces = CHECK_MODE ? Pieces.getDeepCopy(pieces) : null;
+        final Grid clonedGrid = CHECK_MODE ? new Grid(grid) : null;
 
         if (CHECK_MODE) {
             Tester.checkEvaluators(grid);
@@ -529,280 +584,7 @@ public final class AI {
         if (side) {
             System.out.println("White AI Playing");
             //white move generation
-            {
-                final List<Piece> whites = Pieces.getWhite(pieces);
-                final King whiteKing = Pieces.getWhiteKing(whites);
-                {
-                    Tile previousTile = grid.getTile(whiteKing.getRow(), whiteKing.getColumn());
-                    List<Tile> castleTiles = whiteKing.getCastleTiles(grid);
-                    for (int index = (castleTiles.size() - 1); index >= 0; --index) {
-                        Tile kingCastleTile = castleTiles.get(index);
-                        if (kingCastleTile.getColumn() == ChessConstants.LEFT_KING_CASTLE_COLUMN) {
-                            Tile leftRookTile = grid.getTile(ChessConstants.WHITE_PIECE_ROW, 0);
-                            Tile leftRookCastleTile = grid.getTile(ChessConstants.WHITE_PIECE_ROW, ChessConstants.LEFT_ROOK_CASTLE_COLUMN);
-                            Piece leftRook = leftRookTile.getOccupant();
-
-                            previousTile.removeOccupant();
-                            leftRookTile.removeOccupant();
-                            kingCastleTile.setOccupant(whiteKing);
-                            leftRookCastleTile.setOccupant(leftRook);
-                            grid.setProtections(pieces);
-
-                            whiteKing.increaseMoveCount();
-                            leftRook.increaseMoveCount();
-                            {
-                                Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                {
-                                    possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCastleText(whiteKing, previousTile, leftRook, leftRookTile)));
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            whiteKing.decreaseMoveCount();
-                            leftRook.decreaseMoveCount();
-
-                            previousTile.setOccupant(whiteKing);
-                            leftRookTile.setOccupant(leftRook);
-                            kingCastleTile.removeOccupant();
-                            leftRookCastleTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        else {
-                            Tile rightRookTile = grid.getTile(ChessConstants.WHITE_PIECE_ROW, 7);
-                            Tile rightRookCastleTile = grid.getTile(ChessConstants.WHITE_PIECE_ROW, ChessConstants.RIGHT_ROOK_CASTLE_COLUMN);
-                            Piece rightRook = rightRookTile.getOccupant();
-
-                            previousTile.removeOccupant();
-                            rightRookTile.removeOccupant();
-                            kingCastleTile.setOccupant(whiteKing);
-                            rightRookCastleTile.setOccupant(rightRook);
-                            grid.setProtections(pieces);
-
-                            whiteKing.increaseMoveCount();
-                            rightRook.increaseMoveCount();
-                            {
-                                Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                {
-                                    possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCastleText(whiteKing, previousTile, rightRook, rightRookTile)));
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            whiteKing.decreaseMoveCount();
-                            rightRook.decreaseMoveCount();
-
-                            previousTile.setOccupant(whiteKing);
-                            rightRookTile.setOccupant(rightRook);
-                            kingCastleTile.removeOccupant();
-                            rightRookCastleTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-
-                for (int pieceIndex = 0; pieceIndex != NUMBER_OF_WHITE_PIECES; ++pieceIndex) {
-                    final Piece white = whites.get(pieceIndex);
-                    final int previousRow = white.getRow();
-                    final int previousColumn = white.getColumn();
-                    final Tile previousTile = grid.getTile(previousRow, previousColumn);
-                    List<Tile> attackTiles = white.getAttackTiles(grid);
-                    for (int index = (attackTiles.size() - 1); index >= 0; --index) {
-                        Tile attackTile = attackTiles.get(index);
-                        Piece enemy = attackTile.getOccupant();
-                        if (enemy.isKing()) {
-                            System.out.println("Enemy King targeted!");
-                            continue;
-                        }
-                        if (white.isPawn() && previousRow == 1) {
-                            //Queen replace = Pawn.promote(white);
-                            for (Piece replace : Pawn.getPromoted(white)) {
-                                previousTile.removeOccupant();
-                                attackTile.setOccupant(replace);
-                                int pawnIndex = pieces.indexOf(white);
-                                pieces.set(pawnIndex, replace);
-                                int removeIndex = Pieces.remove(pieces, enemy);
-                                grid.setProtections(pieces);
-                                if (!whiteKing.inCheck(grid)) {
-                                    replace.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCapturePromotedText(white, previousTile, replace, enemy)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                }
-                                previousTile.setOccupant(white);
-                                attackTile.setOccupant(enemy);
-                                pieces.add(removeIndex, enemy);
-                                pieces.set(pawnIndex, white);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        else {
-                            previousTile.removeOccupant();
-                            attackTile.setOccupant(white);
-                            int removeIndex = Pieces.remove(pieces, enemy);
-                            grid.setProtections(pieces);
-                            if (!whiteKing.inCheck(grid)) {
-                                white.increaseMoveCount();
-                                {
-                                    Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                    {
-                                        possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCaptureText(white, previousTile, enemy)));
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                white.decreaseMoveCount();
-                            }
-                            previousTile.setOccupant(white);
-                            attackTile.setOccupant(enemy);
-                            pieces.add(removeIndex, enemy);
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                    if (white.isPawn()) {
-                        {
-                            Tile enPassantTile = white.getLeftEnPassantTile(grid);
-                            if (enPassantTile != null) {
-                                Tile blackPawnTile = grid.getTile(previousRow, previousColumn - 1);
-                                Piece blackPawn = blackPawnTile.getOccupant();
-                                previousTile.removeOccupant();
-                                blackPawnTile.removeOccupant();
-                                enPassantTile.setOccupant(white);
-                                int removeIndex = Pieces.remove(pieces, blackPawn);
-                                grid.setProtections(pieces);
-                                if (!whiteKing.inCheck(grid)) {
-                                    white.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getEnPassantText(white, previousTile, blackPawn)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                    white.decreaseMoveCount();
-                                }
-                                previousTile.setOccupant(white);
-                                blackPawnTile.setOccupant(blackPawn);
-                                enPassantTile.removeOccupant();
-                                pieces.add(removeIndex, blackPawn);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        {
-                            Tile enPassantTile = white.getRightEnPassantTile(grid);
-                            if (enPassantTile != null) {
-                                Tile blackPawnTile = grid.getTile(previousRow, previousColumn + 1);
-                                Piece blackPawn = blackPawnTile.getOccupant();
-                                previousTile.removeOccupant();
-                                blackPawnTile.removeOccupant();
-                                enPassantTile.setOccupant(white);
-                                int removeIndex = Pieces.remove(pieces, blackPawn);
-                                grid.setProtections(pieces);
-                                if (!whiteKing.inCheck(grid)) {
-                                    white.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getEnPassantText(white, previousTile, blackPawn)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                    white.decreaseMoveCount();
-                                }
-                                previousTile.setOccupant(white);
-                                blackPawnTile.setOccupant(blackPawn);
-                                enPassantTile.removeOccupant();
-                                pieces.add(removeIndex, blackPawn);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-
-                for (int pieceIndex = 0; pieceIndex != NUMBER_OF_WHITE_PIECES; ++pieceIndex) {
-                    final Piece white = whites.get(pieceIndex);
-                    final int previousRow = white.getRow();
-                    final int previousColumn = white.getColumn();
-                    final Tile previousTile = grid.getTile(previousRow, previousColumn);
-                    final Iterator<Tile> moveTiles = white.getMoveTiles(grid);
-                    while (moveTiles.hasNext()) {
-                        Tile moveTile = moveTiles.next();
-                        if (white.isPawn() && previousRow == 1) {
-                            //Queen replace = Pawn.promote(white);
-                            for (Piece replace : Pawn.getPromoted(white)) {
-                                previousTile.removeOccupant();
-                                moveTile.setOccupant(replace);
-                                int pawnIndex = pieces.indexOf(white);
-                                pieces.set(pawnIndex, replace);
-                                grid.setProtections(pieces);
-                                if (!whiteKing.inCheck(grid)) {
-                                    replace.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getPromotedMoveText(white, previousTile, replace)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                }
-                                previousTile.setOccupant(white);
-                                moveTile.removeOccupant();
-                                pieces.set(pawnIndex, white);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        else {
-                            previousTile.removeOccupant();
-                            moveTile.setOccupant(white);
-                            grid.setProtections(pieces);
-                            if (!whiteKing.inCheck(grid)) {
-                                boolean madeDoubleJump = false;
-                                if (white.isPawn() && !white.hasMoved()) {
-                                    if (white.getRow() == 4) {
-                                        white.setJustMadeDoubleJump(madeDoubleJump = true);
-                                    }
-                                }
-                                white.increaseMoveCount();
-                                {
-                                    Piece pawn = checkWhiteEnPassantRightsSlow(pieces);
-                                    {
-                                        possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getMoveText(white, previousTile)));
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                white.decreaseMoveCount();
-                                if (madeDoubleJump) {
-                                    white.setJustMadeDoubleJump(false);
-                                }
-                            }
-                            previousTile.setOccupant(white);
-                            moveTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-                Tester.check(grid, clonedGrid, pieces, clonedPieces);
-            }
+            addPositions(board, true);
 
             //show info dialog
             DIALOG.setVisible(true);
@@ -838,69 +620,22 @@ public final class AI {
 
             PositionHolder bestPosition = possiblePositions.get(0);
 
-            if (parallel) {
-                ParallelSearch[] parallelSearches = new ParallelSearch[numberOfPositions];
-                Future[] futures = new Future[numberOfPositions];
-
-                //https://stackoverflow.com/questions/10116502/java-threading-optimization-at-100-cpu-usage
-                //ExecutorService executor = Executors.newFixedThreadPool(PROCESSORS + 1);
-                //https://stackoverflow.com/questions/19528304/how-to-get-the-threadpoolexecutor-to-increase-threads-to-max-before-queueing
-                //sometimes there are more core threads than positions!
-                //so we must make sure core pool size is <= numberOfPositions
-                int corePoolSize = CORE_THREADS > numberOfPositions ? numberOfPositions : CORE_THREADS;
-                ThreadPoolExecutor executor = new ThreadPoolExecutor(corePoolSize, numberOfPositions, 0L, TimeUnit.MILLISECONDS, TASK_QUEUE, HANDLER);
-
-                for (int index = 0; index != numberOfPositions; ++index) {
-                    futures[index] = executor.submit(parallelSearches[index] = new ParallelSearch(possiblePositions.get(index)));
-                    //start all parallel tasks at the same time
-                }
-                executor.shutdown();
-                try {
-                    for (int index = 0; index != numberOfPositions; ++index) {
-                        if (((Future<Integer>) futures[index]).get() != 0) { //wait for all parallel tasks to finish.
-                            throw new Error("All future results should be zero.");
-                        }
-                        futures[index] = null;
-                    }
-                }
-                catch (InterruptedException | ExecutionException ex) {
-                    throw new RuntimeException(ex);
-                }
-                int shallowestDepth = parallelSearches[0].getMaxDepth();
-                System.out.println(parallelSearches[0]);
-                for (int index = 1; index != numberOfPositions; ++index) {
-                    int depthsCovered = parallelSearches[index].getMaxDepth();
-                    if (depthsCovered < shallowestDepth) {
-                        shallowestDepth = depthsCovered;
-                    }
-                    System.out.println(parallelSearches[index]);
-                }
-                System.out.println("Parallel Processing Shallowest Depth: " + shallowestDepth);
-                DIALOG.setFinishedDepth(shallowestDepth--);
-                //this is the size of the list, we will need the last index later
-
-                for (int index = 0; index != numberOfPositions; ++index) {
-                    possiblePositions.get(index).value = parallelSearches[index].getScore(shallowestDepth);
-                    parallelSearches[index] = null;
-                }
-                possiblePositions.sort(HIGHEST_VALUE_POSITION_FIRST);
-                DIALOG.setMaxPositionValue((bestPosition = possiblePositions.get(0)).value);
-                System.out.println(bestPosition);
-                parallelSearches = null;
-                futures = null;
-                executor = null;
-                TASK_QUEUE.clear();
-            }
-            else {
+            //helpers only fill the transposition table, the result of the main search is used
+            final HelperSearch[] helpers = parallel ? startHelpers() : null;
+            {
                 int previousIterationTime = NEGATIVE_INFINITY;
                 //array of previous values
                 int[] previousValues = new int[numberOfPositions];
+                //in check mode every result must be exact to be compared
+                final boolean exact = AlphaBetaBlack.CHECK_MODE || mayRepeat(board, side);
+                final SearchContext context = new SearchContext(timer, Evaluators.MAIN, DIALOG);
+                context.setGameHistory(gameHistory);
                 Iterative_Deepening:
                 for (int searchDepth = 1; searchDepth <= maxDepth; ++searchDepth) {
                     //before attempting to search at this particular depth, check time 
                     final int depthStartTime = timer.timeElapsed();
-                    //if time remaining is less than the time it took for the previous depth
-                    if (previousIterationTime != NEGATIVE_INFINITY && (timer.getCountdownTime() - depthStartTime) <= previousIterationTime) {
+                    //if the soft limit has passed or time remaining is less than the time it took for the previous depth
+                    if (timer.softTimeOver() || (previousIterationTime != NEGATIVE_INFINITY && (timer.getCountdownTime() - depthStartTime) <= previousIterationTime)) {
                         //it is pretty much impossible to search to a greater depth
                         //in the remaining amount of time so terminate search
                         break;
@@ -909,10 +644,16 @@ public final class AI {
                         previousValues[index] = possiblePositions.get(index).value;
                     }
                     boolean checkmate = false;
-                    for (int positionIndex = 0; positionIndex != numberOfPositions; ++positionIndex) {
-                        PositionHolder position = possiblePositions.get(positionIndex);
-                        int result = AlphaBetaWhite.min(new Board(position.grid, position.whites, position.blacks), searchDepth);
-                        if (timer.timeOver()) {
+                    //aspiration window centred on the score of the previous iteration
+                    int alpha = NEGATIVE_INFINITY;
+                    int beta = POSITIVE_INFINITY;
+                    if (searchDepth >= ASPIRATION_DEPTH && !exact) {
+                        alpha = bestPosition.value - ASPIRATION_WINDOW;
+                        beta = bestPosition.value + ASPIRATION_WINDOW;
+                    }
+                    while (true) {
+                        final int result = searchRoot(context, board, possiblePositions, searchDepth, alpha, beta, true, exact);
+                        if (context.isStopped()) {
                             //should time run out before all searches are completed
                             //at the current depth, reset all positional values to
                             //the previous depth iteration
@@ -921,8 +662,17 @@ public final class AI {
                             }
                             break Iterative_Deepening;
                         }
-                        position.value = result;
-                        DIALOG.increaseMovesCompleted();
+                        //the score fell outside the window, search again with that side opened
+                        if (result <= alpha) {
+                            alpha = NEGATIVE_INFINITY;
+                        }
+                        else if (result >= beta) {
+                            beta = POSITIVE_INFINITY;
+                        }
+                        else {
+                            break;
+                        }
+                        DIALOG.setMovesCompleted(0);
                     }
                     //at this point the current depth has been fully searched
                     //so now we sort the higher scoring positions to look at first
@@ -940,338 +690,67 @@ public final class AI {
                 System.out.println();
                 previousValues = null;
             }
+            if (helpers != null) {
+                stopHelpers(helpers);
+            }
 
             {
                 //maybe search for a better position only when losing
-                final String encoded = Pieces.encode(bestPosition.whites, bestPosition.blacks);
+                final long encoded = encode(board, bestPosition, side);
                 if (!selectedPositions.containsKey(encoded)) {
-                    selectedPositions.put(encoded, 1);
+                    selectedPositions.put(encoded, (short) 1);
                 }
                 else {
-                    final int timesSelected = selectedPositions.get(encoded);
+                    final int timesSelected = selectedPositions.get(encoded, (short) 0);
                     if (timesSelected >= 2) {
                         if (numberOfPositions >= 2) {
                             possiblePositions.sort(HIGHEST_VALUE_POSITION_LAST);
                             boolean successorFound = false;
                             for (int index = (numberOfPositions - 2); index >= 0; --index) {
                                 PositionHolder nextBestPosition = possiblePositions.get(index);
-                                String nextBestPositionEncoded = Pieces.encode(nextBestPosition.whites, nextBestPosition.blacks);
+                                long nextBestPositionEncoded = encode(board, nextBestPosition, side);
                                 if (!selectedPositions.containsKey(nextBestPositionEncoded)) {
                                     bestPosition = nextBestPosition;
-                                    selectedPositions.put(nextBestPositionEncoded, 1);
+                                    selectedPositions.put(nextBestPositionEncoded, (short) 1);
                                     successorFound = true;
                                     break;
                                 }
-                                if (selectedPositions.get(nextBestPositionEncoded) == 1) {
+                                if (selectedPositions.get(nextBestPositionEncoded, (short) 0) == 1) {
                                     bestPosition = nextBestPosition;
-                                    selectedPositions.put(nextBestPositionEncoded, 2);
+                                    selectedPositions.put(nextBestPositionEncoded, (short) 2);
                                     successorFound = true;
                                     break;
                                 }
                             }
                             if (!successorFound) {
-                                selectedPositions.put(encoded, timesSelected + 1);
+                                selectedPositions.put(encoded, (short) (timesSelected + 1));
                             }
                         }
                         else {
-                            selectedPositions.put(encoded, timesSelected + 1);
+                            selectedPositions.put(encoded, (short) (timesSelected + 1));
                         }
                     }
                     else {
-                        selectedPositions.put(encoded, timesSelected + 1);
+                        selectedPositions.put(encoded, (short) (timesSelected + 1));
                     }
                 }
             }
 
-            check();
+            addToGameHistory(encode(board, bestPosition, side));
 
-            list.add(bestPosition.description);
-            for (int index = 0, size = bestPosition.whites.size(); index != size; ++index) {
-                list.add(PIECE_CONVERTER.convertBackward(bestPosition.whites.get(index)));
-            }
-            for (int index = 0, size = bestPosition.blacks.size(); index != size; ++index) {
-                list.add(PIECE_CONVERTER.convertBackward(bestPosition.blacks.get(index)));
+            if (CHECK_MODE) {
+                //the searches must leave the root position as they found it
+                Tester.check(grid, clonedGrid, pieces, clonedPieces);
             }
+            check(board);
+
+            list.add(bestPosition.description);
+            addPieces(board, bestPosition, side, list);
         }
         else {
             System.out.println("Black AI Playing");
             //black move generation
-            {
-                final List<Piece> blacks = Pieces.getBlack(pieces);
-                final King blackKing = Pieces.getBlackKing(blacks);
-                {
-                    Tile previousTile = grid.getTile(blackKing.getRow(), blackKing.getColumn());
-                    List<Tile> castleTiles = blackKing.getCastleTiles(grid);
-                    for (int index = (castleTiles.size() - 1); index >= 0; --index) {
-                        Tile kingCastleTile = castleTiles.get(index);
-                        if (kingCastleTile.getColumn() == ChessConstants.LEFT_KING_CASTLE_COLUMN) {
-                            Tile leftRookTile = grid.getTile(ChessConstants.BLACK_PIECE_ROW, 0);
-                            Tile leftRookCastleTile = grid.getTile(ChessConstants.BLACK_PIECE_ROW, ChessConstants.LEFT_ROOK_CASTLE_COLUMN);
-                            Piece leftRook = leftRookTile.getOccupant();
-
-                            previousTile.removeOccupant();
-                            leftRookTile.removeOccupant();
-                            kingCastleTile.setOccupant(blackKing);
-                            leftRookCastleTile.setOccupant(leftRook);
-                            grid.setProtections(pieces);
-
-                            blackKing.increaseMoveCount();
-                            leftRook.increaseMoveCount();
-                            {
-                                Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                {
-                                    possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCastleText(blackKing, previousTile, leftRook, leftRookTile)));
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            blackKing.decreaseMoveCount();
-                            leftRook.decreaseMoveCount();
-
-                            previousTile.setOccupant(blackKing);
-                            leftRookTile.setOccupant(leftRook);
-                            kingCastleTile.removeOccupant();
-                            leftRookCastleTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        else {
-                            Tile rightRookTile = grid.getTile(ChessConstants.BLACK_PIECE_ROW, 7);
-                            Tile rightRookCastleTile = grid.getTile(ChessConstants.BLACK_PIECE_ROW, ChessConstants.RIGHT_ROOK_CASTLE_COLUMN);
-                            Piece rightRook = rightRookTile.getOccupant();
-
-                            previousTile.removeOccupant();
-                            rightRookTile.removeOccupant();
-                            kingCastleTile.setOccupant(blackKing);
-                            rightRookCastleTile.setOccupant(rightRook);
-                            grid.setProtections(pieces);
-
-                            blackKing.increaseMoveCount();
-                            rightRook.increaseMoveCount();
-                            {
-                                Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                {
-                                    possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCastleText(blackKing, previousTile, rightRook, rightRookTile)));
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            blackKing.decreaseMoveCount();
-                            rightRook.decreaseMoveCount();
-
-                            previousTile.setOccupant(blackKing);
-                            rightRookTile.setOccupant(rightRook);
-                            kingCastleTile.removeOccupant();
-                            rightRookCastleTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-
-                for (int pieceIndex = 0; pieceIndex != NUMBER_OF_BLACK_PIECES; ++pieceIndex) {
-                    final Piece black = blacks.get(pieceIndex);
-                    final int previousRow = black.getRow();
-                    final int previousColumn = black.getColumn();
-                    final Tile previousTile = grid.getTile(previousRow, previousColumn);
-                    List<Tile> attackTiles = black.getAttackTiles(grid);
-                    for (int index = (attackTiles.size() - 1); index >= 0; --index) {
-                        Tile attackTile = attackTiles.get(index);
-                        Piece enemy = attackTile.getOccupant();
-                        if (enemy.isKing()) {
-                            System.out.println("Enemy King targeted!");
-                            continue;
-                        }
-                        if (black.isPawn() && previousRow == 6) {
-                            //Queen replace = Pawn.promote(black);
-                            for (Piece replace : Pawn.getPromoted(black)) {
-                                previousTile.removeOccupant();
-                                attackTile.setOccupant(replace);
-                                int pawnIndex = pieces.indexOf(black);
-                                pieces.set(pawnIndex, replace);
-                                int removeIndex = Pieces.remove(pieces, enemy);
-                                grid.setProtections(pieces);
-                                if (!blackKing.inCheck(grid)) {
-                                    replace.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCapturePromotedText(black, previousTile, replace, enemy)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                }
-                                previousTile.setOccupant(black);
-                                attackTile.setOccupant(enemy);
-                                pieces.add(removeIndex, enemy);
-                                pieces.set(pawnIndex, black);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        else {
-                            previousTile.removeOccupant();
-                            attackTile.setOccupant(black);
-                            int removeIndex = Pieces.remove(pieces, enemy);
-                            grid.setProtections(pieces);
-                            if (!blackKing.inCheck(grid)) {
-                                black.increaseMoveCount();
-                                {
-                                    Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                    {
-                                        possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getCaptureText(black, previousTile, enemy)));
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                black.decreaseMoveCount();
-                            }
-                            previousTile.setOccupant(black);
-                            attackTile.setOccupant(enemy);
-                            pieces.add(removeIndex, enemy);
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                    if (black.isPawn()) {
-                        {
-                            Tile enPassantTile = black.getLeftEnPassantTile(grid);
-                            if (enPassantTile != null) {
-                                Tile whitePawnTile = grid.getTile(previousRow, previousColumn - 1);
-                                Piece whitePawn = whitePawnTile.getOccupant();
-                                previousTile.removeOccupant();
-                                whitePawnTile.removeOccupant();
-                                enPassantTile.setOccupant(black);
-                                int removeIndex = Pieces.remove(pieces, whitePawn);
-                                grid.setProtections(pieces);
-                                if (!blackKing.inCheck(grid)) {
-                                    black.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getEnPassantText(black, previousTile, whitePawn)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                    black.decreaseMoveCount();
-                                }
-                                previousTile.setOccupant(black);
-                                whitePawnTile.setOccupant(whitePawn);
-                                enPassantTile.removeOccupant();
-                                pieces.add(removeIndex, whitePawn);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        {
-                            Tile enPassantTile = black.getRightEnPassantTile(grid);
-                            if (enPassantTile != null) {
-                                Tile whitePawnTile = grid.getTile(previousRow, previousColumn + 1);
-                                Piece whitePawn = whitePawnTile.getOccupant();
-                                previousTile.removeOccupant();
-                                whitePawnTile.removeOccupant();
-                                enPassantTile.setOccupant(black);
-                                int removeIndex = Pieces.remove(pieces, whitePawn);
-                                grid.setProtections(pieces);
-                                if (!blackKing.inCheck(grid)) {
-                                    black.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getEnPassantText(black, previousTile, whitePawn)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                    black.decreaseMoveCount();
-                                }
-                                previousTile.setOccupant(black);
-                                whitePawnTile.setOccupant(whitePawn);
-                                enPassantTile.removeOccupant();
-                                pieces.add(removeIndex, whitePawn);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-
-                for (int pieceIndex = 0; pieceIndex != NUMBER_OF_BLACK_PIECES; ++pieceIndex) {
-                    final Piece black = blacks.get(pieceIndex);
-                    final int previousRow = black.getRow();
-                    final int previousColumn = black.getColumn();
-                    final Tile previousTile = grid.getTile(previousRow, previousColumn);
-                    final Iterator<Tile> moveTiles = black.getMoveTiles(grid);
-                    while (moveTiles.hasNext()) {
-                        Tile moveTile = moveTiles.next();
-                        if (black.isPawn() && previousRow == 6) {
-                            //Queen replace = Pawn.promote(black);
-                            for (Piece replace : Pawn.getPromoted(black)) {
-                                previousTile.removeOccupant();
-                                moveTile.setOccupant(replace);
-                                int pawnIndex = pieces.indexOf(black);
-                                pieces.set(pawnIndex, replace);
-                                grid.setProtections(pieces);
-                                if (!blackKing.inCheck(grid)) {
-                                    replace.increaseMoveCount();
-                                    {
-                                        Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                        {
-                                            possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getPromotedMoveText(black, previousTile, replace)));
-                                        }
-                                        if (pawn != null) {
-                                            pawn.setJustMadeDoubleJump(true);
-                                        }
-                                    }
-                                }
-                                previousTile.setOccupant(black);
-                                moveTile.removeOccupant();
-                                pieces.set(pawnIndex, black);
-                                grid.setProtections(pieces);
-                            }
-                        }
-                        else {
-                            previousTile.removeOccupant();
-                            moveTile.setOccupant(black);
-                            grid.setProtections(pieces);
-                            if (!blackKing.inCheck(grid)) {
-                                //see if this pawn has made a double jump
-                                //this is for enpassant purposes
-                                boolean madeDoubleJump = false;
-                                if (black.isPawn() && !black.hasMoved()) {
-                                    if (black.getRow() == 3) {
-                                        black.setJustMadeDoubleJump(madeDoubleJump = true);
-                                    }
-                                }
-                                black.increaseMoveCount();
-                                {
-                                    Piece pawn = checkBlackEnPassantRightsSlow(pieces);
-                                    {
-                                        possiblePositions.add(new PositionHolder(new Grid(grid), MoveUtils.getMoveText(black, previousTile)));
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                black.decreaseMoveCount();
-                                if (madeDoubleJump) {
-                                    black.setJustMadeDoubleJump(false);
-                                }
-                            }
-                            previousTile.setOccupant(black);
-                            moveTile.removeOccupant();
-                            grid.setProtections(pieces);
-                        }
-                        Tester.check(grid, clonedGrid, pieces, clonedPieces);
-                    }
-                }
-                Tester.check(grid, clonedGrid, pieces, clonedPieces);
-            }
+            addPositions(board, false);
 
             //show info dialog
             DIALOG.setVisible(true);
@@ -1307,69 +786,22 @@ public final class AI {
 
             PositionHolder bestPosition = possiblePositions.get(0);
 
-            if (parallel) {
-                ParallelSearch[] parallelSearches = new ParallelSearch[numberOfPositions];
-                Future[] futures = new Future[numberOfPositions];
-
-                //https://stackoverflow.com/questions/10116502/java-threading-optimization-at-100-cpu-usage
-                //ExecutorService executor = Executors.newFixedThreadPool(PROCESSORS + 1);
-                //https://stackoverflow.com/questions/19528304/how-to-get-the-threadpoolexecutor-to-increase-threads-to-max-before-queueing
-                //sometimes there are more core threads than positions!
-                //so we must make sure core pool size is <= numberOfPositions
-                int corePoolSize = CORE_THREADS > numberOfPositions ? numberOfPositions : CORE_THREADS;
-                ThreadPoolExecutor executor = new ThreadPoolExecutor(corePoolSize, numberOfPositions, 0L, TimeUnit.MILLISECONDS, TASK_QUEUE, HANDLER);
-
-                for (int index = 0; index != numberOfPositions; ++index) {
-                    futures[index] = executor.submit(parallelSearches[index] = new ParallelSearch(possiblePositions.get(index)));
-                    //start all parallel tasks at the same time
-                }
-                executor.shutdown();
-                try {
-                    for (int index = 0; index != numberOfPositions; ++index) {
-                        if (((Future<Integer>) futures[index]).get() != 0) { //wait for all parallel tasks to finish.
-                            throw new Error("All future results should be zero.");
-                        }
-                        futures[index] = null;
-                    }
-                }
-                catch (InterruptedException | ExecutionException ex) {
-                    throw new RuntimeException(ex);
-                }
-                int shallowestDepth = parallelSearches[0].getMaxDepth();
-                System.out.println(parallelSearches[0]);
-                for (int index = 1; index != numberOfPositions; ++index) {
-                    int depthsCovered = parallelSearches[index].getMaxDepth();
-                    if (depthsCovered < shallowestDepth) {
-                        shallowestDepth = depthsCovered;
-                    }
-                    System.out.println(parallelSearches[index]);
-                }
-                System.out.println("Parallel Processing Shallowest Depth: " + shallowestDepth);
-                DIALOG.setFinishedDepth(shallowestDepth--);
-                //this is the size of the list, we will need the last index later
-
-                for (int index = 0; index != numberOfPositions; ++index) {
-                    possiblePositions.get(index).value = parallelSearches[index].getScore(shallowestDepth);
-                    parallelSearches[index] = null;
-                }
-                possiblePositions.sort(HIGHEST_VALUE_POSITION_FIRST);
-                DIALOG.setMaxPositionValue((bestPosition = possiblePositions.get(0)).value);
-                System.out.println(bestPosition);
-                parallelSearches = null;
-                futures = null;
-                executor = null;
-                TASK_QUEUE.clear();
-            }
-            else {
+            //helpers only fill the transposition table, the result of the main search is used
+            final HelperSearch[] helpers = parallel ? startHelpers() : null;
+            {
                 int previousIterationTime = NEGATIVE_INFINITY;
                 //array of previous values
                 int[] previousValues = new int[numberOfPositions];
+                //in check mode every result must be exact to be compared
+                final boolean exact = AlphaBetaBlack.CHECK_MODE || mayRepeat(board, side);
+                final SearchContext context = new SearchContext(timer, Evaluators.MAIN, DIALOG);
+                context.setGameHistory(gameHistory);
                 Iterative_Deepening:
                 for (int searchDepth = 1; searchDepth <= maxDepth; ++searchDepth) {
                     //before attempting to search at this particular depth, check time 
                     final int depthStartTime = timer.timeElapsed();
-                    //if time remaining is less than the time it took for the previous depth
-                    if (previousIterationTime != NEGATIVE_INFINITY && (timer.getCountdownTime() - depthStartTime) <= previousIterationTime) {
+                    //if the soft limit has passed or time remaining is less than the time it took for the previous depth
+                    if (timer.softTimeOver() || (previousIterationTime != NEGATIVE_INFINITY && (timer.getCountdownTime() - depthStartTime) <= previousIterationTime)) {
                         //it is pretty much impossible to search to a greater depth
                         //in the remaining amount of time so terminate search
                         break;
@@ -1378,10 +810,16 @@ public final class AI {
                         previousValues[index] = possiblePositions.get(index).value;
                     }
                     boolean checkmate = false;
-                    for (int positionIndex = 0; positionIndex != numberOfPositions; ++positionIndex) {
-                        PositionHolder position = possiblePositions.get(positionIndex);
-                        int result = AlphaBetaBlack.min(new Board(position.grid, position.whites, position.blacks), searchDepth);
-                        if (timer.timeOver()) {
+                    //aspiration window centred on the score of the previous iteration
+                    int alpha = NEGATIVE_INFINITY;
+                    int beta = POSITIVE_INFINITY;
+                    if (searchDepth >= ASPIRATION_DEPTH && !exact) {
+                        alpha = bestPosition.value - ASPIRATION_WINDOW;
+                        beta = bestPosition.value + ASPIRATION_WINDOW;
+                    }
+                    while (true) {
+                        final int result = searchRoot(context, board, possiblePositions, searchDepth, alpha, beta, false, exact);
+                        if (context.isStopped()) {
                             //should time run out before all searches are completed
                             //at the current depth, reset all positional values to
                             //the previous depth iteration
@@ -1390,8 +828,17 @@ public final class AI {
                             }
                             break Iterative_Deepening;
                         }
-                        position.value = result;
-                        DIALOG.increaseMovesCompleted();
+                        //the score fell outside the window, search again with that side opened
+                        if (result <= alpha) {
+                            alpha = NEGATIVE_INFINITY;
+                        }
+                        else if (result >= beta) {
+                            beta = POSITIVE_INFINITY;
+                        }
+                        else {
+                            break;
+                        }
+                        DIALOG.setMovesCompleted(0);
                     }
                     //at this point the current depth has been fully searched
                     //so now we sort the higher scoring positions to look at first
@@ -1409,58 +856,62 @@ public final class AI {
                 System.out.println();
                 previousValues = null;
             }
+            if (helpers != null) {
+                stopHelpers(helpers);
+            }
 
             {
                 //maybe search for a better position only when losing
-                final String encoded = Pieces.encode(bestPosition.whites, bestPosition.blacks);
+                final long encoded = encode(board, bestPosition, side);
                 if (!selectedPositions.containsKey(encoded)) {
-                    selectedPositions.put(encoded, 1);
+                    selectedPositions.put(encoded, (short) 1);
                 }
                 else {
-                    final int timesSelected = selectedPositions.get(encoded);
+                    final int timesSelected = selectedPositions.get(encoded, (short) 0);
                     if (timesSelected >= 2) {
                         if (numberOfPositions >= 2) {
                             possiblePositions.sort(HIGHEST_VALUE_POSITION_LAST);
                             boolean successorFound = false;
                             for (int index = (numberOfPositions - 2); index >= 0; --index) {
                                 PositionHolder nextBestPosition = possiblePositions.get(index);
-                                String nextBestPositionEncoded = Pieces.encode(nextBestPosition.whites, nextBestPosition.blacks);
+                                long nextBestPositionEncoded = encode(board, nextBestPosition, side);
                                 if (!selectedPositions.containsKey(nextBestPositionEncoded)) {
                                     bestPosition = nextBestPosition;
-                                    selectedPositions.put(nextBestPositionEncoded, 1);
+                                    selectedPositions.put(nextBestPositionEncoded, (short) 1);
                                     successorFound = true;
                                     break;
                                 }
-                                if (selectedPositions.get(nextBestPositionEncoded) == 1) {
+                                if (selectedPositions.get(nextBestPositionEncoded, (short) 0) == 1) {
                                     bestPosition = nextBestPosition;
-                                    selectedPositions.put(nextBestPositionEncoded, 2);
+                                    selectedPositions.put(nextBestPositionEncoded, (short) 2);
                                     successorFound = true;
                                     break;
                                 }
                             }
                             if (!successorFound) {
-                                selectedPositions.put(encoded, timesSelected + 1);
+                                selectedPositions.put(encoded, (short) (timesSelected + 1));
                             }
                         }
                         else {
-                            selectedPositions.put(encoded, timesSelected + 1);
+                            selectedPositions.put(encoded, (short) (timesSelected + 1));
                         }
                     }
                     else {
-                        selectedPositions.put(encoded, timesSelected + 1);
+                        selectedPositions.put(encoded, (short) (timesSelected + 1));
                     }
                 }
             }
 
-            check();
+            addToGameHistory(encode(board, bestPosition, side));
 
-            list.add(bestPosition.description);
-            for (int index = 0, size = bestPosition.whites.size(); index != size; ++index) {
-                list.add(PIECE_CONVERTER.convertBackward(bestPosition.whites.get(index)));
-            }
-            for (int index = 0, size = bestPosition.blacks.size(); index != size; ++index) {
-                list.add(PIECE_CONVERTER.convertBackward(bestPosition.blacks.get(index)));
+            if (CHECK_MODE) {
+                //the searches must leave the root position as they found it
+                Tester.check(grid, clonedGrid, pieces, clonedPieces);
             }
+            check(board);
+
+            list.add(bestPosition.description);
+            addPieces(board, bestPosition, side, list);
         }
 
         DIALOG.disableUpdate();
@@ -1473,12 +924,14 @@ public final class AI {
         possiblePositions.clear();
     }
 
-    private void check() {
+    private void check(Board board) {
         if (CHECK_MODE) {
             (TIMER = TEST_TIMER).startTiming();
             Tester.checkProtections(pieces, side);
+            final Board clonedBoard = new Board(board);
             for (int index = 0, numberOfPositions = possiblePositions.size(); index != numberOfPositions; ++index) {
                 PositionHolder current = possiblePositions.get(index);
+                board.makeMove(current.move, side);
 
                 /**
                  * I believe this is correct, say you are playing as White After
@@ -1499,21 +952,18 @@ public final class AI {
                  *
                  */
                 {
-                    Tester.checkGrids(current.grid, current.clonedGrid);
-                    Tester.checkPieces(current.whites, current.clonedWhites);
-                    Tester.checkPieces(current.blacks, current.clonedBlacks);
-                }
-                {
-                    Board board = new Board(current.grid, current.whites, current.blacks);
-                    int alphaBetaWhiteMin = SecureAlphaBetaWhite.min(board, TEST_DEPTH);
-                    int alphaBetaWhiteMax = SecureAlphaBetaWhite.max(board, TEST_DEPTH);
-                    int minMaxWhiteMin = SecureMinMaxWhite.min(board, TEST_DEPTH);
-                    int minMaxWhiteMax = SecureMinMaxWhite.max(board, TEST_DEPTH);
-
-                    int alphaBetaBlackMin = SecureAlphaBetaBlack.min(board, TEST_DEPTH);
-                    int alphaBetaBlackMax = SecureAlphaBetaBlack.max(board, TEST_DEPTH);
-                    int minMaxBlackMin = SecureMinMaxBlack.min(board, TEST_DEPTH);
-                    int minMaxBlackMax = SecureMinMaxBlack.max(board, TEST_DEPTH);
+                    //the secure searches compare against fresh copies, whose pieces are sorted
+                    Board position = new Board(board);
+                    SearchContext context = new SearchContext(TEST_TIMER);
+                    int alphaBetaWhiteMin = SecureAlphaBetaWhite.min(context, position, TEST_DEPTH);
+                    int alphaBetaWhiteMax = SecureAlphaBetaWhite.max(context, position, TEST_DEPTH);
+                    int minMaxWhiteMin = SecureMinMaxWhite.min(context, position, TEST_DEPTH);
+                    int minMaxWhiteMax = SecureMinMaxWhite.max(context, position, TEST_DEPTH);
+
+                    int alphaBetaBlackMin = SecureAlphaBetaBlack.min(context, position, TEST_DEPTH);
+                    int alphaBetaBlackMax = SecureAlphaBetaBlack.max(context, position, TEST_DEPTH);
+                    int minMaxBlackMin = SecureMinMaxBlack.min(context, position, TEST_DEPTH);
+                    int minMaxBlackMax = SecureMinMaxBlack.max(context, position, TEST_DEPTH);
 
                     {
                         if (alphaBetaWhiteMin != minMaxWhiteMin) {
@@ -1551,10 +1001,9 @@ public final class AI {
                         }
                     }
                 }
-                {
-                    Tester.checkGrids(current.grid, current.clonedGrid);
-                    Tester.checkPieces(current.whites, current.clonedWhites);
-                    Tester.checkPieces(current.blacks, current.clonedBlacks);
+                board.unmakeMove();
+                if (!board.deepEquals(clonedBoard)) {
+                    throw new Error();
                 }
             }
             TIMER.stopTiming();
@@ -1565,7 +1014,7 @@ public final class AI {
         DIALOG = new AI.StatusDialog(new JFrame());
     }
 
-    static final class StatusDialog extends JDialog {
+    static final class StatusDialog extends JDialog implements SearchContext.Statistics {
 
         private static final String TITLE = "AI Status";
         private final StatusView view;
@@ -1603,7 +1052,8 @@ public final class AI {
             view.update = false;
         }
 
-        void increasePositionsScanned() {
+        @Override
+        public void increasePositionsScanned() {
             ++view.nodesScanned;
         }
 
@@ -6,7 +6,7 @@ public abstract class AdvancedSearchAlgorithm {
         
     }
     
-    public abstract int min(Board board, int depth, int alpha, int beta);
+    public abstract int min(SearchContext context, Board board, int depth, int alpha, int beta);
    
-    public abstract int max(Board board, int depth, int alpha, int beta);
+    public abstract int max(SearchContext context, Board board, int depth, int alpha, int beta);
 }
\ No newline at end of file
@@ -1,27 +1,41 @@
 package Engine;
 
 import static Engine.EvaluationConstants.CHECKMATE_VALUE;
-import static Util.ChessConstants.BLACK_PIECE_ROW;
-import static Util.ChessConstants.LEFT_ROOK_CASTLE_COLUMN;
-import static Util.ChessConstants.LEFT_ROOK_START_COLUMN;
-import static Util.ChessConstants.RIGHT_ROOK_CASTLE_COLUMN;
-import static Util.ChessConstants.RIGHT_ROOK_START_COLUMN;
-import static Util.ChessConstants.WHITE_PIECE_ROW;
+import static Engine.Moves.NONE;
+import static Engine.TranspositionTable.EXACT;
+import static Engine.TranspositionTable.LOWER_BOUND;
+import static Engine.TranspositionTable.MISS;
+import static Engine.TranspositionTable.UPPER_BOUND;
+import static Util.ChessConstants.BISHOP_ORDINAL;
+import static Util.ChessConstants.BISHOP_VALUE;
+import static Util.ChessConstants.BLACK_PAWN_START_ROW;
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.KING_VALUE;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
+import static Util.ChessConstants.KNIGHT_VALUE;
+import static Util.ChessConstants.LENGTH;
+import static Util.ChessConstants.NUMBER_OF_PIECE_TYPES;
+import static Util.ChessConstants.PAWN_ORDINAL;
+import static Util.ChessConstants.PAWN_VALUE;
+import static Util.ChessConstants.QUEEN_ORDINAL;
+import static Util.ChessConstants.QUEEN_VALUE;
+import static Util.ChessConstants.ROOK_ORDINAL;
+import static Util.ChessConstants.ROOK_VALUE;
+import static Util.ChessConstants.WHITE_PAWN_START_ROW;
 import static Util.Constants.NEGATIVE_INFINITY;
 import static Util.Constants.POSITIVE_INFINITY;
 import java.util.List;
-import static Engine.Evaluators.MAIN;
-import static Util.ChessConstants.BLACK_PAWN_DOUBLE_JUMP_ROW;
-import static Util.ChessConstants.BLACK_PAWN_START_ROW;
-import static Util.ChessConstants.WHITE_PAWN_DOUBLE_JUMP_ROW;
-import static Util.ChessConstants.WHITE_PAWN_START_ROW;
-import java.util.Iterator;
 
 /**
  * Currently the fastest search algorithm that I implemented here, with a focus
  * on maximum efficiency. Instead of needlessly re-calculating tile protections,
  * this search algorithm saves them and simply reads them back when necessary.
  *
+ * Each node generates all its moves up front and searches them best first: the
+ * move from the transposition table, then captures ordered by MVV-LVA, then the
+ * 2 killer moves of the ply and finally the other quiet moves by their history
+ * score. Moves are made and taken back on the same board.
+ *
  * SLIGHT BUG!!! When a Pawn is being promoted, the list is not completely
  * sorted because the Pawn is replaced by a new promoted Piece. So it is likely
  * that a Queen may be surrounded by Pawns in the Piece list after such a
@@ -41,15 +55,46 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
 
     public static final AlphaBetaBlack INSTANCE = new AlphaBetaBlack();
 
-    private static final int QUIESCENCE_SEARCH_DEPTH = 1;
+    //maximum number of captures resolved after the last full width ply
+    private static final int QUIESCENCE_SEARCH_DEPTH = 8;
+
+    //positional swing a capture may bring on top of the material it wins
+    private static final int DELTA_MARGIN = 200;
 
     //when using CHECK_MODE, allow for infinite time
     //also all search algorithms must use the same evaluator
     static final boolean CHECK_MODE = !true;
     private static final boolean STRICT_CHECK_MODE = false;
 
-    //position counter
-    private static long PERFT_COUNTER;
+    //default transposition table shared by both AIs, all scores are in Black's perspective
+    static final TranspositionTable TABLE = new TranspositionTable();
+
+    //the table changes which nodes get cut off, so it is not used in CHECK_MODE
+    private static final boolean USE_TRANSPOSITION_TABLE = !CHECK_MODE;
+
+    //the other search algorithms evaluate as soon as the depth runs out
+    private static final boolean USE_QUIESCENCE_SEARCH = !CHECK_MODE;
+
+    //score of a repeated position, neither side is better off
+    private static final int DRAW_VALUE = 0;
+
+    //depth taken off the search of a null move
+    private static final int NULL_MOVE_REDUCTION = 2;
+
+    //number of moves searched to full depth before quiet moves are reduced
+    private static final int LATE_MOVES = 3;
+
+    //depth taken off the search of a late quiet move
+    private static final int LATE_MOVE_REDUCTION = 1;
+
+    //piece values by ordinal
+    private static final int[] PIECE_VALUES = {PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, KING_VALUE};
+
+    //move ordering scores, every capture is tried before the killer moves
+    //and the killer moves before the other quiet moves
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
 
     static {
         System.out.println("---------------------------------------------------");
@@ -62,68 +107,95 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
 
     }
 
-    public static void setPerftCounter(long l) {
-        PERFT_COUNTER = l;
-    }
-
-    public static long getPerftCounter() {
-        return PERFT_COUNTER;
-    }
-
-    public static final int min(Board board, int depth) {
-        SecureAlphaBetaBlack.setPerftCounter(PERFT_COUNTER = 0L);
-        final Board clonedBoard = new Board(board);
-        final int result = INSTANCE.min(board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+    /**
+     * Searches the given position with White to move.
+     *
+     * @param context The state of the search, which must not be used by any
+     * other thread at the same time.
+     * @param board The chess board.
+     * @param depth Number of ply to search ahead.
+     * @return The score of the position in Black's perspective.
+     */
+    public static final int min(SearchContext context, Board board, int depth) {
+        final long nodes = context.getNodeCount();
+        //the board is only copied to be compared when checking
+        final Board clonedBoard = CHECK_MODE ? new Board(board) : null;
+        final int result = INSTANCE.min(context, board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
         if (CHECK_MODE) {
+            final SearchContext secureContext = new SearchContext(context.timer, context.evaluator, SearchContext.NO_STATISTICS);
             //will fail when different evaluators are used, different scores
-            if (result != SecureAlphaBetaBlack.min(board, depth)) {
+            if (toSecureValue(result, depth, context.ply) != SecureAlphaBetaBlack.min(secureContext, board, depth)) {
                 throw new Error();
             }
             //will fail when different evaluators are used, different cutoffs will happen
             //or when moves are ordered differently, which again
             //leads to different cutoffs
             if (STRICT_CHECK_MODE) {
-                if (PERFT_COUNTER != SecureAlphaBetaBlack.getPerftCounter()) {
+                if (context.getNodeCount() - nodes != secureContext.getNodeCount()) {
                     throw new Error();
                 }
             }
-        }
-        if (!board.deepEquals(clonedBoard)) {
-            throw new Error();
+            if (!board.deepEquals(clonedBoard)) {
+                throw new Error();
+            }
         }
         return result;
     }
 
-    public static final int max(Board board, int depth) {
-        SecureAlphaBetaBlack.setPerftCounter(PERFT_COUNTER = 0L);
-        final Board clonedBoard = new Board(board);
-        final int result = INSTANCE.max(board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+    /**
+     * Searches the given position with Black to move.
+     *
+     * @param context The state of the search, which must not be used by any
+     * other thread at the same time.
+     * @param board The chess board.
+     * @param depth Number of ply to search ahead.
+     * @return The score of the position in Black's perspective.
+     */
+    public static final int max(SearchContext context, Board board, int depth) {
+        final long nodes = context.getNodeCount();
+        //the board is only copied to be compared when checking
+        final Board clonedBoard = CHECK_MODE ? new Board(board) : null;
+        final int result = INSTANCE.max(context, board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
         if (CHECK_MODE) {
+            final SearchContext secureContext = new SearchContext(context.timer, context.evaluator, SearchContext.NO_STATISTICS);
             //will fail when different evaluators are used, different scores
-            if (result != SecureAlphaBetaBlack.max(board, depth)) {
+            if (toSecureValue(result, depth, context.ply) != SecureAlphaBetaBlack.max(secureContext, board, depth)) {
                 throw new Error();
             }
             //will fail when different evaluators are used, different cutoffs will happen
             //or when moves are ordered differently, which again
             //leads to different cutoffs
             if (STRICT_CHECK_MODE) {
-                if (PERFT_COUNTER != SecureAlphaBetaBlack.getPerftCounter()) {
+                if (context.getNodeCount() - nodes != secureContext.getNodeCount()) {
                     throw new Error();
                 }
             }
-        }
-        if (!board.deepEquals(clonedBoard)) {
-            throw new Error();
+            if (!board.deepEquals(clonedBoard)) {
+                throw new Error();
+            }
         }
         return result;
     }
 
+    //the secure searches score a checkmate by the depth left where it is
+    //found instead of its ply, at every node both add up to the same number
+    private static int toSecureValue(final int value, final int depth, final int ply) {
+        if (value >= TranspositionTable.CHECKMATE_THRESHOLD) {
+            return value + depth + ply;
+        }
+        if (value <= -TranspositionTable.CHECKMATE_THRESHOLD) {
+            return value - depth - ply;
+        }
+        return value;
+    }
+
     /**
      * Minimizing component of the AlphaBeta search function seeking to reduce
      * Black's score by as much as possible. This method implements White's
      * moves, here we pick a move which leads to smallest possible max (the
      * worst Black can do).
      *
+     * @param context The state of the search.
      * @param board The chess board.
      * @param depth Number of ply to search ahead.
      * @param alpha Current highest score for Black, Black seeks to maximize
@@ -136,387 +208,125 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
      * wining or that White is about to be checkmated by Black.
      */
     @Override
-    public final int min(final Board board, int depth, final int alpha, int beta) {
-        if (depth == 0 || AI.TIMER.timeOver()) {
-            ++PERFT_COUNTER;
-            return MAIN.evaluateInBlackPerspective(board);
+    public final int min(final SearchContext context, final Board board, int depth, final int alpha, int beta) {
+        final boolean afterNullMove = context.afterNullMove;
+        context.afterNullMove = false;
+
+        if (depth == 0) {
+            return USE_QUIESCENCE_SEARCH ? quiesceMin(context, board, QUIESCENCE_SEARCH_DEPTH, alpha, beta) : context.evaluate(board);
+        }
+        if (context.timeOver()) {
+            return context.evaluate(board);
         }
 
-        --depth;
-        int value = POSITIVE_INFINITY;
-        final Grid grid = board.grid;
-        final List<Piece> whites = board.whites;
-        final List<Piece> blacks = board.blacks;
-        final King whiteKing = board.whiteKing;
-        final ProtectionHolder holder = new ProtectionHolder(grid);
-
-        if (whiteKing.canCastle(grid)) {
-            final Tile previousTile = grid.getTile(whiteKing.getRow(), whiteKing.getColumn());
-            {
-                Tile kingCastleTile = whiteKing.getLeftCastleTile(grid);
-                if (kingCastleTile != null) {
-                    Tile leftRookTile = grid.getTile(WHITE_PIECE_ROW, LEFT_ROOK_START_COLUMN);
-                    Tile leftRookCastleTile = grid.getTile(WHITE_PIECE_ROW, LEFT_ROOK_CASTLE_COLUMN);
-                    Piece leftRook = leftRookTile.getOccupant();
-
-                    previousTile.removeOccupant();
-                    leftRookTile.removeOccupant();
-                    kingCastleTile.setOccupant(whiteKing);
-                    leftRookCastleTile.setOccupant(leftRook);
-                    grid.setProtections(whites, blacks);
-
-                    whiteKing.increaseMoveCount();
-                    leftRook.increaseMoveCount();
-                    {
-                        Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                        {
-                            int result = max(board, depth, alpha, beta);
-                            if (result < value) {
-                                value = result;
-                            }
-                            if (value < beta) {
-                                beta = value;
-                            }
-                        }
-                        if (pawn != null) {
-                            pawn.setJustMadeDoubleJump(true);
+        final long key = Zobrist.getKey(board, true);
+        //a repetition is a draw whatever is searched below it, it is not
+        //stored since the same position elsewhere may not repeat
+        if (context.usesRepetitionDetection() && context.isRepetition(key)) {
+            return DRAW_VALUE;
+        }
+        //repetitions found below so far
+        final long repetitions = context.repetitions;
+        int hashMove = 0;
+        if (USE_TRANSPOSITION_TABLE) {
+            final long entry = context.table.probe(key);
+            if (entry != MISS) {
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    final int score = TranspositionTable.getValue(entry, context.ply);
+                    switch (TranspositionTable.getBound(entry)) {
+                        case EXACT: {
+                            return score;
                         }
-                    }
-                    whiteKing.decreaseMoveCount();
-                    leftRook.decreaseMoveCount();
-
-                    previousTile.setOccupant(whiteKing);
-                    leftRookTile.setOccupant(leftRook);
-                    kingCastleTile.removeOccupant();
-                    leftRookCastleTile.removeOccupant();
-                    holder.reset(grid);
-
-                    if (beta <= alpha) {
-                        return beta;
-                    }
-                }
-            }
-            {
-                Tile kingCastleTile = whiteKing.getRightCastleTile(grid);
-                if (kingCastleTile != null) {
-                    Tile rightRookTile = grid.getTile(WHITE_PIECE_ROW, RIGHT_ROOK_START_COLUMN);
-                    Tile rightRookCastleTile = grid.getTile(WHITE_PIECE_ROW, RIGHT_ROOK_CASTLE_COLUMN);
-                    Piece rightRook = rightRookTile.getOccupant();
-
-                    previousTile.removeOccupant();
-                    rightRookTile.removeOccupant();
-                    kingCastleTile.setOccupant(whiteKing);
-                    rightRookCastleTile.setOccupant(rightRook);
-                    grid.setProtections(whites, blacks);
-
-                    whiteKing.increaseMoveCount();
-                    rightRook.increaseMoveCount();
-                    {
-                        Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                        {
-                            int result = max(board, depth, alpha, beta);
-                            if (result < value) {
-                                value = result;
-                            }
-                            if (value < beta) {
-                                beta = value;
+                        case LOWER_BOUND: {
+                            if (score >= beta) {
+                                return score;
                             }
+                            break;
                         }
-                        if (pawn != null) {
-                            pawn.setJustMadeDoubleJump(true);
+                        case UPPER_BOUND: {
+                            if (score <= alpha) {
+                                return score;
+                            }
                         }
                     }
-                    whiteKing.decreaseMoveCount();
-                    rightRook.decreaseMoveCount();
-
-                    previousTile.setOccupant(whiteKing);
-                    rightRookTile.setOccupant(rightRook);
-                    kingCastleTile.removeOccupant();
-                    rightRookCastleTile.removeOccupant();
-                    holder.reset(grid);
-
-                    if (beta <= alpha) {
-                        return beta;
-                    }
                 }
+                hashMove = TranspositionTable.getMove(entry);
             }
         }
 
-        int maxIndex = whites.size() - 1;
-
-        for (int pieceIndex = maxIndex; pieceIndex >= 0; --pieceIndex) {
-            final Piece white = whites.get(pieceIndex);
-            final int currentRow = white.getRow();
-            final int currentColumn = white.getColumn();
-            final Tile previousTile = grid.getTile(currentRow, currentColumn);
-            final List<Tile> attackTiles = white.getAttackTiles(grid);
-            for (int index = (attackTiles.size() - 1); index >= 0; --index) {
-                Tile attackTile = attackTiles.get(index);
-                Piece enemy = attackTile.getOccupant();
-                if (!enemy.isKing()) {
-                    if (white.isPawn() && currentRow == BLACK_PAWN_START_ROW) {
-                        for (Piece replace : Pawn.getPromoted(white)) {
-                            previousTile.removeOccupant();
-                            attackTile.setOccupant(replace);
-                            int pawnIndex = pieceIndex; //whites.indexOf(white);
-                            whites.set(pawnIndex, replace);
-                            int removeIndex = Pieces.remove(blacks, enemy);
-                            grid.setProtections(whites, blacks);
-                            if (!whiteKing.inCheck(grid)) {
-                                replace.increaseMoveCount();
-                                {
-                                    Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                                    {
-                                        int result = max(board, depth, alpha, beta);
-                                        if (result < value) {
-                                            value = result;
-                                        }
-                                        if (value < beta) {
-                                            beta = value;
-                                        }
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                if (beta <= alpha) {
-                                    previousTile.setOccupant(white);
-                                    attackTile.setOccupant(enemy);
-                                    whites.set(pawnIndex, white);
-                                    blacks.add(removeIndex, enemy);
-                                    holder.reset(grid);
-                                    return beta;
-                                }
-                            }
-                            previousTile.setOccupant(white);
-                            attackTile.setOccupant(enemy);
-                            whites.set(pawnIndex, white);
-                            blacks.add(removeIndex, enemy);
-                            holder.reset(grid);
-                        }
-                    }
-                    else {
-                        previousTile.removeOccupant();
-                        attackTile.setOccupant(white);
-                        int removeIndex = Pieces.remove(blacks, enemy);
-                        grid.setProtections(whites, blacks);
-                        if (!whiteKing.inCheck(grid)) {
-                            white.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                                {
-                                    int result = max(board, depth, alpha, beta);
-                                    if (result < value) {
-                                        value = result;
-                                    }
-                                    if (value < beta) {
-                                        beta = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            white.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(white);
-                                attackTile.setOccupant(enemy);
-                                blacks.add(removeIndex, enemy);
-                                holder.reset(grid);
-                                return beta;
-                            }
-                        }
-                        previousTile.setOccupant(white);
-                        attackTile.setOccupant(enemy);
-                        blacks.add(removeIndex, enemy);
-                        holder.reset(grid);
-                    }
-                }
+        final boolean inCheck = (context.usesNullMovePruning() || context.usesLateMoveReductions()) && board.whiteKing.inCheck(board.grid);
+
+        //null move pruning, if Black cannot get above alpha even when White
+        //passes, a real White move will not let Black get there either
+        if (context.usesNullMovePruning() && !afterNullMove && !inCheck && depth > NULL_MOVE_REDUCTION && hasPieces(board.whites)) {
+            final Piece enPassantPawn = Pieces.checkWhiteEnPassantRights(board.blacks);
+            final int pathStart = context.pathStart;
+            context.afterNullMove = true;
+            context.pathStart = ++context.ply;
+            final int result = max(context, board, depth - 1 - NULL_MOVE_REDUCTION, alpha, alpha + 1);
+            context.pathStart = pathStart;
+            --context.ply;
+            context.afterNullMove = false;
+            if (enPassantPawn != null) {
+                enPassantPawn.setJustMadeDoubleJump(true);
             }
-            if (white.isPawn()) {
-                {
-                    Tile enPassantTile = white.getLeftEnPassantTile(grid);
-                    if (enPassantTile != null) {
-                        Tile blackPawnTile = grid.getTile(currentRow, currentColumn - 1);
-                        Piece blackPawn = blackPawnTile.getOccupant();
-                        previousTile.removeOccupant();
-                        blackPawnTile.removeOccupant();
-                        enPassantTile.setOccupant(white);
-                        int removeIndex = Pieces.remove(blacks, blackPawn);
-                        grid.setProtections(whites, blacks);
-                        if (!whiteKing.inCheck(grid)) {
-                            white.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                                {
-                                    int result = max(board, depth, alpha, beta);
-                                    if (result < value) {
-                                        value = result;
-                                    }
-                                    if (value < beta) {
-                                        beta = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            white.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(white);
-                                blackPawnTile.setOccupant(blackPawn);
-                                enPassantTile.removeOccupant();
-                                blacks.add(removeIndex, blackPawn);
-                                holder.reset(grid);
-                                return beta;
-                            }
-                        }
-                        previousTile.setOccupant(white);
-                        blackPawnTile.setOccupant(blackPawn);
-                        enPassantTile.removeOccupant();
-                        blacks.add(removeIndex, blackPawn);
-                        holder.reset(grid);
-                    }
-                }
-                {
-                    Tile enPassantTile = white.getRightEnPassantTile(grid);
-                    if (enPassantTile != null) {
-                        Tile blackPawnTile = grid.getTile(currentRow, currentColumn + 1);
-                        Piece blackPawn = blackPawnTile.getOccupant();
-                        previousTile.removeOccupant();
-                        blackPawnTile.removeOccupant();
-                        enPassantTile.setOccupant(white);
-                        int removeIndex = Pieces.remove(blacks, blackPawn);
-                        grid.setProtections(whites, blacks);
-                        if (!whiteKing.inCheck(grid)) {
-                            white.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                                {
-                                    int result = max(board, depth, alpha, beta);
-                                    if (result < value) {
-                                        value = result;
-                                    }
-                                    if (value < beta) {
-                                        beta = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            white.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(white);
-                                blackPawnTile.setOccupant(blackPawn);
-                                enPassantTile.removeOccupant();
-                                blacks.add(removeIndex, blackPawn);
-                                holder.reset(grid);
-                                return beta;
-                            }
-                        }
-                        previousTile.setOccupant(white);
-                        blackPawnTile.setOccupant(blackPawn);
-                        enPassantTile.removeOccupant();
-                        blacks.add(removeIndex, blackPawn);
-                        holder.reset(grid);
-                    }
-                }
+            if (result <= alpha) {
+                return store(context, key, depth, alpha, UPPER_BOUND, 0, repetitions);
             }
         }
 
-        for (; maxIndex >= 0; --maxIndex) {
-            final Piece white = whites.get(maxIndex);
-            final int currentRow = white.getRow();
-            final int currentColumn = white.getColumn();
-            final Tile previousTile = grid.getTile(currentRow, currentColumn);
-            final Iterator<Tile> moveTiles = white.getMoveTiles(grid);
-            while (moveTiles.hasNext()) {
-                Tile moveTile = moveTiles.next();
-                if (white.isPawn() && currentRow == BLACK_PAWN_START_ROW) {
-                    for (Piece replace : Pawn.getPromoted(white)) {
-                        previousTile.removeOccupant();
-                        moveTile.setOccupant(replace);
-                        int pawnIndex = maxIndex; //whites.indexOf(white);
-                        whites.set(pawnIndex, replace);
-                        grid.setProtections(whites, blacks);
-                        if (!whiteKing.inCheck(grid)) {
-                            replace.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                                {
-                                    int result = max(board, depth, alpha, beta);
-                                    if (result < value) {
-                                        value = result;
-                                    }
-                                    if (value < beta) {
-                                        beta = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(white);
-                                moveTile.removeOccupant();
-                                whites.set(pawnIndex, white);
-                                holder.reset(grid);
-                                return beta;
-                            }
-                        }
-                        previousTile.setOccupant(white);
-                        moveTile.removeOccupant();
-                        whites.set(pawnIndex, white);
-                        holder.reset(grid);
-                    }
+        final int originalBeta = beta;
+        int bestMove = 0;
+
+        --depth;
+        int value = POSITIVE_INFINITY;
+
+        final SearchContext.Frame frame = context.getFrame();
+        final int[] moves = frame.moves;
+        final int[] scores = frame.scores;
+        final int numberOfMoves = generateMoves(board, true, true, moves, 0);
+        score(context, true, hashMove, moves, scores, numberOfMoves);
+
+        for (int index = 0; index != numberOfMoves; ++index) {
+            final int move = nextMove(moves, scores, index, numberOfMoves);
+            if (!board.makeMove(move, true)) {
+                board.unmakeMove();
+                continue;
+            }
+            ++context.ply;
+            int result;
+            //late move reductions, quiet moves ordered late are searched
+            //1 ply less and only searched fully if they turn out better
+            if (context.usesLateMoveReductions() && index >= LATE_MOVES && depth > LATE_MOVE_REDUCTION && !inCheck && scores[index] < KILLER_SCORE && !board.blackKing.inCheck(board.grid)) {
+                result = max(context, board, depth - LATE_MOVE_REDUCTION, beta - 1, beta);
+                if (result < beta) {
+                    result = max(context, board, depth, alpha, beta);
                 }
-                else {
-                    previousTile.removeOccupant();
-                    moveTile.setOccupant(white);
-                    grid.setProtections(whites, blacks);
-                    if (!whiteKing.inCheck(grid)) {
-                        boolean madeDoubleJump = false;
-                        if (white.isPawn() && !white.hasMoved()) {
-                            if (white.getRow() == WHITE_PAWN_DOUBLE_JUMP_ROW) {
-                                white.setJustMadeDoubleJump(madeDoubleJump = true);
-                            }
-                        }
-                        white.increaseMoveCount();
-                        {
-                            Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
-                            {
-                                int result = max(board, depth, alpha, beta);
-                                if (result < value) {
-                                    value = result;
-                                }
-                                if (value < beta) {
-                                    beta = value;
-                                }
-                            }
-                            if (pawn != null) {
-                                pawn.setJustMadeDoubleJump(true);
-                            }
-                        }
-                        white.decreaseMoveCount();
-                        if (madeDoubleJump) {
-                            white.setJustMadeDoubleJump(false);
-                        }
-                        if (beta <= alpha) {
-                            previousTile.setOccupant(white);
-                            moveTile.removeOccupant();
-                            holder.reset(grid);
-                            return beta;
-                        }
-                    }
-                    previousTile.setOccupant(white);
-                    moveTile.removeOccupant();
-                    holder.reset(grid);
+            }
+            else {
+                result = max(context, board, depth, alpha, beta);
+            }
+            --context.ply;
+            board.unmakeMove();
+            if (result < value) {
+                value = result;
+                bestMove = move;
+            }
+            if (value < beta) {
+                beta = value;
+            }
+            if (beta <= alpha) {
+                if (Moves.isQuiet(move)) {
+                    context.addCutoff(true, move, depth + 1);
                 }
+                return store(context, key, depth + 1, beta, UPPER_BOUND, bestMove, repetitions);
             }
         }
 
-        return (value == POSITIVE_INFINITY) ? checkWhiteEndGame(grid, whiteKing, depth + 1) : value;
+        if (value == POSITIVE_INFINITY) {
+            return store(context, key, depth + 1, checkWhiteEndGame(context, board.grid, board.whiteKing), EXACT, 0, repetitions);
+        }
+        return store(context, key, depth + 1, value, (value >= originalBeta) ? LOWER_BOUND : EXACT, bestMove, repetitions);
     }
 
     /**
@@ -525,6 +335,7 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
      * moves, here we pick a move which leads to greatest possible max (the best
      * Black can do).
      *
+     * @param context The state of the search.
      * @param board The chess board.
      * @param depth Number of ply to search ahead.
      * @param alpha Current highest score for Black, Black seeks to maximize
@@ -537,387 +348,501 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
      * losing or that Black is about to be checkmated by White.
      */
     @Override
-    public final int max(final Board board, int depth, int alpha, final int beta) {
-        if (depth == 0 || AI.TIMER.timeOver()) {
-            ++PERFT_COUNTER;
-            return MAIN.evaluateInBlackPerspective(board);
+    public final int max(final SearchContext context, final Board board, int depth, int alpha, final int beta) {
+        final boolean afterNullMove = context.afterNullMove;
+        context.afterNullMove = false;
+
+        if (depth == 0) {
+            return USE_QUIESCENCE_SEARCH ? quiesceMax(context, board, QUIESCENCE_SEARCH_DEPTH, alpha, beta) : context.evaluate(board);
+        }
+        if (context.timeOver()) {
+            return context.evaluate(board);
         }
 
-        --depth;
-        int value = NEGATIVE_INFINITY;
-        final Grid grid = board.grid;
-        final List<Piece> whites = board.whites;
-        final List<Piece> blacks = board.blacks;
-        final King blackKing = board.blackKing;
-        final ProtectionHolder holder = new ProtectionHolder(grid);
-
-        if (blackKing.canCastle(grid)) {
-            final Tile previousTile = grid.getTile(blackKing.getRow(), blackKing.getColumn());
-            {
-                Tile kingCastleTile = blackKing.getLeftCastleTile(grid);
-                if (kingCastleTile != null) {
-                    Tile leftRookTile = grid.getTile(BLACK_PIECE_ROW, LEFT_ROOK_START_COLUMN);
-                    Tile leftRookCastleTile = grid.getTile(BLACK_PIECE_ROW, LEFT_ROOK_CASTLE_COLUMN);
-                    Piece leftRook = leftRookTile.getOccupant();
-
-                    previousTile.removeOccupant();
-                    leftRookTile.removeOccupant();
-                    kingCastleTile.setOccupant(blackKing);
-                    leftRookCastleTile.setOccupant(leftRook);
-                    grid.setProtections(whites, blacks);
-
-                    blackKing.increaseMoveCount();
-                    leftRook.increaseMoveCount();
-                    {
-                        Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                        {
-                            int result = min(board, depth, alpha, beta);
-                            if (result > value) {
-                                value = result;
-                            }
-                            if (value > alpha) {
-                                alpha = value;
+        final long key = Zobrist.getKey(board, false);
+        //a repetition is a draw whatever is searched below it, it is not
+        //stored since the same position elsewhere may not repeat
+        if (context.usesRepetitionDetection() && context.isRepetition(key)) {
+            return DRAW_VALUE;
+        }
+        //repetitions found below so far
+        final long repetitions = context.repetitions;
+        int hashMove = 0;
+        if (USE_TRANSPOSITION_TABLE) {
+            final long entry = context.table.probe(key);
+            if (entry != MISS) {
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    final int score = TranspositionTable.getValue(entry, context.ply);
+                    switch (TranspositionTable.getBound(entry)) {
+                        case EXACT: {
+                            return score;
+                        }
+                        case LOWER_BOUND: {
+                            if (score >= beta) {
+                                return score;
                             }
+                            break;
                         }
-                        if (pawn != null) {
-                            pawn.setJustMadeDoubleJump(true);
+                        case UPPER_BOUND: {
+                            if (score <= alpha) {
+                                return score;
+                            }
                         }
                     }
-                    blackKing.decreaseMoveCount();
-                    leftRook.decreaseMoveCount();
+                }
+                hashMove = TranspositionTable.getMove(entry);
+            }
+        }
 
-                    previousTile.setOccupant(blackKing);
-                    leftRookTile.setOccupant(leftRook);
-                    kingCastleTile.removeOccupant();
-                    leftRookCastleTile.removeOccupant();
-                    holder.reset(grid);
+        final boolean inCheck = (context.usesNullMovePruning() || context.usesLateMoveReductions()) && board.blackKing.inCheck(board.grid);
+
+        //null move pruning, if White cannot get below beta even when Black
+        //passes, a real Black move will not let White get there either
+        if (context.usesNullMovePruning() && !afterNullMove && !inCheck && depth > NULL_MOVE_REDUCTION && hasPieces(board.blacks)) {
+            final Piece enPassantPawn = Pieces.checkBlackEnPassantRights(board.whites);
+            final int pathStart = context.pathStart;
+            context.afterNullMove = true;
+            context.pathStart = ++context.ply;
+            final int result = min(context, board, depth - 1 - NULL_MOVE_REDUCTION, beta - 1, beta);
+            context.pathStart = pathStart;
+            --context.ply;
+            context.afterNullMove = false;
+            if (enPassantPawn != null) {
+                enPassantPawn.setJustMadeDoubleJump(true);
+            }
+            if (result >= beta) {
+                return store(context, key, depth, beta, LOWER_BOUND, 0, repetitions);
+            }
+        }
 
-                    if (beta <= alpha) {
-                        return alpha;
-                    }
+        final int originalAlpha = alpha;
+        int bestMove = 0;
+
+        --depth;
+        int value = NEGATIVE_INFINITY;
+
+        final SearchContext.Frame frame = context.getFrame();
+        final int[] moves = frame.moves;
+        final int[] scores = frame.scores;
+        final int numberOfMoves = generateMoves(board, false, true, moves, 0);
+        score(context, false, hashMove, moves, scores, numberOfMoves);
+
+        for (int index = 0; index != numberOfMoves; ++index) {
+            final int move = nextMove(moves, scores, index, numberOfMoves);
+            if (!board.makeMove(move, false)) {
+                board.unmakeMove();
+                continue;
+            }
+            ++context.ply;
+            int result;
+            //late move reductions, quiet moves ordered late are searched
+            //1 ply less and only searched fully if they turn out better
+            if (context.usesLateMoveReductions() && index >= LATE_MOVES && depth > LATE_MOVE_REDUCTION && !inCheck && scores[index] < KILLER_SCORE && !board.whiteKing.inCheck(board.grid)) {
+                result = min(context, board, depth - LATE_MOVE_REDUCTION, alpha, alpha + 1);
+                if (result > alpha) {
+                    result = min(context, board, depth, alpha, beta);
                 }
             }
-            {
-                Tile kingCastleTile = blackKing.getRightCastleTile(grid);
-                if (kingCastleTile != null) {
-                    Tile rightRookTile = grid.getTile(BLACK_PIECE_ROW, RIGHT_ROOK_START_COLUMN);
-                    Tile rightRookCastleTile = grid.getTile(BLACK_PIECE_ROW, RIGHT_ROOK_CASTLE_COLUMN);
-                    Piece rightRook = rightRookTile.getOccupant();
-
-                    previousTile.removeOccupant();
-                    rightRookTile.removeOccupant();
-                    kingCastleTile.setOccupant(blackKing);
-                    rightRookCastleTile.setOccupant(rightRook);
-                    grid.setProtections(whites, blacks);
-
-                    blackKing.increaseMoveCount();
-                    rightRook.increaseMoveCount();
-                    {
-                        Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                        {
-                            int result = min(board, depth, alpha, beta);
-                            if (result > value) {
-                                value = result;
-                            }
-                            if (value > alpha) {
-                                alpha = value;
-                            }
-                        }
-                        if (pawn != null) {
-                            pawn.setJustMadeDoubleJump(true);
-                        }
-                    }
-                    blackKing.decreaseMoveCount();
-                    rightRook.decreaseMoveCount();
+            else {
+                result = min(context, board, depth, alpha, beta);
+            }
+            --context.ply;
+            board.unmakeMove();
+            if (result > value) {
+                value = result;
+                bestMove = move;
+            }
+            if (value > alpha) {
+                alpha = value;
+            }
+            if (beta <= alpha) {
+                if (Moves.isQuiet(move)) {
+                    context.addCutoff(false, move, depth + 1);
+                }
+                return store(context, key, depth + 1, alpha, LOWER_BOUND, bestMove, repetitions);
+            }
+        }
 
-                    previousTile.setOccupant(blackKing);
-                    rightRookTile.setOccupant(rightRook);
-                    kingCastleTile.removeOccupant();
-                    rightRookCastleTile.removeOccupant();
-                    holder.reset(grid);
+        if (value == NEGATIVE_INFINITY) {
+            return store(context, key, depth + 1, checkBlackEndGame(context, board.grid, board.blackKing), EXACT, 0, repetitions);
+        }
+        return store(context, key, depth + 1, value, (value <= originalAlpha) ? UPPER_BOUND : EXACT, bestMove, repetitions);
+    }
 
-                    if (beta <= alpha) {
-                        return alpha;
-                    }
-                }
+    /**
+     * Checks whether a side has a piece other than Pawns and its King. Passing
+     * can only be worse than moving when a side has such a piece, in Pawn
+     * endings zugzwang is common and null moves are not made.
+     *
+     * @param pieces The pieces of the side.
+     * @return True if the side has a Knight, Bishop, Rook or Queen.
+     */
+    private static boolean hasPieces(final List<Piece> pieces) {
+        for (int index = (pieces.size() - 1); index >= 0; --index) {
+            final Piece piece = pieces.get(index);
+            if (!piece.isPawn() && !piece.isKing()) {
+                return true;
             }
         }
+        return false;
+    }
 
-        int maxIndex = blacks.size() - 1;
-
-        for (int pieceIndex = maxIndex; pieceIndex >= 0; --pieceIndex) {
-            final Piece black = blacks.get(pieceIndex);
-            final int currentRow = black.getRow();
-            final int currentColumn = black.getColumn();
-            final Tile previousTile = grid.getTile(currentRow, currentColumn);
-            final List<Tile> attackTiles = black.getAttackTiles(grid);
-            for (int index = (attackTiles.size() - 1); index >= 0; --index) {
-                Tile attackTile = attackTiles.get(index);
-                Piece enemy = attackTile.getOccupant();
-                if (!enemy.isKing()) {
-                    if (black.isPawn() && currentRow == WHITE_PAWN_START_ROW) {
-                        for (Piece replace : Pawn.getPromoted(black)) {
-                            previousTile.removeOccupant();
-                            attackTile.setOccupant(replace);
-                            int pawnIndex = pieceIndex; //blacks.indexOf(black);
-                            blacks.set(pawnIndex, replace);
-                            int removeIndex = Pieces.remove(whites, enemy);
-                            grid.setProtections(whites, blacks);
-                            if (!blackKing.inCheck(grid)) {
-                                replace.increaseMoveCount();
-                                {
-                                    Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                                    {
-                                        int result = min(board, depth, alpha, beta);
-                                        if (result > value) {
-                                            value = result;
-                                        }
-                                        if (value > alpha) {
-                                            alpha = value;
-                                        }
-                                    }
-                                    if (pawn != null) {
-                                        pawn.setJustMadeDoubleJump(true);
-                                    }
-                                }
-                                if (beta <= alpha) {
-                                    previousTile.setOccupant(black);
-                                    attackTile.setOccupant(enemy);
-                                    blacks.set(pawnIndex, black);
-                                    whites.add(removeIndex, enemy);
-                                    holder.reset(grid);
-                                    return alpha;
-                                }
-                            }
-                            previousTile.setOccupant(black);
-                            attackTile.setOccupant(enemy);
-                            blacks.set(pawnIndex, black);
-                            whites.add(removeIndex, enemy);
-                            holder.reset(grid);
-                        }
-                    }
-                    else {
-                        previousTile.removeOccupant();
-                        attackTile.setOccupant(black);
-                        int removeIndex = Pieces.remove(whites, enemy);
-                        grid.setProtections(whites, blacks);
-                        if (!blackKing.inCheck(grid)) {
-                            black.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                                {
-                                    int result = min(board, depth, alpha, beta);
-                                    if (result > value) {
-                                        value = result;
-                                    }
-                                    if (value > alpha) {
-                                        alpha = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            black.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(black);
-                                attackTile.setOccupant(enemy);
-                                whites.add(removeIndex, enemy);
-                                holder.reset(grid);
-                                return alpha;
-                            }
-                        }
-                        previousTile.setOccupant(black);
-                        attackTile.setOccupant(enemy);
-                        whites.add(removeIndex, enemy);
-                        holder.reset(grid);
-                    }
-                }
+    /**
+     * Quiescence search for White, only captures and Queen promotions are
+     * searched so that positions are not evaluated in the middle of an
+     * exchange. White may "stand pat", declining every capture and keeping the
+     * static evaluation, unless White is in check. Then every move is searched,
+     * so a checkmate is found even beyond the last full width ply.
+     *
+     * @param context The state of the search.
+     * @param board The chess board.
+     * @param depth Maximum number of captures still to be resolved.
+     * @param alpha Current highest score for Black.
+     * @param beta Current lowest score for Black.
+     * @return The score of the quiet position reached.
+     */
+    private static int quiesceMin(final SearchContext context, final Board board, final int depth, final int alpha, int beta) {
+        if (depth == 0 || context.timeOver()) {
+            return context.evaluate(board, alpha, beta);
+        }
+        final boolean inCheck = board.whiteKing.inCheck(board.grid);
+        int standPat = POSITIVE_INFINITY;
+        if (!inCheck) {
+            standPat = context.evaluate(board, alpha, beta);
+            if (standPat <= alpha) {
+                return standPat;
             }
-            if (black.isPawn()) {
-                {
-                    Tile enPassantTile = black.getLeftEnPassantTile(grid);
-                    if (enPassantTile != null) {
-                        Tile whitePawnTile = grid.getTile(currentRow, currentColumn - 1);
-                        Piece whitePawn = whitePawnTile.getOccupant();
-                        previousTile.removeOccupant();
-                        whitePawnTile.removeOccupant();
-                        enPassantTile.setOccupant(black);
-                        int removeIndex = Pieces.remove(whites, whitePawn);
-                        grid.setProtections(whites, blacks);
-                        if (!blackKing.inCheck(grid)) {
-                            black.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                                {
-                                    int result = min(board, depth, alpha, beta);
-                                    if (result > value) {
-                                        value = result;
-                                    }
-                                    if (value > alpha) {
-                                        alpha = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            black.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(black);
-                                whitePawnTile.setOccupant(whitePawn);
-                                enPassantTile.removeOccupant();
-                                whites.add(removeIndex, whitePawn);
-                                holder.reset(grid);
-                                return alpha;
-                            }
-                        }
-                        previousTile.setOccupant(black);
-                        whitePawnTile.setOccupant(whitePawn);
-                        enPassantTile.removeOccupant();
-                        whites.add(removeIndex, whitePawn);
-                        holder.reset(grid);
-                    }
-                }
-                {
-                    Tile enPassantTile = black.getRightEnPassantTile(grid);
-                    if (enPassantTile != null) {
-                        Tile whitePawnTile = grid.getTile(currentRow, currentColumn + 1);
-                        Piece whitePawn = whitePawnTile.getOccupant();
-                        previousTile.removeOccupant();
-                        whitePawnTile.removeOccupant();
-                        enPassantTile.setOccupant(black);
-                        int removeIndex = Pieces.remove(whites, whitePawn);
-                        grid.setProtections(whites, blacks);
-                        if (!blackKing.inCheck(grid)) {
-                            black.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                                {
-                                    int result = min(board, depth, alpha, beta);
-                                    if (result > value) {
-                                        value = result;
-                                    }
-                                    if (value > alpha) {
-                                        alpha = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            black.decreaseMoveCount();
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(black);
-                                whitePawnTile.setOccupant(whitePawn);
-                                enPassantTile.removeOccupant();
-                                whites.add(removeIndex, whitePawn);
-                                holder.reset(grid);
-                                return alpha;
-                            }
-                        }
-                        previousTile.setOccupant(black);
-                        whitePawnTile.setOccupant(whitePawn);
-                        enPassantTile.removeOccupant();
-                        whites.add(removeIndex, whitePawn);
-                        holder.reset(grid);
+            if (standPat < beta) {
+                beta = standPat;
+            }
+        }
+
+        final SearchContext.Frame frame = context.getFrame();
+        final int[] moves = frame.moves;
+        final int[] scores = frame.scores;
+        final int numberOfMoves = generateMoves(board, true, inCheck, moves, 0);
+        score(context, true, 0, moves, scores, numberOfMoves);
+
+        boolean legal = false;
+        for (int index = 0; index != numberOfMoves; ++index) {
+            final int move = nextMove(moves, scores, index, numberOfMoves);
+            //delta pruning, even winning the piece for free does not lower the score enough
+            if (!inCheck && standPat - getGain(move) - DELTA_MARGIN >= beta) {
+                continue;
+            }
+            if (!board.makeMove(move, true)) {
+                board.unmakeMove();
+                continue;
+            }
+            legal = true;
+            ++context.ply;
+            final int result = quiesceMax(context, board, depth - 1, alpha, beta);
+            --context.ply;
+            board.unmakeMove();
+            if (result < beta) {
+                beta = result;
+            }
+            if (beta <= alpha) {
+                return beta;
+            }
+        }
+        return (inCheck && !legal) ? checkWhiteEndGame(context, board.grid, board.whiteKing) : beta;
+    }
+
+    /**
+     * Quiescence search for Black, only captures and Queen promotions are
+     * searched so that positions are not evaluated in the middle of an
+     * exchange. Black may "stand pat", declining every capture and keeping the
+     * static evaluation, unless Black is in check. Then every move is searched,
+     * so a checkmate is found even beyond the last full width ply.
+     *
+     * @param context The state of the search.
+     * @param board The chess board.
+     * @param depth Maximum number of captures still to be resolved.
+     * @param alpha Current highest score for Black.
+     * @param beta Current lowest score for Black.
+     * @return The score of the quiet position reached.
+     */
+    private static int quiesceMax(final SearchContext context, final Board board, final int depth, int alpha, final int beta) {
+        if (depth == 0 || context.timeOver()) {
+            return context.evaluate(board, alpha, beta);
+        }
+        final boolean inCheck = board.blackKing.inCheck(board.grid);
+        int standPat = NEGATIVE_INFINITY;
+        if (!inCheck) {
+            standPat = context.evaluate(board, alpha, beta);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+        }
+
+        final SearchContext.Frame frame = context.getFrame();
+        final int[] moves = frame.moves;
+        final int[] scores = frame.scores;
+        final int numberOfMoves = generateMoves(board, false, inCheck, moves, 0);
+        score(context, false, 0, moves, scores, numberOfMoves);
+
+        boolean legal = false;
+        for (int index = 0; index != numberOfMoves; ++index) {
+            final int move = nextMove(moves, scores, index, numberOfMoves);
+            //delta pruning, even winning the piece for free does not raise the score enough
+            if (!inCheck && standPat + getGain(move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            if (!board.makeMove(move, false)) {
+                board.unmakeMove();
+                continue;
+            }
+            legal = true;
+            ++context.ply;
+            final int result = quiesceMin(context, board, depth - 1, alpha, beta);
+            --context.ply;
+            board.unmakeMove();
+            if (result > alpha) {
+                alpha = result;
+            }
+            if (beta <= alpha) {
+                return alpha;
+            }
+        }
+        return (inCheck && !legal) ? checkBlackEndGame(context, board.grid, board.blackKing) : alpha;
+    }
+
+    /**
+     * Generates the pseudo legal moves of one side into a range of a move list,
+     * without creating any objects. Targets are read from the protected
+     * bitboards the pieces already keep up to date. Moves that leave the King
+     * in check are only rejected when they are made.
+     *
+     * @param board The chess board.
+     * @param white Whether to generate White's moves.
+     * @param quiet Whether to generate all moves, or only captures and Queen
+     * promotions.
+     * @param moves The move list.
+     * @param size The index to start writing moves at.
+     * @return The index after the last move written.
+     */
+    static int generateMoves(final Board board, final boolean white, final boolean quiet, final int[] moves, int size) {
+        final Grid grid = board.grid;
+        final List<Piece> pieces = white ? board.whites : board.blacks;
+        final King king = white ? board.whiteKing : board.blackKing;
+        final long empty = ~grid.getOccupancy();
+        //the enemy King is never captured
+        final long targets = (white ? grid.getBlackOccupancy() : grid.getWhiteOccupancy()) & ~(white ? board.blackKing : board.whiteKing).getSquareMask();
+
+        if (quiet && king.canCastle(grid)) {
+            final int from = king.getIndex();
+            Tile kingCastleTile = king.getLeftCastleTile(grid);
+            if (kingCastleTile != null) {
+                moves[size++] = Moves.createCastle(from, kingCastleTile.getIndex());
+            }
+            kingCastleTile = king.getRightCastleTile(grid);
+            if (kingCastleTile != null) {
+                moves[size++] = Moves.createCastle(from, kingCastleTile.getIndex());
+            }
+        }
+
+        for (int pieceIndex = (pieces.size() - 1); pieceIndex >= 0; --pieceIndex) {
+            final Piece piece = pieces.get(pieceIndex);
+            final int ordinal = piece.getOrdinal();
+            if (ordinal == PAWN_ORDINAL) {
+                size = addPawnMoves(grid, piece, white, quiet, targets, empty, moves, size);
+                continue;
+            }
+            long bitboard = piece.protectedSquares;
+            if (ordinal == KING_ORDINAL) {
+                //the King may not move next to the enemy King or onto a protected tile
+                bitboard &= ~(white ? grid.getBlackProtections() : grid.getWhiteProtections());
+            }
+            size = addMoves(grid, piece.getIndex(), ordinal, bitboard & targets, moves, size);
+            if (quiet) {
+                size = addMoves(grid, piece.getIndex(), ordinal, bitboard & empty, moves, size);
+            }
+        }
+        return size;
+    }
+
+    private static int addMoves(final Grid grid, final int from, final int ordinal, long bitboard, final int[] moves, int size) {
+        while (bitboard != 0L) {
+            final int to = Long.numberOfTrailingZeros(bitboard);
+            final Piece captured = grid.getTile(to).getOccupant();
+            moves[size++] = Moves.create(from, to, ordinal, (captured == null) ? NONE : captured.getOrdinal());
+            bitboard &= (bitboard - 1L);
+        }
+        return size;
+    }
+
+    private static int addPawnMoves(final Grid grid, final Piece pawn, final boolean white, final boolean quiet, final long targets, final long empty, final int[] moves, int size) {
+        final int from = pawn.getIndex();
+        //the row Pawns are promoted from
+        final boolean promoting = pawn.getRow() == (white ? BLACK_PAWN_START_ROW : WHITE_PAWN_START_ROW);
+
+        long captures = pawn.protectedSquares & targets;
+        while (captures != 0L) {
+            final int to = Long.numberOfTrailingZeros(captures);
+            final int captured = grid.getTile(to).getOccupant().getOrdinal();
+            if (promoting) {
+                size = addPromotions(from, to, captured, quiet, moves, size);
+            }
+            else {
+                moves[size++] = Moves.create(from, to, PAWN_ORDINAL, captured);
+            }
+            captures &= (captures - 1L);
+        }
+
+        final int forward = white ? (from - LENGTH) : (from + LENGTH);
+        if ((empty & (1L << forward)) != 0L) {
+            if (promoting) {
+                size = addPromotions(from, forward, NONE, quiet, moves, size);
+            }
+            else if (quiet) {
+                moves[size++] = Moves.create(from, forward, PAWN_ORDINAL, NONE);
+                if (!pawn.hasMoved()) {
+                    final int doubleJump = white ? (forward - LENGTH) : (forward + LENGTH);
+                    if ((empty & (1L << doubleJump)) != 0L) {
+                        moves[size++] = Moves.create(from, doubleJump, PAWN_ORDINAL, NONE);
                     }
                 }
             }
         }
 
-        for (; maxIndex >= 0; --maxIndex) {
-            final Piece black = blacks.get(maxIndex);
-            final int currentRow = black.getRow();
-            final int currentColumn = black.getColumn();
-            final Tile previousTile = grid.getTile(currentRow, currentColumn);
-            final Iterator<Tile> moveTiles = black.getMoveTiles(grid);
-            while (moveTiles.hasNext()) {
-                Tile moveTile = moveTiles.next();
-                if (black.isPawn() && currentRow == WHITE_PAWN_START_ROW) {
-                    for (Piece replace : Pawn.getPromoted(black)) {
-                        previousTile.removeOccupant();
-                        moveTile.setOccupant(replace);
-                        int pawnIndex = maxIndex; //blacks.indexOf(black);
-                        blacks.set(pawnIndex, replace);
-                        grid.setProtections(whites, blacks);
-                        if (!blackKing.inCheck(grid)) {
-                            replace.increaseMoveCount();
-                            {
-                                Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                                {
-                                    int result = min(board, depth, alpha, beta);
-                                    if (result > value) {
-                                        value = result;
-                                    }
-                                    if (value > alpha) {
-                                        alpha = value;
-                                    }
-                                }
-                                if (pawn != null) {
-                                    pawn.setJustMadeDoubleJump(true);
-                                }
-                            }
-                            if (beta <= alpha) {
-                                previousTile.setOccupant(black);
-                                moveTile.removeOccupant();
-                                blacks.set(pawnIndex, black);
-                                holder.reset(grid);
-                                return alpha;
-                            }
-                        }
-                        previousTile.setOccupant(black);
-                        moveTile.removeOccupant();
-                        blacks.set(pawnIndex, black);
-                        holder.reset(grid);
-                    }
+        Tile enPassantTile = pawn.getLeftEnPassantTile(grid);
+        if (enPassantTile != null) {
+            moves[size++] = Moves.createEnPassant(from, enPassantTile.getIndex());
+        }
+        enPassantTile = pawn.getRightEnPassantTile(grid);
+        if (enPassantTile != null) {
+            moves[size++] = Moves.createEnPassant(from, enPassantTile.getIndex());
+        }
+        return size;
+    }
+
+    //under promotions are only searched by the full width search
+    private static int addPromotions(final int from, final int to, final int captured, final boolean underPromotions, final int[] moves, int size) {
+        moves[size++] = Moves.createPromotion(from, to, captured, QUEEN_ORDINAL);
+        if (underPromotions) {
+            moves[size++] = Moves.createPromotion(from, to, captured, ROOK_ORDINAL);
+            moves[size++] = Moves.createPromotion(from, to, captured, BISHOP_ORDINAL);
+            moves[size++] = Moves.createPromotion(from, to, captured, KNIGHT_ORDINAL);
+        }
+        return size;
+    }
+
+    /**
+     * Gets the most material a capture or promotion can win.
+     *
+     * @param move The move.
+     * @return The value of the captured piece plus what a promotion adds.
+     */
+    private static int getGain(final int move) {
+        final int captured = Moves.getCaptured(move);
+        int gain = (captured == NONE) ? 0 : PIECE_VALUES[captured];
+        if (Moves.isPromotion(move)) {
+            gain += PIECE_VALUES[Moves.getPromotion(move)] - PAWN_VALUE;
+        }
+        return gain;
+    }
+
+    /**
+     * Scores the moves in a range of a move list for move ordering. The move
+     * from the transposition table comes first, then captures and promotions
+     * with the most valuable victim and least valuable attacker first
+     * (MVV-LVA), then the killer moves of this ply and finally the other quiet
+     * moves by their history score.
+     *
+     * @param context The state of the search.
+     * @param white Whether White is making the moves.
+     * @param hashMove The move from the transposition table, 0 if none.
+     * @param moves The move list.
+     * @param scores Receives the scores, higher scores are searched first.
+     * @param size The number of moves.
+     */
+    private static void score(final SearchContext context, final boolean white, final int hashMove, final int[] moves, final int[] scores, final int size) {
+        final int firstKiller = context.getKiller(0);
+        final int secondKiller = context.getKiller(1);
+        for (int index = 0; index != size; ++index) {
+            final int move = moves[index];
+            if ((move & Moves.TABLE_MASK) == hashMove) {
+                scores[index] = HASH_MOVE_SCORE;
+            }
+            else if (!Moves.isQuiet(move)) {
+                int score = CAPTURE_SCORE;
+                if (Moves.isCapture(move)) {
+                    score += (Moves.getCaptured(move) + 1) * NUMBER_OF_PIECE_TYPES - Moves.getPiece(move);
                 }
-                else {
-                    previousTile.removeOccupant();
-                    moveTile.setOccupant(black);
-                    grid.setProtections(whites, blacks);
-                    if (!blackKing.inCheck(grid)) {
-                        boolean madeDoubleJump = false;
-                        if (black.isPawn() && !black.hasMoved()) {
-                            if (black.getRow() == BLACK_PAWN_DOUBLE_JUMP_ROW) {
-                                black.setJustMadeDoubleJump(madeDoubleJump = true);
-                            }
-                        }
-                        black.increaseMoveCount();
-                        {
-                            Piece pawn = Pieces.checkBlackEnPassantRights(whites);
-                            {
-                                int result = min(board, depth, alpha, beta);
-                                if (result > value) {
-                                    value = result;
-                                }
-                                if (value > alpha) {
-                                    alpha = value;
-                                }
-                            }
-                            if (pawn != null) {
-                                pawn.setJustMadeDoubleJump(true);
-                            }
-                        }
-                        black.decreaseMoveCount();
-                        if (madeDoubleJump) {
-                            black.setJustMadeDoubleJump(false);
-                        }
-                        if (beta <= alpha) {
-                            previousTile.setOccupant(black);
-                            moveTile.removeOccupant();
-                            holder.reset(grid);
-                            return alpha;
-                        }
-                    }
-                    previousTile.setOccupant(black);
-                    moveTile.removeOccupant();
-                    holder.reset(grid);
+                if (Moves.isPromotion(move)) {
+                    score += Moves.getPromotion(move) * NUMBER_OF_PIECE_TYPES;
                 }
+                scores[index] = score;
+            }
+            else if (move == firstKiller) {
+                scores[index] = KILLER_SCORE + 1;
+            }
+            else if (move == secondKiller) {
+                scores[index] = KILLER_SCORE;
+            }
+            else {
+                scores[index] = context.getHistory(white, move);
             }
         }
+    }
 
-        return (value == NEGATIVE_INFINITY) ? checkBlackEndGame(grid, blackKing, depth + 1) : value;
+    /**
+     * Selection sort step, moves the best scored of the remaining moves to the
+     * given index. Cheaper than sorting the whole list since most nodes are cut
+     * off after a few moves.
+     *
+     * @param moves The moves.
+     * @param scores The ordering scores of the moves.
+     * @param index The index of the next move to search.
+     * @param size The number of moves.
+     * @return The next move to search.
+     */
+    private static int nextMove(final int[] moves, final int[] scores, final int index, final int size) {
+        int best = index;
+        for (int next = index + 1; next < size; ++next) {
+            if (scores[next] > scores[best]) {
+                best = next;
+            }
+        }
+        final int move = moves[best];
+        if (best != index) {
+            moves[best] = moves[index];
+            moves[index] = move;
+            final int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Saves the result of a node into the transposition table, unless the
+     * search has run out of time in which case the result is unreliable. A
+     * draw is not saved either once a repetition was found below the node,
+     * since the same position reached by another path may not repeat.
+     *
+     * @param context The state of the search.
+     * @param key The Zobrist key of the node.
+     * @param depth The number of ply searched below the node.
+     * @param value The score of the node.
+     * @param bound The type of the score.
+     * @param move The best move found.
+     * @param repetitions The number of repetitions the search had found when
+     * the node was entered.
+     * @return The given score.
+     */
+    private static int store(final SearchContext context, final long key, final int depth, final int value, final int bound, final int move, final long repetitions) {
+        if (value == DRAW_VALUE && context.repetitions != repetitions) {
+            return value;
+        }
+        if (USE_TRANSPOSITION_TABLE && !context.timeOver()) {
+            context.table.store(key, depth, context.ply, value, bound, move);
+        }
+        return value;
     }
 
     /**
@@ -925,19 +850,17 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against White or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param whiteKing The White player's King.
-     * @param depth How close this position is from the base node. The bigger
-     * this value, the closer this position is from the base node. This value
-     * cannot be negative.
-     * @return An extremely high value (greater than or equal to 200,000,000) if
-     * this position is a Checkmate against White or 0 if this position is a
-     * Stalemate.
+     * @return An extremely high value (close to 200,000,000) if this position
+     * is a Checkmate against White or 0 if this position is a Stalemate. The
+     * further the position is from the base node, the lower the value, since
+     * reductions make the depth left a poor measure of that distance.
      */
-    private static int checkWhiteEndGame(final Grid grid, final King whiteKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
-        //a bigger "depth", is actually shallower in the tree
-        return whiteKing.inCheck(grid) ? (CHECKMATE_VALUE + depth) : 0;
+    private static int checkWhiteEndGame(final SearchContext context, final Grid grid, final King whiteKing) {
+        context.statistics.increasePositionsScanned();
+        return whiteKing.inCheck(grid) ? (CHECKMATE_VALUE - context.ply) : 0;
     }
 
     /**
@@ -945,18 +868,15 @@ public final class AlphaBetaBlack extends AdvancedSearchAlgorithm {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against Black or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param blackKing The Black player's King.
-     * @param depth How close this position is from the base node. The bigger
-     * this value, the closer this position is from the base node. This value
-     * cannot be negative.
-     * @return An extremely low value (less than or equal to -200,000,000) if
-     * this position is a Checkmate against Black or 0 if this position is a
-     * Stalemate.
+     * @return An extremely low value (close to -200,000,000) if this position
+     * is a Checkmate against Black or 0 if this position is a Stalemate. The
+     * further the position is from the base node, the higher the value.
      */
-    private static int checkBlackEndGame(final Grid grid, final King blackKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
-        //a lower "depth", is actually deeper in the tree
-        return blackKing.inCheck(grid) ? (-CHECKMATE_VALUE - depth) : 0;
+    private static int checkBlackEndGame(final SearchContext context, final Grid grid, final King blackKing) {
+        context.statistics.increasePositionsScanned();
+        return blackKing.inCheck(grid) ? (-CHECKMATE_VALUE + context.ply) : 0;
     }
 }
\ No newline at end of file
@@ -6,11 +6,19 @@ public final class AlphaBetaWhite {
         
     }
     
-    public static final int min(Board board, int depth) {
-        return -AlphaBetaBlack.max(board, depth);
+    public static final int min(SearchContext context, Board board, int depth) {
+        return -AlphaBetaBlack.max(context, board, depth);
     }
     
-    public static final int max(Board board, int depth) {
-        return -AlphaBetaBlack.min(board, depth);
+    public static final int max(SearchContext context, Board board, int depth) {
+        return -AlphaBetaBlack.min(context, board, depth);
+    }
+    
+    public static final int min(SearchContext context, Board board, int depth, int alpha, int beta) {
+        return -AlphaBetaBlack.INSTANCE.max(context, board, depth, -beta, -alpha);
+    }
+    
+    public static final int max(SearchContext context, Board board, int depth, int alpha, int beta) {
+        return -AlphaBetaBlack.INSTANCE.min(context, board, depth, -beta, -alpha);
     }
 }
\ No newline at end of file
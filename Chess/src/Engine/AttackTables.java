@@ -0,0 +1,115 @@
+package Engine;
+
+import static Util.ChessConstants.LENGTH;
+import static Util.ChessConstants.LINEAR_LENGTH;
+
+/**
+ * Precomputed tiles reached by each type of piece from every tile, so the
+ * pieces walk tables instead of checking the edges of the board on every
+ * call.
+ *
+ * Tiles are indexes into a {@link Grid} (row * 8 + column). Every list is in
+ * the order the pieces have always visited their tiles, so the order in which
+ * moves are generated, and with it the search, does not change.
+ *
+ * @author zwill
+ */
+public final class AttackTables {
+
+    private AttackTables() {
+
+    }
+
+    //directions of the rays, Rooks use the first 4, Bishops the last 4
+    //and Queens all of them
+    static final int UP = 0;
+    static final int DOWN = 1;
+    static final int LEFT = 2;
+    static final int RIGHT = 3;
+    static final int UP_LEFT = 4;
+    static final int UP_RIGHT = 5;
+    static final int DOWN_LEFT = 6;
+    static final int DOWN_RIGHT = 7;
+
+    private static final int[] ROW_STEPS = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] COLUMN_STEPS = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    //[index], tiles a Knight reaches
+    static final int[][] KNIGHT_TARGETS = new int[LINEAR_LENGTH][];
+    static final long[] KNIGHT_MASKS = new long[LINEAR_LENGTH];
+
+    //[index], tiles a King reaches, not counting castling
+    static final int[][] KING_TARGETS = new int[LINEAR_LENGTH][];
+    static final long[] KING_MASKS = new long[LINEAR_LENGTH];
+
+    //[index][direction], tiles from nearest to farthest, empty at the edge
+    static final int[][][] ROOK_RAYS = new int[LINEAR_LENGTH][][];
+    static final int[][][] BISHOP_RAYS = new int[LINEAR_LENGTH][][];
+    static final int[][][] QUEEN_RAYS = new int[LINEAR_LENGTH][][];
+
+    //[index], tiles a Pawn captures on, left then right
+    static final int[][] WHITE_PAWN_CAPTURES = new int[LINEAR_LENGTH][];
+    static final int[][] BLACK_PAWN_CAPTURES = new int[LINEAR_LENGTH][];
+    static final long[] WHITE_PAWN_MASKS = new long[LINEAR_LENGTH];
+    static final long[] BLACK_PAWN_MASKS = new long[LINEAR_LENGTH];
+
+    static {
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            final int row = index / LENGTH;
+            final int column = index % LENGTH;
+
+            KNIGHT_TARGETS[index] = getTargets(row, column, new int[]{-1, -1, 1, 1, -2, 2, -2, 2}, new int[]{-2, 2, -2, 2, -1, -1, 1, 1});
+            KNIGHT_MASKS[index] = getMask(KNIGHT_TARGETS[index]);
+
+            KING_TARGETS[index] = getTargets(row, column, new int[]{-1, -1, -1, 0, 0, 1, 1, 1}, new int[]{-1, 0, 1, -1, 1, -1, 0, 1});
+            KING_MASKS[index] = getMask(KING_TARGETS[index]);
+
+            final int[][] rays = new int[DOWN_RIGHT + 1][];
+            for (int direction = UP; direction <= DOWN_RIGHT; ++direction) {
+                rays[direction] = getRay(row, column, ROW_STEPS[direction], COLUMN_STEPS[direction]);
+            }
+            ROOK_RAYS[index] = new int[][]{rays[UP], rays[DOWN], rays[LEFT], rays[RIGHT]};
+            BISHOP_RAYS[index] = new int[][]{rays[UP_LEFT], rays[UP_RIGHT], rays[DOWN_LEFT], rays[DOWN_RIGHT]};
+            QUEEN_RAYS[index] = rays;
+
+            WHITE_PAWN_CAPTURES[index] = getTargets(row, column, new int[]{-1, -1}, new int[]{-1, 1});
+            WHITE_PAWN_MASKS[index] = getMask(WHITE_PAWN_CAPTURES[index]);
+            BLACK_PAWN_CAPTURES[index] = getTargets(row, column, new int[]{1, 1}, new int[]{-1, 1});
+            BLACK_PAWN_MASKS[index] = getMask(BLACK_PAWN_CAPTURES[index]);
+        }
+    }
+
+    private static boolean onBoard(int row, int column) {
+        return row >= 0 && row < LENGTH && column >= 0 && column < LENGTH;
+    }
+
+    private static int[] getTargets(int row, int column, int[] rowOffsets, int[] columnOffsets) {
+        int[] targets = new int[rowOffsets.length];
+        int size = 0;
+        for (int next = 0; next != rowOffsets.length; ++next) {
+            final int nextRow = row + rowOffsets[next];
+            final int nextColumn = column + columnOffsets[next];
+            if (onBoard(nextRow, nextColumn)) {
+                targets[size++] = nextRow * LENGTH + nextColumn;
+            }
+        }
+        return java.util.Arrays.copyOf(targets, size);
+    }
+
+    private static int[] getRay(int row, int column, int rowStep, int columnStep) {
+        int[] ray = new int[LENGTH - 1];
+        int size = 0;
+        for (int nextRow = row + rowStep, nextColumn = column + columnStep; onBoard(nextRow, nextColumn); nextRow += rowStep, nextColumn += columnStep) {
+            ray[size++] = nextRow * LENGTH + nextColumn;
+        }
+        return java.util.Arrays.copyOf(ray, size);
+    }
+
+    private static long getMask(int[] targets) {
+        long mask = 0L;
+        for (int target : targets) {
+            mask |= 1L << target;
+        }
+        return mask;
+    }
+}
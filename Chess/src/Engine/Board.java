@@ -1,5 +1,14 @@
 package Engine;
 
+import static Engine.Moves.CASTLE;
+import static Engine.Moves.EN_PASSANT;
+import static Util.ChessConstants.BLACK_PAWN_DOUBLE_JUMP_ROW;
+import static Util.ChessConstants.LEFT_ROOK_CASTLE_COLUMN;
+import static Util.ChessConstants.LEFT_ROOK_START_COLUMN;
+import static Util.ChessConstants.RIGHT_ROOK_CASTLE_COLUMN;
+import static Util.ChessConstants.RIGHT_ROOK_START_COLUMN;
+import static Util.ChessConstants.WHITE_PAWN_DOUBLE_JUMP_ROW;
+import Util.Fen;
 import java.util.List;
 
 //BE CAREFUL WHEN REMOVING PIECES FROM 1 LIST
@@ -19,11 +28,22 @@ public final class Board {
     final List<Piece> blacks;
     final King blackKing;
 
+    //longest line of moves that may be made before any is taken back
+    static final int UNDO_STACK_SIZE = 256;
+
+    //entries are created when first reached
+    private final Undo[] undos = new Undo[UNDO_STACK_SIZE];
+    private int undoSize;
+
+    //both constructors recalculate tile protections, since the search
+    //only updates the protections of pieces affected by each move
+
     //shallow copy
     public Board(Grid grid, List<Piece> whitePieces, List<Piece> blackPieces) {
         this.grid = grid;
         whiteKing = Pieces.getWhiteKing(whites = whitePieces);
         blackKing = Pieces.getBlackKing(blacks = blackPieces);
+        grid.setProtections(whites, blacks);
     }
     
     //shallow copy
@@ -32,6 +52,7 @@ public final class Board {
         Pieces.sort(pieces);
         whiteKing = Pieces.getWhiteKing(whites = Pieces.getWhite(pieces));
         blackKing = Pieces.getBlackKing(blacks = Pieces.getBlack(pieces));
+        grid.setProtections(whites, blacks);
     }
 
     //deep copy constructor
@@ -39,6 +60,270 @@ public final class Board {
         this(new Grid(board.grid));
     }
 
+    /**
+     * Creates a board holding a position written in FEN. The side to move is
+     * not part of a board, use {@link Fen#isWhiteToMove()} to get it.
+     *
+     * @param fen The position in FEN.
+     * @return The new board.
+     * @throws IllegalArgumentException If the text is not valid FEN.
+     */
+    public static Board fromFen(String fen) {
+        Grid grid = new Grid();
+        grid.setPosition(Fen.parse(fen));
+        return new Board(grid);
+    }
+
+    /**
+     * Writes the position on this board in FEN.
+     *
+     * @param whiteToMove Whether White is the side to move.
+     * @return The position in FEN.
+     */
+    public String toFen(boolean whiteToMove) {
+        return grid.getPosition(whiteToMove).toString();
+    }
+
+    /**
+     * Information needed to take back a move, the entries of the undo stack
+     * are reused so making a move allocates nothing but promoted pieces.
+     */
+    private static final class Undo {
+
+        //saves the tile protections
+        private final ProtectionHolder holder = new ProtectionHolder();
+        private int move;
+        private boolean white;
+        private Piece piece;
+        private Piece captured;
+        private Tile capturedTile;
+        private int capturedIndex;
+        private Piece promoted;
+        private int promotedIndex;
+        private Piece rook;
+        private Tile rookTile;
+        private Tile rookCastleTile;
+        //enemy Pawn that lost the right to be captured en passant
+        private Piece enPassantPawn;
+        private boolean madeDoubleJump;
+        private boolean legal;
+    }
+
+    /**
+     * Gets the tiles occupied by one type of White piece. Together with the
+     * tiles of the grid these are the piece lists of the board, which the
+     * tiles keep up to date as pieces move, so nothing has to be rebuilt for
+     * an evaluation.
+     *
+     * @param ordinal The ordinal of the type of piece.
+     * @return The bitboard of the tiles, bit n standing for the tile at index
+     * n.
+     */
+    long getWhitePieces(int ordinal) {
+        return grid.whitePieces[ordinal];
+    }
+
+    long getBlackPieces(int ordinal) {
+        return grid.blackPieces[ordinal];
+    }
+
+    int getWhiteCount(int ordinal) {
+        return Long.bitCount(grid.whitePieces[ordinal]);
+    }
+
+    int getBlackCount(int ordinal) {
+        return Long.bitCount(grid.blackPieces[ordinal]);
+    }
+
+    /**
+     * Gets the total value of the White pieces other than the King, which is
+     * updated as pieces are placed and removed rather than counted.
+     *
+     * @return The material of White.
+     */
+    int getWhiteMaterial() {
+        return grid.whiteMaterial;
+    }
+
+    int getBlackMaterial() {
+        return grid.blackMaterial;
+    }
+
+    /**
+     * Gets the sum of the {@link PieceSquareTables} over the White pieces,
+     * which is updated as pieces are placed and removed rather than summed.
+     *
+     * @return The middle game and end game piece square scores of White,
+     * packed by {@link PieceSquareTables#pack(int, int)}.
+     */
+    int getWhitePositions() {
+        return grid.whitePositions;
+    }
+
+    int getBlackPositions() {
+        return grid.blackPositions;
+    }
+
+    /**
+     * Gets the phase of the game, which is updated as pieces are placed and
+     * removed rather than counted.
+     *
+     * @return The phase, {@link PieceSquareTables#MAX_PHASE} with all the
+     * pieces on the board down to 0 with only Pawns and Kings.
+     */
+    int getPhase() {
+        return grid.phase;
+    }
+
+    /**
+     * Makes a move, updating the tiles, piece lists and tile protections of
+     * this board, and pushes what is needed to take it back onto the undo
+     * stack. The tiles keep the placement hash of the grid up to date.
+     * Whether or not the move was legal, it must be taken back with
+     * {@link #unmakeMove()}.
+     *
+     * @param move The move, packed by {@link Moves}.
+     * @param white Whether White is making the move.
+     * @return {@code false} if the move leaves the King of the moving side in
+     * check, {@code true} otherwise.
+     */
+    boolean makeMove(final int move, final boolean white) {
+        if (undoSize == UNDO_STACK_SIZE) {
+            throw new IllegalStateException("Undo stack is full.");
+        }
+        Undo undo = undos[undoSize];
+        if (undo == null) {
+            undos[undoSize] = undo = new Undo();
+        }
+        ++undoSize;
+        final ProtectionHolder holder = undo.holder;
+        final Tile fromTile = grid.getTile(Moves.getFrom(move));
+        final Tile toTile = grid.getTile(Moves.getTo(move));
+        final Piece piece = fromTile.getOccupant();
+
+        undo.move = move;
+        undo.white = white;
+        undo.piece = piece;
+        undo.captured = null;
+        undo.promoted = null;
+        undo.rook = null;
+        undo.enPassantPawn = null;
+        undo.madeDoubleJump = false;
+        undo.legal = false;
+
+        switch (Moves.getType(move)) {
+            case CASTLE: {
+                final int row = fromTile.getRow();
+                final boolean left = toTile.getColumn() < fromTile.getColumn();
+                final Tile rookTile = undo.rookTile = grid.getTile(row, left ? LEFT_ROOK_START_COLUMN : RIGHT_ROOK_START_COLUMN);
+                final Tile rookCastleTile = undo.rookCastleTile = grid.getTile(row, left ? LEFT_ROOK_CASTLE_COLUMN : RIGHT_ROOK_CASTLE_COLUMN);
+                final Piece rook = undo.rook = rookTile.getOccupant();
+                fromTile.removeOccupant();
+                rookTile.removeOccupant();
+                toTile.setOccupant(piece);
+                rookCastleTile.setOccupant(rook);
+                holder.update(grid, whites, blacks, fromTile.getSquareMask() | toTile.getSquareMask() | rookTile.getSquareMask() | rookCastleTile.getSquareMask());
+                //castle tiles are only generated when the King is not castling into check
+                rook.increaseMoveCount();
+                break;
+            }
+            case EN_PASSANT: {
+                final Tile capturedTile = undo.capturedTile = grid.getTile(fromTile.getRow(), toTile.getColumn());
+                final Piece captured = undo.captured = capturedTile.getOccupant();
+                fromTile.removeOccupant();
+                capturedTile.removeOccupant();
+                toTile.setOccupant(piece);
+                undo.capturedIndex = Pieces.remove(white ? blacks : whites, captured);
+                holder.update(grid, whites, blacks, fromTile.getSquareMask() | toTile.getSquareMask() | capturedTile.getSquareMask());
+                if ((white ? whiteKing : blackKing).inCheck(grid)) {
+                    return false;
+                }
+                break;
+            }
+            default: {
+                final Piece captured = undo.captured = toTile.getOccupant();
+                fromTile.removeOccupant();
+                if (captured != null) {
+                    undo.capturedTile = toTile;
+                    undo.capturedIndex = Pieces.remove(white ? blacks : whites, captured);
+                }
+                if (Moves.isPromotion(move)) {
+                    final List<Piece> pieces = white ? whites : blacks;
+                    final Piece promoted = undo.promoted = Pawn.getPromoted(piece, Moves.getPromotion(move));
+                    toTile.setOccupant(promoted);
+                    pieces.set(undo.promotedIndex = Pieces.indexOf(pieces, piece), promoted);
+                }
+                else {
+                    toTile.setOccupant(piece);
+                }
+                holder.update(grid, whites, blacks, fromTile.getSquareMask() | toTile.getSquareMask());
+                if ((white ? whiteKing : blackKing).inCheck(grid)) {
+                    return false;
+                }
+                if (captured == null && piece.isPawn() && !piece.hasMoved() && toTile.getRow() == (white ? WHITE_PAWN_DOUBLE_JUMP_ROW : BLACK_PAWN_DOUBLE_JUMP_ROW)) {
+                    piece.setJustMadeDoubleJump(undo.madeDoubleJump = true);
+                }
+            }
+        }
+
+        undo.legal = true;
+        (undo.promoted != null ? undo.promoted : piece).increaseMoveCount();
+        undo.enPassantPawn = white ? Pieces.checkWhiteEnPassantRights(blacks) : Pieces.checkBlackEnPassantRights(whites);
+        return true;
+    }
+
+    /**
+     * Takes back the last move made by {@link #makeMove(int, boolean)}.
+     */
+    void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("Undo stack is empty.");
+        }
+        final Undo undo = undos[--undoSize];
+        final int move = undo.move;
+        final boolean white = undo.white;
+        final ProtectionHolder holder = undo.holder;
+        final Tile fromTile = grid.getTile(Moves.getFrom(move));
+        final Tile toTile = grid.getTile(Moves.getTo(move));
+        final Piece piece = undo.piece;
+
+        if (undo.legal) {
+            if (undo.enPassantPawn != null) {
+                undo.enPassantPawn.setJustMadeDoubleJump(true);
+            }
+            if (undo.madeDoubleJump) {
+                piece.setJustMadeDoubleJump(false);
+            }
+            //a promoted piece is thrown away
+            if (undo.promoted == null) {
+                piece.decreaseMoveCount();
+            }
+        }
+
+        fromTile.setOccupant(piece);
+        if (undo.rook != null) {
+            undo.rook.decreaseMoveCount();
+            undo.rookTile.setOccupant(undo.rook);
+            undo.rookCastleTile.removeOccupant();
+            toTile.removeOccupant();
+        }
+        else if (undo.captured != null) {
+            if (undo.capturedTile != toTile) {
+                toTile.removeOccupant();
+            }
+            undo.capturedTile.setOccupant(undo.captured);
+            (white ? blacks : whites).add(undo.capturedIndex, undo.captured);
+        }
+        else {
+            toTile.removeOccupant();
+        }
+        if (undo.promoted != null) {
+            (white ? whites : blacks).set(undo.promotedIndex, piece);
+        }
+        holder.reset(grid);
+    }
+
+
     @Override
     public final boolean equals(Object obj) {
         if (obj == this) {
@@ -56,7 +341,8 @@ public final class Board {
     }
 
     public final boolean deepEquals(Board board) {
-        return whiteKing.equals(board.whiteKing)
+        return grid.hash == board.grid.hash
+                && whiteKing.equals(board.whiteKing)
                 && blackKing.equals(board.blackKing)
                 && whites.equals(board.whites)
                 && blacks.equals(board.blacks)
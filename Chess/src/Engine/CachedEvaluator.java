@@ -0,0 +1,87 @@
+package Engine;
+
+/**
+ * Evaluator that looks positions up in an {@link EvaluationTable} before
+ * handing them to the evaluator it wraps. The wrapped evaluator must only
+ * look at what the evaluation key covers, the placement of the pieces and how
+ * often each King has moved, so scores are the same as without the table.
+ *
+ * @author zwill
+ */
+public final class CachedEvaluator implements Evaluator {
+
+    //mixed into the keys of White's scores, so both perspectives share a table
+    private static final long WHITE_PERSPECTIVE = 0x9E3779B97F4A7C15L;
+
+    private final Evaluator evaluator;
+    private final EvaluationTable table;
+
+    public CachedEvaluator(Evaluator evaluator) {
+        this(evaluator, new EvaluationTable());
+    }
+
+    /**
+     * Creates a new cached evaluator.
+     *
+     * @param evaluator The evaluator computing the scores.
+     * @param table The table of scores, which may be shared with other
+     * threads.
+     */
+    public CachedEvaluator(Evaluator evaluator, EvaluationTable table) {
+        if (evaluator == null) {
+            throw new NullPointerException("CachedEvaluator evaluator cannot be null.");
+        }
+        if (table == null) {
+            throw new NullPointerException("CachedEvaluator table cannot be null.");
+        }
+        this.evaluator = evaluator;
+        this.table = table;
+    }
+
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public EvaluationTable getTable() {
+        return table;
+    }
+
+    @Override
+    public int evaluateInWhitePerspective(final Board board) {
+        final long key = Zobrist.getEvaluationKey(board) ^ WHITE_PERSPECTIVE;
+        final long entry = table.probe(key);
+        if (entry != EvaluationTable.MISS) {
+            return EvaluationTable.getScore(entry);
+        }
+        final int score = evaluator.evaluateInWhitePerspective(board);
+        table.store(key, score);
+        return score;
+    }
+
+    @Override
+    public int evaluateInBlackPerspective(final Board board) {
+        final long key = Zobrist.getEvaluationKey(board);
+        final long entry = table.probe(key);
+        if (entry != EvaluationTable.MISS) {
+            return EvaluationTable.getScore(entry);
+        }
+        final int score = evaluator.evaluateInBlackPerspective(board);
+        table.store(key, score);
+        return score;
+    }
+
+    @Override
+    public int evaluateInBlackPerspective(final Board board, final int alpha, final int beta) {
+        final long key = Zobrist.getEvaluationKey(board);
+        final long entry = table.probe(key);
+        if (entry != EvaluationTable.MISS) {
+            return EvaluationTable.getScore(entry);
+        }
+        final int score = evaluator.evaluateInBlackPerspective(board, alpha, beta);
+        //scores outside the window may be estimates
+        if (alpha < score && score < beta) {
+            table.store(key, score);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,81 @@
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size hash table of evaluated positions, indexed by their evaluation
+ * key. The same position is often reached by different move orders, this way
+ * it is only evaluated once. Every store replaces the entry that was there.
+ *
+ * Like the {@link TranspositionTable}, scores are packed into a long and
+ * stored next to the key xored with that long, so the table may be shared by
+ * search threads without locking.
+ *
+ * @author zwill
+ */
+public final class EvaluationTable {
+
+    //returned when a position is not in the table
+    public static final long MISS = 0L;
+
+    //default number of entries, 16 bytes each
+    public static final int DEFAULT_SIZE = 1 << 16;
+
+    //set in every entry, so no entry equals MISS
+    private static final long VALID = 1L << 32;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    public EvaluationTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param size The number of entries, rounded down to a power of 2.
+     */
+    public EvaluationTable(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid Size: " + size);
+        }
+        size = Integer.highestOneBit(size);
+        keys = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Finds the score of the given position.
+     *
+     * @param key The evaluation key of the position.
+     * @return The packed entry or {@link #MISS} if the position is not stored.
+     */
+    public long probe(long key) {
+        final int index = (int) key & mask;
+        final long entry = entries[index];
+        return ((keys[index] ^ entry) == key) ? entry : MISS;
+    }
+
+    public void store(long key, int score) {
+        final long entry = (score & 0xFFFFFFFFL) | VALID;
+        final int index = (int) key & mask;
+        entries[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+}
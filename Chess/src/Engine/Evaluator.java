@@ -5,5 +5,21 @@ public interface Evaluator {
     int evaluateInWhitePerspective(final Board board);
 
     int evaluateInBlackPerspective(final Board board);
-    
+
+    /**
+     * Evaluates a position for a search that only needs its exact score when
+     * it lies between alpha and beta. Evaluators may then leave out expensive
+     * terms once the others put the score far enough outside the window.
+     *
+     * @param board The position.
+     * @param alpha Black's lower bound of the window.
+     * @param beta Black's upper bound of the window.
+     * @return The score in Black's perspective, exact when it is greater than
+     * alpha and less than beta, otherwise possibly an estimate that is also
+     * outside the window.
+     */
+    default int evaluateInBlackPerspective(final Board board, final int alpha, final int beta) {
+        return evaluateInBlackPerspective(board);
+    }
+
 }
\ No newline at end of file
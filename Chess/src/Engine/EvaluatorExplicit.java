@@ -4,14 +4,14 @@ import static Engine.EvaluationConstants.BISHOP_BONUS;
 import static Engine.EvaluationConstants.CASTLE_VALUE;
 import static Engine.EvaluationConstants.CHECKED_VALUE;
 import static Engine.EvaluationConstants.KING_MOVED_VALUE;
-import static Util.ChessConstants.BISHOP_VALUE;
-import static Util.ChessConstants.KNIGHT_VALUE;
+import static Util.ChessConstants.BISHOP_ORDINAL;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
 import static Util.ChessConstants.LEFT_KING_CASTLE_COLUMN;
 import static Util.ChessConstants.LENGTH;
-import static Util.ChessConstants.PAWN_VALUE;
-import static Util.ChessConstants.QUEEN_VALUE;
+import static Util.ChessConstants.PAWN_ORDINAL;
+import static Util.ChessConstants.QUEEN_ORDINAL;
 import static Util.ChessConstants.RIGHT_KING_CASTLE_COLUMN;
-import static Util.ChessConstants.ROOK_VALUE;
+import static Util.ChessConstants.ROOK_ORDINAL;
 
 public final class EvaluatorExplicit implements Evaluator {
     
@@ -33,39 +33,45 @@ public final class EvaluatorExplicit implements Evaluator {
     
     @Override
     public final int evaluateInWhitePerspective(final Board board) {
-        return evaluateInWhitePerspective(new ExplicitBoard(board));
+        return getWhiteScore(board) - getBlackScore(board);
     }
 
     @Override
     public final int evaluateInBlackPerspective(final Board board) {
-        return evaluateInBlackPerspective(new ExplicitBoard(board));
-    }
-
-    public final int evaluateInWhitePerspective(ExplicitBoard board) {
-        AI.DIALOG.increasePositionsScanned();   
-        return getWhiteScore(board) - getBlackScore(board);
+        return getBlackScore(board) - getWhiteScore(board);
     }
 
-    public final int evaluateInBlackPerspective(ExplicitBoard board) {
-        AI.DIALOG.increasePositionsScanned();
-        return getBlackScore(board) - getWhiteScore(board);
+    /**
+     * Scores one type of piece of one side, reading the pieces from the
+     * bitboard the board keeps for that type.
+     *
+     * @param grid The chess board.
+     * @param pieces The tiles occupied by the pieces.
+     * @param positions The piece square table of the pieces.
+     * @return The score of the pieces.
+     */
+    private static int getPieceScore(Grid grid, long pieces, int[] positions) {
+        int score = 0;
+        for (; pieces != 0L; pieces &= (pieces - 1)) {
+            final int index = Long.numberOfTrailingZeros(pieces);
+            final Piece piece = grid.getTile(index).getOccupant();
+            score += piece.getNumberOfProtectedTiles(grid);
+            score += piece.getNumberOfAttackTiles(grid);
+            score += positions[index];
+        }
+        return score;
     }
     
-    private static int getWhiteScore(ExplicitBoard board) {
+    private static int getWhiteScore(Board board) {
+        final Grid grid = board.grid;
         final King whiteKing = board.whiteKing;
 
-        final int whiteQueens = board.whiteQueens.size();
-        final int whiteRooks = board.whiteRooks.size();
-        final int whiteBishops = board.whiteBishops.size();
-        final int whiteKnights = board.whiteKnights.size();
-        final int whitePawns = board.whitePawns.size();
-
-        int whiteScore = (whiteQueens * QUEEN_VALUE) + (whiteRooks * ROOK_VALUE) + (whiteBishops * BISHOP_VALUE) + (whiteKnights * KNIGHT_VALUE) + (whitePawns * PAWN_VALUE);
+        int whiteScore = board.getWhiteMaterial();
         
         {
-            whiteScore += (whiteKing.getNumberOfAttackTiles(board.grid));
+            whiteScore += (whiteKing.getNumberOfAttackTiles(grid));
             int moveCount = whiteKing.getMoveCount();
-            if (board.grid.getTile(whiteKing.getRow() * LENGTH + whiteKing.getColumn()).protectedByBlack()) {
+            if (grid.getTile(whiteKing.getRow() * LENGTH + whiteKing.getColumn()).protectedByBlack()) {
                 whiteScore -= CHECKED_VALUE;
                 if (moveCount > 1) {
                     whiteScore -= KING_MOVED_VALUE;
@@ -87,59 +93,25 @@ public final class EvaluatorExplicit implements Evaluator {
             }
         }
 
-        for (int index = 0; index < whiteQueens; ++index) {
-            Queen piece = board.whiteQueens.get(index);
-            whiteScore += piece.getNumberOfProtectedTiles(board.grid);
-            whiteScore += (piece.getNumberOfAttackTiles(board.grid));
-            whiteScore += QUEEN_POSITION_WHITE[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < whiteRooks; ++index) {
-            Rook piece = board.whiteRooks.get(index);
-            whiteScore += piece.getNumberOfProtectedTiles(board.grid);
-            whiteScore += (piece.getNumberOfAttackTiles(board.grid));
-            whiteScore += ROOK_POSITION_WHITE[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
+        whiteScore += getPieceScore(grid, board.getWhitePieces(QUEEN_ORDINAL), QUEEN_POSITION_WHITE);
+        whiteScore += getPieceScore(grid, board.getWhitePieces(ROOK_ORDINAL), ROOK_POSITION_WHITE);
+        whiteScore += getPieceScore(grid, board.getWhitePieces(BISHOP_ORDINAL), BISHOP_POSITION_WHITE);
+        whiteScore += getPieceScore(grid, board.getWhitePieces(KNIGHT_ORDINAL), KNIGHT_POSITION_WHITE);
+        whiteScore += getPieceScore(grid, board.getWhitePieces(PAWN_ORDINAL), PAWN_POSITION_WHITE);
 
-        for (int index = 0; index < whiteBishops; ++index) {
-            Bishop piece = board.whiteBishops.get(index);
-            whiteScore += piece.getNumberOfProtectedTiles(board.grid);
-            whiteScore += (piece.getNumberOfAttackTiles(board.grid));
-            whiteScore += BISHOP_POSITION_WHITE[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < whiteKnights; ++index) {
-            Knight piece = board.whiteKnights.get(index);
-            whiteScore += piece.getNumberOfProtectedTiles(board.grid);
-            whiteScore += (piece.getNumberOfAttackTiles(board.grid));
-            whiteScore += KNIGHT_POSITION_WHITE[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < whitePawns; ++index) {
-            Pawn piece = board.whitePawns.get(index);
-            whiteScore += piece.getNumberOfProtectedTiles(board.grid);
-            whiteScore += (piece.getNumberOfAttackTiles(board.grid));
-            whiteScore += PAWN_POSITION_WHITE[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        return whiteBishops >= 2 ? whiteScore + BISHOP_BONUS : whiteScore;
+        return board.getWhiteCount(BISHOP_ORDINAL) >= 2 ? whiteScore + BISHOP_BONUS : whiteScore;
     }
 
-    private static int getBlackScore(ExplicitBoard board) {
+    private static int getBlackScore(Board board) {
+        final Grid grid = board.grid;
         final King blackKing = board.blackKing;
 
-        final int blackQueens = board.blackQueens.size();
-        final int blackRooks = board.blackRooks.size();
-        final int blackBishops = board.blackBishops.size();
-        final int blackKnights = board.blackKnights.size();
-        final int blackPawns = board.blackPawns.size();
-
-        int blackScore = (blackQueens * QUEEN_VALUE) + (blackRooks * ROOK_VALUE) + (blackBishops * BISHOP_VALUE) + (blackKnights * KNIGHT_VALUE) + (blackPawns * PAWN_VALUE);
+        int blackScore = board.getBlackMaterial();
 
         {
-            blackScore += blackKing.getNumberOfAttackTiles(board.grid);
+            blackScore += blackKing.getNumberOfAttackTiles(grid);
             int moveCount = blackKing.getMoveCount();
-            if (board.grid.getTile(blackKing.getRow() * LENGTH + blackKing.getColumn()).protectedByWhite()) {
+            if (grid.getTile(blackKing.getRow() * LENGTH + blackKing.getColumn()).protectedByWhite()) {
                 blackScore -= CHECKED_VALUE;
                 if (moveCount > 1) {
                     blackScore -= KING_MOVED_VALUE;
@@ -161,41 +133,12 @@ public final class EvaluatorExplicit implements Evaluator {
             }
         }
 
-        for (int index = 0; index < blackQueens; ++index) {
-            Queen piece = board.blackQueens.get(index);
-            blackScore += piece.getNumberOfProtectedTiles(board.grid);
-            blackScore += piece.getNumberOfAttackTiles(board.grid);
-            blackScore += QUEEN_POSITION_BLACK[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < blackRooks; ++index) {
-            Rook piece = board.blackRooks.get(index);
-            blackScore += piece.getNumberOfProtectedTiles(board.grid);
-            blackScore += piece.getNumberOfAttackTiles(board.grid);
-            blackScore += ROOK_POSITION_BLACK[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < blackBishops; ++index) {
-            Bishop piece = board.blackBishops.get(index);
-            blackScore += piece.getNumberOfProtectedTiles(board.grid);
-            blackScore += piece.getNumberOfAttackTiles(board.grid);
-            blackScore += BISHOP_POSITION_BLACK[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < blackKnights; ++index) {
-            Knight piece = board.blackKnights.get(index);
-            blackScore += piece.getNumberOfProtectedTiles(board.grid);
-            blackScore += piece.getNumberOfAttackTiles(board.grid);
-            blackScore += KNIGHT_POSITION_BLACK[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
-
-        for (int index = 0; index < blackPawns; ++index) {
-            Pawn piece = board.blackPawns.get(index);
-            blackScore += piece.getNumberOfProtectedTiles(board.grid);
-            blackScore += piece.getNumberOfAttackTiles(board.grid);
-            blackScore += PAWN_POSITION_BLACK[(piece.getRow() * LENGTH) + piece.getColumn()];
-        }
+        blackScore += getPieceScore(grid, board.getBlackPieces(QUEEN_ORDINAL), QUEEN_POSITION_BLACK);
+        blackScore += getPieceScore(grid, board.getBlackPieces(ROOK_ORDINAL), ROOK_POSITION_BLACK);
+        blackScore += getPieceScore(grid, board.getBlackPieces(BISHOP_ORDINAL), BISHOP_POSITION_BLACK);
+        blackScore += getPieceScore(grid, board.getBlackPieces(KNIGHT_ORDINAL), KNIGHT_POSITION_BLACK);
+        blackScore += getPieceScore(grid, board.getBlackPieces(PAWN_ORDINAL), PAWN_POSITION_BLACK);
 
-        return blackBishops >= 2 ? blackScore + BISHOP_BONUS : blackScore;
+        return board.getBlackCount(BISHOP_ORDINAL) >= 2 ? blackScore + BISHOP_BONUS : blackScore;
     }
-}
\ No newline at end of file
+}
@@ -10,29 +10,44 @@ import static Engine.EvaluationConstants.KNIGHT_MOBILITY;
 import static Engine.EvaluationConstants.PAWN_MOBILITY;
 import static Engine.EvaluationConstants.QUEEN_MOBILITY;
 import static Engine.EvaluationConstants.ROOK_MOBILITY;
+import static Engine.PieceSquareTables.BISHOP_POSITION_BLACK;
+import static Engine.PieceSquareTables.BISHOP_POSITION_WHITE;
+import static Engine.PieceSquareTables.KING_POSITION_BLACK_END;
+import static Engine.PieceSquareTables.KING_POSITION_BLACK_MID;
+import static Engine.PieceSquareTables.KING_POSITION_WHITE_END;
+import static Engine.PieceSquareTables.KING_POSITION_WHITE_MID;
+import static Engine.PieceSquareTables.KNIGHT_POSITION_BLACK;
+import static Engine.PieceSquareTables.KNIGHT_POSITION_WHITE;
+import static Engine.PieceSquareTables.MAX_PHASE;
+import static Engine.PieceSquareTables.PAWN_POSITION_BLACK;
+import static Engine.PieceSquareTables.PAWN_POSITION_WHITE;
+import static Engine.PieceSquareTables.QUEEN_POSITION_BLACK;
+import static Engine.PieceSquareTables.QUEEN_POSITION_WHITE;
+import static Engine.PieceSquareTables.ROOK_POSITION_BLACK;
+import static Engine.PieceSquareTables.ROOK_POSITION_WHITE;
+import static Engine.PieceSquareTables.pack;
+import static Engine.PieceSquareTables.taper;
+import static Util.ChessConstants.BISHOP_ORDINAL;
 import static Util.ChessConstants.BISHOP_VALUE;
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
 import static Util.ChessConstants.KNIGHT_VALUE;
 import static Util.ChessConstants.LEFT_KING_CASTLE_COLUMN;
 import static Util.ChessConstants.LENGTH;
-import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.PAWN_ORDINAL;
 import static Util.ChessConstants.PAWN_VALUE;
+import static Util.ChessConstants.QUEEN_ORDINAL;
 import static Util.ChessConstants.QUEEN_VALUE;
 import static Util.ChessConstants.RIGHT_KING_CASTLE_COLUMN;
+import static Util.ChessConstants.ROOK_ORDINAL;
 import static Util.ChessConstants.ROOK_VALUE;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Strong evaluator that emphasizes important pawn control, protection of
  * pieces, mobility and positional play. When using this evaluator AlphaBeta
- * search speed is sacrificed for precision.
- *
- * Tables inspired from:
- * https://chessprogramming.wikispaces.com/Simplified+evaluation+function#Piece-Square%20Tables
- * https://github.com/bytefire/Shutranj/blob/master/Shutranj.Engine/Evaluation2.cs
- *
- * With minor modifications
+ * search speed is sacrificed for precision. Its piece square tables are
+ * kept in {@link PieceSquareTables}.
  *
  * @author zwill
  */
@@ -42,113 +57,19 @@ public final class EvaluatorPowerful implements Evaluator {
 
     }
 
-    static final int[] PAWN_POSITION_WHITE = {
-        0, 0, 0, 0, 0, 0, 0, 0,
-        50, 50, 50, 50, 50, 50, 50, 50,
-        10, 10, 20, 30, 30, 20, 10, 10,
-        5, 5, 10, 25, 25, 10, 5, 5,
-        0, 0, 0, 20, 20, 0, 0, 0,
-        5, -5, -10, 0, 0, -10, -5, 5,
-        5, 10, 10, -20, -20, 10, 10, 5,
-        0, 0, 0, 0, 0, 0, 0, 0
-    };
-
-    static final int[] KNIGHT_POSITION_WHITE = {
-        -50, -40, -30, -30, -30, -30, -40, -50,
-        -40, -20, 0, 0, 0, 0, -20, -40,
-        -30, 7, 10, 15, 15, 10, 7, -30,
-        -30, 7, 15, 20, 20, 15, 7, -30,
-        -30, 7, 15, 20, 20, 15, 7, -30,
-        -30, 7, 10, 15, 15, 10, 7, -30,
-        -40, -20, 0, 5, 5, 0, -20, -40,
-        -50, -40, -30, -30, -30, -30, -40, -50
-    };
-
-    static final int[] BISHOP_POSITION_WHITE = {
-        -20, -10, -10, -10, -10, -10, -10, -20,
-        -10, 0, 0, 0, 0, 0, 0, -10,
-        -10, 0, 5, 10, 10, 5, 0, -10,
-        -10, 5, 5, 10, 10, 5, 5, -10,
-        -10, 0, 10, 10, 10, 10, 0, -10,
-        -10, 10, 10, 10, 10, 10, 10, -10,
-        -10, 5, 0, 0, 0, 0, 5, -10,
-        -20, -10, -40, -10, -10, -40, -10, -20
-    };
-
-    static final int[] ROOK_POSITION_WHITE = {
-        0, 0, 0, 0, 0, 0, 0, 0,
-        5, 10, 10, 10, 10, 10, 10, 5,
-        -5, 0, 0, 0, 0, 0, 0, -5,
-        -5, 0, 0, 0, 0, 0, 0, -5,
-        -5, 0, 0, 0, 0, 0, 0, -5,
-        -5, 0, 0, 0, 0, 0, 0, -5,
-        -5, 0, 0, 0, 0, 0, 0, -5,
-        0, 0, 0, 5, 5, 0, 0, 0
-    };
-
-    static final int[] QUEEN_POSITION_WHITE = {
-        -20, -10, -10, -5, -5, -10, -10, -20,
-        -10, 0, 0, 0, 0, 0, 0, -10,
-        -10, 0, 5, 5, 5, 5, 0, -10,
-        -5, 0, 5, 5, 5, 5, 0, -5,
-        -5, 0, 5, 5, 5, 5, 0, -5,
-        -10, 0, 5, 5, 5, 5, 0, -10,
-        -10, 0, 0, 0, 0, 0, 0, -10,
-        -20, -10, -10, -5, -5, -10, -10, -20
-    };
-
-    static final int[] KING_POSITION_WHITE_MID = {
-        -30, -40, -40, -50, -50, -40, -40, -30,
-        -30, -40, -40, -50, -50, -40, -40, -30,
-        -30, -40, -40, -50, -50, -40, -40, -30,
-        -30, -40, -40, -50, -50, -40, -40, -30,
-        -20, -30, -30, -40, -40, -30, -30, -20,
-        -10, -20, -20, -20, -20, -20, -20, -10,
-        20, 20, 0, 0, 0, 0, 20, 20,
-        20, 30, 10, 0, 0, 10, 30, 20
-    };
-
-    static final int[] KING_POSITION_WHITE_END = {
-        -50, -40, -30, -20, -20, -30, -40, -50,
-        -30, -20, -10, 0, 0, -10, -20, -30,
-        -30, -10, 20, 30, 30, 20, -10, -30,
-        -30, -10, 30, 40, 40, 30, -10, -30,
-        -30, -10, 30, 40, 40, 30, -10, -30,
-        -30, -10, 20, 30, 30, 20, -10, -30,
-        -30, -30, 0, 0, 0, 0, -30, -30,
-        -50, -30, -30, -30, -30, -30, -30, -50
-    };
-
-    static final int[] PAWN_POSITION_BLACK = new int[LINEAR_LENGTH];
-    static final int[] KNIGHT_POSITION_BLACK = new int[LINEAR_LENGTH];
-    static final int[] BISHOP_POSITION_BLACK = new int[LINEAR_LENGTH];
-    static final int[] ROOK_POSITION_BLACK = new int[LINEAR_LENGTH];
-    static final int[] QUEEN_POSITION_BLACK = new int[LINEAR_LENGTH];
-    static final int[] KING_POSITION_BLACK_MID = new int[LINEAR_LENGTH];
-    static final int[] KING_POSITION_BLACK_END = new int[LINEAR_LENGTH];
-
-    private static final int[] LITTLE_ENDIAN_RANK_FILE_MAPPING = {
-        56, 57, 58, 59, 60, 61, 62, 63,
-        48, 49, 50, 51, 52, 53, 54, 55,
-        40, 41, 42, 43, 44, 45, 46, 47,
-        32, 33, 34, 35, 36, 37, 38, 39,
-        24, 25, 26, 27, 28, 29, 30, 31,
-        16, 17, 18, 19, 20, 21, 22, 23,
-        8, 9, 10, 11, 12, 13, 14, 15,
-        0, 1, 2, 3, 4, 5, 6, 7
-    };
+    //end game bonus of each tile the King protects, the King must be active
+    //once pieces come off
+    private static final int KING_ACTIVITY = pack(0, KING_MOBILITY);
+
+    //largest amount mobility is expected to change a score by, lazy
+    //evaluation trusts the cheap terms beyond it
+    private static final int LAZY_MARGIN = 300;
 
+    //end game bonus of each Rook and Bishop and penalty of each Knight
+    private static final int ENDGAME_PIECES = pack(0, 15);
+
+    //the Black tables must mirror the White tables
     static {
-        for (int index = 0; index < LINEAR_LENGTH; ++index) {
-            final int mirrorIndex = LITTLE_ENDIAN_RANK_FILE_MAPPING[index];
-            PAWN_POSITION_BLACK[mirrorIndex] = PAWN_POSITION_WHITE[index];
-            KNIGHT_POSITION_BLACK[mirrorIndex] = KNIGHT_POSITION_WHITE[index];
-            BISHOP_POSITION_BLACK[mirrorIndex] = BISHOP_POSITION_WHITE[index];
-            ROOK_POSITION_BLACK[mirrorIndex] = ROOK_POSITION_WHITE[index];
-            QUEEN_POSITION_BLACK[mirrorIndex] = QUEEN_POSITION_WHITE[index];
-            KING_POSITION_BLACK_MID[mirrorIndex] = KING_POSITION_WHITE_MID[index];
-            KING_POSITION_BLACK_END[mirrorIndex] = KING_POSITION_WHITE_END[index];
-        }
         mirroredColumnsEqual(toMatrix(PAWN_POSITION_WHITE), toMatrix(PAWN_POSITION_BLACK));
         mirroredColumnsEqual(toMatrix(BISHOP_POSITION_WHITE), toMatrix(BISHOP_POSITION_BLACK));
         mirroredColumnsEqual(toMatrix(KNIGHT_POSITION_WHITE), toMatrix(KNIGHT_POSITION_BLACK));
@@ -190,18 +111,27 @@ public final class EvaluatorPowerful implements Evaluator {
         }
     }
 
-    static final Map<Grid, Integer> DATABASE = new HashMap<>();
-
     @Override
     public final int evaluateInWhitePerspective(final Board board) {
-        AI.DIALOG.increasePositionsScanned();
         return getWhiteScoreUnsorted(board.grid, board.whites) - getBlackScoreUnsorted(board.grid, board.blacks);
     }
 
     @Override
     public final int evaluateInBlackPerspective(final Board board) {
-        AI.DIALOG.increasePositionsScanned();
-        return getBlackEvaluation(board.grid, board.whites, board.blacks);
+        return getStaticEvaluation(board) + getDynamicEvaluation(board);
+    }
+
+    /**
+     * Evaluates the cheap terms first and skips mobility when the score is
+     * already so far outside the window that it would not bring it back.
+     */
+    @Override
+    public final int evaluateInBlackPerspective(final Board board, final int alpha, final int beta) {
+        final int score = getStaticEvaluation(board);
+        if (score + LAZY_MARGIN <= alpha || score - LAZY_MARGIN >= beta) {
+            return score;
+        }
+        return score + getDynamicEvaluation(board);
     }
 
     /**
@@ -228,24 +158,63 @@ public final class EvaluatorPowerful implements Evaluator {
     //
     
     
-    private static int getBlackEvaluation(Grid grid, List<Piece> whites, List<Piece> blacks) {
+    /**
+     * Penalizes the exposed pieces of one side.
+     *
+     * @param grid The chess board.
+     * @param pieces The tiles occupied by the pieces.
+     * @return The penalty, 0 or less.
+     */
+    private static int getExposure(Grid grid, long pieces) {
+        int score = 0;
+        for (; pieces != 0L; pieces &= (pieces - 1)) {
+            score += exposed(grid, grid.getTile(Long.numberOfTrailingZeros(pieces)).getOccupant());
+        }
+        return score;
+    }
+
+    /**
+     * Scores the mobility of one type of piece of one side, reading the pieces
+     * from the bitboard the board keeps for that type. Their piece square
+     * scores are summed by the board as pieces move.
+     *
+     * @param grid The chess board.
+     * @param pieces The tiles occupied by the pieces.
+     * @param mobility The value of each tile a piece protects.
+     * @return The score of the pieces.
+     */
+    private static int getMobility(Grid grid, long pieces, int mobility) {
+        int tiles = 0;
+        for (; pieces != 0L; pieces &= (pieces - 1)) {
+            tiles += grid.getTile(Long.numberOfTrailingZeros(pieces)).getOccupant().getNumberOfProtectedTiles(grid);
+        }
+        return mobility * tiles;
+    }
+
+    /**
+     * Scores everything that is read straight from the board: material, the
+     * piece square tables, the pawn structure, exposed pieces and the state of
+     * both Kings.
+     *
+     * @param board The chess board.
+     * @return The cheap part of the score in Black's perspective.
+     */
+    private static int getStaticEvaluation(Board board) {
+        final Grid grid = board.grid;
         int blackScore = 0;
-        int blackQueens = 0;
-        int blackRooks = 0;
-        int blackBishops = 0;
-        int blackKnights = 0;
-        int blackPawns = 0;
+        final int blackRooks = board.getBlackCount(ROOK_ORDINAL);
+        final int blackBishops = board.getBlackCount(BISHOP_ORDINAL);
+        final int blackKnights = board.getBlackCount(KNIGHT_ORDINAL);
+        final int blackPawns = board.getBlackCount(PAWN_ORDINAL);
 
         int whiteScore = 0;
-        int whiteQueens = 0;
-        int whiteRooks = 0;
-        int whiteBishops = 0;
-        int whiteKnights = 0;
-        int whitePawns = 0;
+        final int whiteRooks = board.getWhiteCount(ROOK_ORDINAL);
+        final int whiteBishops = board.getWhiteCount(BISHOP_ORDINAL);
+        final int whiteKnights = board.getWhiteCount(KNIGHT_ORDINAL);
+        final int whitePawns = board.getWhiteCount(PAWN_ORDINAL);
 
         {
-            //king must be first
-            final Piece blackKing = blacks.get(0);
+            final Piece blackKing = board.blackKing;
             final int blackKingColumn = blackKing.getColumn();
             final int blackKingLocation = blackKing.getRow() * LENGTH + blackKingColumn;
             {
@@ -264,55 +233,13 @@ public final class EvaluatorPowerful implements Evaluator {
                 }
             }
 
-            for (int index = (blacks.size() - 1); index != 0; --index) {
-                Piece piece = blacks.get(index);
-                blackScore += exposed(grid, piece);
-                final int row = piece.getRow();
-                final int column = piece.getColumn();
-                //least valuable pieces first, since looping backwards
-                if (piece.isPawn()) {
-                    //blackScore += PawnEvaluator.evaluateBlackPawn(grid, row, column);
-                    blackScore += PAWN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    blackScore += PAWN_POSITION_BLACK[row * LENGTH + column];
-                    ++blackPawns;
-                }
-                else if (piece.isKnight()) {
-                    blackScore += KNIGHT_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    blackScore += KNIGHT_POSITION_BLACK[row * LENGTH + column];
-                    ++blackKnights;
-                }
-                else if (piece.isBishop()) {
-                    blackScore += BISHOP_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    blackScore += BISHOP_POSITION_BLACK[row * LENGTH + column];
-                    ++blackBishops;
-                }
-                else if (piece.isRook()) {
-                    blackScore += ROOK_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    blackScore += ROOK_POSITION_BLACK[row * LENGTH + column];
-                    ++blackRooks;
-                }
-                else {
-                    blackScore += QUEEN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    blackScore += QUEEN_POSITION_BLACK[row * LENGTH + column];
-                    ++blackQueens;
-                }
-            }
-
-            final int materialScore = (blackQueens * QUEEN_VALUE) + (blackRooks * ROOK_VALUE) + (blackBishops * BISHOP_VALUE) + (blackKnights * KNIGHT_VALUE) + (blackPawns * PAWN_VALUE);
-
-            if (materialScore <= 1200) {
-                blackScore += KING_POSITION_BLACK_END[blackKingLocation];
-                blackScore += KING_MOBILITY * blackKing.getNumberOfProtectedTiles(grid);
-            }
-            else {
-                blackScore += KING_POSITION_BLACK_MID[blackKingLocation];
-            }
+            blackScore += getExposure(grid, grid.blacks & ~board.getBlackPieces(KING_ORDINAL));
 
+            final int materialScore = board.getBlackMaterial();
             blackScore += (blackBishops >= 2) ? materialScore + BISHOP_BONUS : materialScore;
         }
         {
-            //king must be first
-            final Piece whiteKing = whites.get(0);
+            final Piece whiteKing = board.whiteKing;
             final int whiteKingColumn = whiteKing.getColumn();
             final int whiteKingLocation = whiteKing.getRow() * LENGTH + whiteKingColumn;
             {
@@ -331,52 +258,17 @@ public final class EvaluatorPowerful implements Evaluator {
                 }
             }
 
-            for (int index = (whites.size() - 1); index != 0; --index) {
-                Piece piece = whites.get(index);
-                whiteScore += exposed(grid, piece);
-                final int row = piece.getRow();
-                final int column = piece.getColumn();
-                if (piece.isPawn()) {
-                    //whiteScore += PawnEvaluator.evaluateWhitePawn(grid, row, column);
-                    whiteScore += PAWN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    whiteScore += PAWN_POSITION_WHITE[row * LENGTH + column];
-                    ++whitePawns;
-                }
-                else if (piece.isKnight()) {
-                    whiteScore += KNIGHT_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    whiteScore += KNIGHT_POSITION_WHITE[row * LENGTH + column];
-                    ++whiteKnights;
-                }
-                else if (piece.isBishop()) {
-                    whiteScore += BISHOP_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    whiteScore += BISHOP_POSITION_WHITE[row * LENGTH + column];
-                    ++whiteBishops;
-                }
-                else if (piece.isRook()) {
-                    whiteScore += ROOK_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    whiteScore += ROOK_POSITION_WHITE[row * LENGTH + column];
-                    ++whiteRooks;
-                }
-                else {
-                    whiteScore += QUEEN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                    whiteScore += QUEEN_POSITION_WHITE[row * LENGTH + column];
-                    ++whiteQueens;
-                }
-            }
-
-            final int materialScore = (whiteQueens * QUEEN_VALUE) + (whiteRooks * ROOK_VALUE) + (whiteBishops * BISHOP_VALUE) + (whiteKnights * KNIGHT_VALUE) + (whitePawns * PAWN_VALUE);
-
-            if (materialScore <= 1200) {
-                whiteScore += KING_POSITION_WHITE_END[whiteKingLocation];
-                whiteScore += KING_MOBILITY * whiteKing.getNumberOfProtectedTiles(grid);
-            }
-            else {
-                whiteScore += KING_POSITION_WHITE_MID[whiteKingLocation];
-            }
+            whiteScore += getExposure(grid, grid.whites & ~board.getWhitePieces(KING_ORDINAL));
 
+            final int materialScore = board.getWhiteMaterial();
             whiteScore += (whiteBishops >= 2) ? materialScore + BISHOP_BONUS : materialScore;
         }
 
+        //doubled, isolated and passed pawns, looked up by pawn structure
+        final long pawnStructure = PawnEvaluator.evaluate(grid);
+        blackScore += PawnTable.getBlackScore(pawnStructure);
+        whiteScore += PawnTable.getWhiteScore(pawnStructure);
+
         final int whitePawnsLost = 8 - whitePawns;
         final int blackPawnsLost = 8 - blackPawns;
 
@@ -396,7 +288,41 @@ public final class EvaluatorPowerful implements Evaluator {
         whiteScore += (blackPawnsLost * 5) * whiteRooks;
         //multiply by number of white rooks to amplify bonus accordingly
 
-        return blackScore - whiteScore;
+        //piece square scores and piece bonuses of both phases, blended once
+        int positions = board.getBlackPositions() - board.getWhitePositions();
+        positions += ENDGAME_PIECES * ((blackRooks + blackBishops - blackKnights) - (whiteRooks + whiteBishops - whiteKnights));
+        return blackScore - whiteScore + taper(positions, board.getPhase());
+    }
+
+    /**
+     * Scores the mobility of every piece, which needs the tiles each of them
+     * protects.
+     *
+     * @param board The chess board.
+     * @return The expensive part of the score in Black's perspective.
+     */
+    private static int getDynamicEvaluation(Board board) {
+        final Grid grid = board.grid;
+
+        //the board keeps a bitboard per type of piece, so no type checks
+        int score = getMobility(grid, board.getBlackPieces(PAWN_ORDINAL), PAWN_MOBILITY);
+        score += getMobility(grid, board.getBlackPieces(KNIGHT_ORDINAL), KNIGHT_MOBILITY);
+        score += getMobility(grid, board.getBlackPieces(BISHOP_ORDINAL), BISHOP_MOBILITY);
+        score += getMobility(grid, board.getBlackPieces(ROOK_ORDINAL), ROOK_MOBILITY);
+        score += getMobility(grid, board.getBlackPieces(QUEEN_ORDINAL), QUEEN_MOBILITY);
+
+        score -= getMobility(grid, board.getWhitePieces(PAWN_ORDINAL), PAWN_MOBILITY);
+        score -= getMobility(grid, board.getWhitePieces(KNIGHT_ORDINAL), KNIGHT_MOBILITY);
+        score -= getMobility(grid, board.getWhitePieces(BISHOP_ORDINAL), BISHOP_MOBILITY);
+        score -= getMobility(grid, board.getWhitePieces(ROOK_ORDINAL), ROOK_MOBILITY);
+        score -= getMobility(grid, board.getWhitePieces(QUEEN_ORDINAL), QUEEN_MOBILITY);
+
+        final int phase = board.getPhase();
+        if (phase < MAX_PHASE) {
+            final int kingTiles = board.blackKing.getNumberOfProtectedTiles(grid) - board.whiteKing.getNumberOfProtectedTiles(grid);
+            score += taper(KING_ACTIVITY * kingTiles, phase);
+        }
+        return score;
     }
 
     private static int getBlackScoreUnsorted(Grid grid, List<Piece> blacks) {
@@ -437,34 +363,26 @@ public final class EvaluatorPowerful implements Evaluator {
         for (int index = (blacks.size() - 1); index != 0; --index) {
             Piece piece = blacks.get(index);
             blackScore += exposed(grid, piece);
-            final int row = piece.getRow();
-            final int column = piece.getColumn();
             //most common pieces first
             if (piece.isPawn()) {
-                blackScore += PawnEvaluator.evaluateBlackPawn(grid, row, column);
                 blackScore += PAWN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                blackScore += PAWN_POSITION_BLACK[row * LENGTH + column];
                 ++blackPawns;
             }
             else if (piece.isQueen()) {
                 blackScore += QUEEN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                blackScore += QUEEN_POSITION_BLACK[row * LENGTH + column];
                 ++blackQueens;
             }
             else if (piece.isRook()) {
                 blackScore += ROOK_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                blackScore += ROOK_POSITION_BLACK[row * LENGTH + column];
                 ++blackRooks;
             }
             else if (piece.isBishop()) {
                 blackScore += BISHOP_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                blackScore += BISHOP_POSITION_BLACK[row * LENGTH + column];
                 ++blackBishops;
             }
             else if (piece.isKnight()) {
                 //knights here
                 blackScore += KNIGHT_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                blackScore += KNIGHT_POSITION_BLACK[row * LENGTH + column];
                 ++blackKnights;
             }
             else {
@@ -472,18 +390,17 @@ public final class EvaluatorPowerful implements Evaluator {
             }
         }
 
+        blackScore += PawnTable.getBlackScore(PawnEvaluator.evaluate(grid));
+
         int materialScore = (blackQueens * QUEEN_VALUE) + (blackRooks * ROOK_VALUE) + (blackBishops * BISHOP_VALUE) + (blackKnights * KNIGHT_VALUE) + (blackPawns * PAWN_VALUE);
 
-        if (materialScore <= 1200) {
-            blackScore += KING_POSITION_BLACK_END[blackKingLocation];
-            blackScore += KING_MOBILITY * blackKing.getNumberOfProtectedTiles(grid);
-            blackScore += (blackRooks * 15); //rooks worth more in endgame
-            blackScore += (blackBishops * 15); //bishops worth more in endgame
-            blackScore -= (blackKnights * 15); //knights worth less in endgame
-        }
-        else {
-            blackScore += KING_POSITION_BLACK_MID[blackKingLocation];
+        final int phase = grid.phase;
+        int positions = grid.blackPositions;
+        if (phase < MAX_PHASE) {
+            positions += KING_ACTIVITY * blackKing.getNumberOfProtectedTiles(grid);
+            positions += ENDGAME_PIECES * (blackRooks + blackBishops - blackKnights);
         }
+        blackScore += taper(positions, phase);
 
         return blackBishops >= 2
                 ? blackScore + materialScore + BISHOP_BONUS
@@ -527,32 +444,24 @@ public final class EvaluatorPowerful implements Evaluator {
         for (int index = (whites.size() - 1); index != 0; --index) {
             Piece piece = whites.get(index);
             whiteScore += exposed(grid, piece);
-            final int row = piece.getRow();
-            final int column = piece.getColumn();
             if (piece.isPawn()) {
-                whiteScore += PawnEvaluator.evaluateWhitePawn(grid, row, column);
                 whiteScore += PAWN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                whiteScore += PAWN_POSITION_WHITE[row * LENGTH + column];
                 ++whitePawns;
             }
             else if (piece.isQueen()) {
                 whiteScore += QUEEN_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                whiteScore += QUEEN_POSITION_WHITE[row * LENGTH + column];
                 ++whiteQueens;
             }
             else if (piece.isRook()) {
                 whiteScore += ROOK_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                whiteScore += ROOK_POSITION_WHITE[row * LENGTH + column];
                 ++whiteRooks;
             }
             else if (piece.isBishop()) {
                 whiteScore += BISHOP_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                whiteScore += BISHOP_POSITION_WHITE[row * LENGTH + column];
                 ++whiteBishops;
             }
             else if (piece.isKnight()) {
                 whiteScore += KNIGHT_MOBILITY * piece.getNumberOfProtectedTiles(grid);
-                whiteScore += KNIGHT_POSITION_WHITE[row * LENGTH + column];
                 ++whiteKnights;
             }
             else {
@@ -560,18 +469,17 @@ public final class EvaluatorPowerful implements Evaluator {
             }
         }
 
+        whiteScore += PawnTable.getWhiteScore(PawnEvaluator.evaluate(grid));
+
         int materialScore = (whiteQueens * QUEEN_VALUE) + (whiteRooks * ROOK_VALUE) + (whiteBishops * BISHOP_VALUE) + (whiteKnights * KNIGHT_VALUE) + (whitePawns * PAWN_VALUE);
 
-        if (materialScore <= 1200) {
-            whiteScore += KING_POSITION_WHITE_END[whiteKingLocation];
-            whiteScore += KING_MOBILITY * whiteKing.getNumberOfProtectedTiles(grid);
-            whiteScore += (whiteRooks * 15); //rooks worth more in endgame
-            whiteScore += (whiteBishops * 15); //bishops worth more in endgame
-            whiteScore -= (whiteKnights * 15); //knights worth less in endgame
-        }
-        else {
-            whiteScore += KING_POSITION_WHITE_MID[whiteKingLocation];
+        final int phase = grid.phase;
+        int positions = grid.whitePositions;
+        if (phase < MAX_PHASE) {
+            positions += KING_ACTIVITY * whiteKing.getNumberOfProtectedTiles(grid);
+            positions += ENDGAME_PIECES * (whiteRooks + whiteBishops - whiteKnights);
         }
+        whiteScore += taper(positions, phase);
 
         return whiteBishops >= 2
                 ? whiteScore + materialScore + BISHOP_BONUS
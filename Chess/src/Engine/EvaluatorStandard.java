@@ -45,13 +45,11 @@ public final class EvaluatorStandard implements Evaluator {
     
     @Override
     public final int evaluateInWhitePerspective(final Board board) {
-        AI.DIALOG.increasePositionsScanned();
         return getWhiteScore(board.grid, board.whites) - getBlackScore(board.grid, board.blacks);
     }
 
     @Override
     public final int evaluateInBlackPerspective(final Board board) {
-        AI.DIALOG.increasePositionsScanned();
         return getBlackScore(board.grid, board.blacks) - getWhiteScore(board.grid, board.whites);
     }
 
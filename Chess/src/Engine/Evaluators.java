@@ -5,9 +5,15 @@ public final class Evaluators {
     public static final Evaluator STANDARD = new EvaluatorStandard();
     public static final Evaluator EXPLICIT = new EvaluatorExplicit();
     public static final Evaluator POWERFUL = new EvaluatorPowerful();
+
+    //the evaluators above behind evaluation tables, they give the same scores
+    //each has its own table since the evaluators score differently
+    public static final Evaluator CACHED_STANDARD = new CachedEvaluator(STANDARD);
+    public static final Evaluator CACHED_EXPLICIT = new CachedEvaluator(EXPLICIT);
+    public static final Evaluator CACHED_POWERFUL = new CachedEvaluator(POWERFUL);
     
-    //can be toggled at will for testing purposes
-    public static Evaluator MAIN = POWERFUL;
+    //default evaluator of new search contexts, can be toggled for testing purposes
+    public static Evaluator MAIN = CACHED_POWERFUL;
     
     private Evaluators() {
         
@@ -1,13 +1,30 @@
 package Engine;
 
+import static Engine.PieceSquareTables.BLACK_POSITIONS;
+import static Engine.PieceSquareTables.PHASES;
+import static Engine.PieceSquareTables.WHITE_POSITIONS;
+import static Util.ChessConstants.BISHOP_VALUE;
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.KNIGHT_VALUE;
 import static Util.ChessConstants.LENGTH;
 import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.PAWN_ORDINAL;
+import static Util.ChessConstants.PAWN_VALUE;
+import static Util.ChessConstants.QUEEN_VALUE;
+import static Util.ChessConstants.ROOK_VALUE;
+import Util.Fen;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * Class representing the playing board in chess.
+ *
+ * Which tiles are occupied by each side and which tiles each side protects
+ * are held as bitboards, bit n standing for the tile at index n. The
+ * {@link Tile} objects are views over these bitboards that also hold the
+ * occupants, so copying, clearing and comparing grids works on the bitboards
+ * rather than on all 64 tiles.
  * @author Will
  */
 @SuppressWarnings("EqualsAndHashcode")
@@ -15,81 +32,127 @@ public final class Grid {
 
     private final Tile[] tiles = new Tile[LINEAR_LENGTH];
 
+    //bitboards of the tiles protected by each side, written through the tiles
+    long whiteProtections;
+    long blackProtections;
+
+    //bitboards of the tiles occupied by each side, kept up to date by the tiles
+    long whites;
+    long blacks;
+
+    //[ordinal], bitboards of the tiles occupied by each type of piece of each
+    //side, also kept up to date by the tiles
+    final long[] whitePieces = new long[KING_ORDINAL + 1];
+    final long[] blackPieces = new long[KING_ORDINAL + 1];
+
+    //total value of the pieces of each side without the King, also kept up
+    //to date by the tiles
+    int whiteMaterial;
+    int blackMaterial;
+
+    //[ordinal], the King is not counted as material
+    private static final int[] MATERIAL = {PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, 0};
+
+    //sums of the piece square tables over the pieces of
+    //each side, middle game and end game packed together, and the phase of
+    //the game, also kept up to date by the tiles
+    int whitePositions;
+    int blackPositions;
+    int phase;
+
+    //zobrist hash of the placement of all the pieces and of the Pawns alone,
+    //also kept up to date by the tiles
+    long hash;
+    long pawnKey;
+
     public Grid() {
         for (int index = 0, row = 0, column = 0; index != LINEAR_LENGTH; ++index) {
             if (column == LENGTH) {
                 ++row;
                 column = 0;
             }
-            tiles[index] = new Tile(row, column++);
+            tiles[index] = new Tile(this, row, column++);
         }
     }
 
     public Grid(Grid grid) {
-        tiles[0] = new Tile(grid.tiles[0]);
-        tiles[1] = new Tile(grid.tiles[1]);
-        tiles[2] = new Tile(grid.tiles[2]);
-        tiles[3] = new Tile(grid.tiles[3]);
-        tiles[4] = new Tile(grid.tiles[4]);
-        tiles[5] = new Tile(grid.tiles[5]);
-        tiles[6] = new Tile(grid.tiles[6]);
-        tiles[7] = new Tile(grid.tiles[7]);
-        tiles[8] = new Tile(grid.tiles[8]);
-        tiles[9] = new Tile(grid.tiles[9]);
-        tiles[10] = new Tile(grid.tiles[10]);
-        tiles[11] = new Tile(grid.tiles[11]);
-        tiles[12] = new Tile(grid.tiles[12]);
-        tiles[13] = new Tile(grid.tiles[13]);
-        tiles[14] = new Tile(grid.tiles[14]);
-        tiles[15] = new Tile(grid.tiles[15]);
-        tiles[16] = new Tile(grid.tiles[16]);
-        tiles[17] = new Tile(grid.tiles[17]);
-        tiles[18] = new Tile(grid.tiles[18]);
-        tiles[19] = new Tile(grid.tiles[19]);
-        tiles[20] = new Tile(grid.tiles[20]);
-        tiles[21] = new Tile(grid.tiles[21]);
-        tiles[22] = new Tile(grid.tiles[22]);
-        tiles[23] = new Tile(grid.tiles[23]);
-        tiles[24] = new Tile(grid.tiles[24]);
-        tiles[25] = new Tile(grid.tiles[25]);
-        tiles[26] = new Tile(grid.tiles[26]);
-        tiles[27] = new Tile(grid.tiles[27]);
-        tiles[28] = new Tile(grid.tiles[28]);
-        tiles[29] = new Tile(grid.tiles[29]);
-        tiles[30] = new Tile(grid.tiles[30]);
-        tiles[31] = new Tile(grid.tiles[31]);
-        tiles[32] = new Tile(grid.tiles[32]);
-        tiles[33] = new Tile(grid.tiles[33]);
-        tiles[34] = new Tile(grid.tiles[34]);
-        tiles[35] = new Tile(grid.tiles[35]);
-        tiles[36] = new Tile(grid.tiles[36]);
-        tiles[37] = new Tile(grid.tiles[37]);
-        tiles[38] = new Tile(grid.tiles[38]);
-        tiles[39] = new Tile(grid.tiles[39]);
-        tiles[40] = new Tile(grid.tiles[40]);
-        tiles[41] = new Tile(grid.tiles[41]);
-        tiles[42] = new Tile(grid.tiles[42]);
-        tiles[43] = new Tile(grid.tiles[43]);
-        tiles[44] = new Tile(grid.tiles[44]);
-        tiles[45] = new Tile(grid.tiles[45]);
-        tiles[46] = new Tile(grid.tiles[46]);
-        tiles[47] = new Tile(grid.tiles[47]);
-        tiles[48] = new Tile(grid.tiles[48]);
-        tiles[49] = new Tile(grid.tiles[49]);
-        tiles[50] = new Tile(grid.tiles[50]);
-        tiles[51] = new Tile(grid.tiles[51]);
-        tiles[52] = new Tile(grid.tiles[52]);
-        tiles[53] = new Tile(grid.tiles[53]);
-        tiles[54] = new Tile(grid.tiles[54]);
-        tiles[55] = new Tile(grid.tiles[55]);
-        tiles[56] = new Tile(grid.tiles[56]);
-        tiles[57] = new Tile(grid.tiles[57]);
-        tiles[58] = new Tile(grid.tiles[58]);
-        tiles[59] = new Tile(grid.tiles[59]);
-        tiles[60] = new Tile(grid.tiles[60]);
-        tiles[61] = new Tile(grid.tiles[61]);
-        tiles[62] = new Tile(grid.tiles[62]);
-        tiles[63] = new Tile(grid.tiles[63]);
+        whiteProtections = grid.whiteProtections;
+        blackProtections = grid.blackProtections;
+        whites = grid.whites;
+        blacks = grid.blacks;
+        System.arraycopy(grid.whitePieces, 0, whitePieces, 0, whitePieces.length);
+        System.arraycopy(grid.blackPieces, 0, blackPieces, 0, blackPieces.length);
+        whiteMaterial = grid.whiteMaterial;
+        blackMaterial = grid.blackMaterial;
+        whitePositions = grid.whitePositions;
+        blackPositions = grid.blackPositions;
+        phase = grid.phase;
+        hash = grid.hash;
+        pawnKey = grid.pawnKey;
+        tiles[0] = new Tile(this, grid.tiles[0]);
+        tiles[1] = new Tile(this, grid.tiles[1]);
+        tiles[2] = new Tile(this, grid.tiles[2]);
+        tiles[3] = new Tile(this, grid.tiles[3]);
+        tiles[4] = new Tile(this, grid.tiles[4]);
+        tiles[5] = new Tile(this, grid.tiles[5]);
+        tiles[6] = new Tile(this, grid.tiles[6]);
+        tiles[7] = new Tile(this, grid.tiles[7]);
+        tiles[8] = new Tile(this, grid.tiles[8]);
+        tiles[9] = new Tile(this, grid.tiles[9]);
+        tiles[10] = new Tile(this, grid.tiles[10]);
+        tiles[11] = new Tile(this, grid.tiles[11]);
+        tiles[12] = new Tile(this, grid.tiles[12]);
+        tiles[13] = new Tile(this, grid.tiles[13]);
+        tiles[14] = new Tile(this, grid.tiles[14]);
+        tiles[15] = new Tile(this, grid.tiles[15]);
+        tiles[16] = new Tile(this, grid.tiles[16]);
+        tiles[17] = new Tile(this, grid.tiles[17]);
+        tiles[18] = new Tile(this, grid.tiles[18]);
+        tiles[19] = new Tile(this, grid.tiles[19]);
+        tiles[20] = new Tile(this, grid.tiles[20]);
+        tiles[21] = new Tile(this, grid.tiles[21]);
+        tiles[22] = new Tile(this, grid.tiles[22]);
+        tiles[23] = new Tile(this, grid.tiles[23]);
+        tiles[24] = new Tile(this, grid.tiles[24]);
+        tiles[25] = new Tile(this, grid.tiles[25]);
+        tiles[26] = new Tile(this, grid.tiles[26]);
+        tiles[27] = new Tile(this, grid.tiles[27]);
+        tiles[28] = new Tile(this, grid.tiles[28]);
+        tiles[29] = new Tile(this, grid.tiles[29]);
+        tiles[30] = new Tile(this, grid.tiles[30]);
+        tiles[31] = new Tile(this, grid.tiles[31]);
+        tiles[32] = new Tile(this, grid.tiles[32]);
+        tiles[33] = new Tile(this, grid.tiles[33]);
+        tiles[34] = new Tile(this, grid.tiles[34]);
+        tiles[35] = new Tile(this, grid.tiles[35]);
+        tiles[36] = new Tile(this, grid.tiles[36]);
+        tiles[37] = new Tile(this, grid.tiles[37]);
+        tiles[38] = new Tile(this, grid.tiles[38]);
+        tiles[39] = new Tile(this, grid.tiles[39]);
+        tiles[40] = new Tile(this, grid.tiles[40]);
+        tiles[41] = new Tile(this, grid.tiles[41]);
+        tiles[42] = new Tile(this, grid.tiles[42]);
+        tiles[43] = new Tile(this, grid.tiles[43]);
+        tiles[44] = new Tile(this, grid.tiles[44]);
+        tiles[45] = new Tile(this, grid.tiles[45]);
+        tiles[46] = new Tile(this, grid.tiles[46]);
+        tiles[47] = new Tile(this, grid.tiles[47]);
+        tiles[48] = new Tile(this, grid.tiles[48]);
+        tiles[49] = new Tile(this, grid.tiles[49]);
+        tiles[50] = new Tile(this, grid.tiles[50]);
+        tiles[51] = new Tile(this, grid.tiles[51]);
+        tiles[52] = new Tile(this, grid.tiles[52]);
+        tiles[53] = new Tile(this, grid.tiles[53]);
+        tiles[54] = new Tile(this, grid.tiles[54]);
+        tiles[55] = new Tile(this, grid.tiles[55]);
+        tiles[56] = new Tile(this, grid.tiles[56]);
+        tiles[57] = new Tile(this, grid.tiles[57]);
+        tiles[58] = new Tile(this, grid.tiles[58]);
+        tiles[59] = new Tile(this, grid.tiles[59]);
+        tiles[60] = new Tile(this, grid.tiles[60]);
+        tiles[61] = new Tile(this, grid.tiles[61]);
+        tiles[62] = new Tile(this, grid.tiles[62]);
+        tiles[63] = new Tile(this, grid.tiles[63]);
     }
     
     public void fill(List<Piece> pieces) {
@@ -99,6 +162,44 @@ public final class Grid {
         }
     }
 
+    /**
+     * Replaces the pieces on this grid with those of a position read from
+     * FEN. Tile protections are not set, a {@link Board} created from this
+     * grid sets them.
+     * @param position The position.
+     */
+    public void setPosition(Fen position) {
+        clear();
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            if (position.isOccupied(index)) {
+                Piece piece = Pieces.create(position.getOrdinal(index), index / LENGTH, index % LENGTH, position.getMoveCount(index), position.isWhite(index));
+                if (index == position.getDoubleJumped()) {
+                    piece.setJustMadeDoubleJump(true);
+                }
+                tiles[index].setOccupant(piece);
+            }
+        }
+    }
+
+    /**
+     * Gets the position on this grid, so it can be written as FEN.
+     * @param whiteToMove Whether White is the side to move.
+     * @return The position.
+     */
+    public Fen getPosition(boolean whiteToMove) {
+        Fen position = new Fen();
+        position.setWhiteToMove(whiteToMove);
+        for (long occupied = whites | blacks; occupied != 0L; occupied &= (occupied - 1)) {
+            int index = Long.numberOfTrailingZeros(occupied);
+            Piece piece = tiles[index].getOccupant();
+            position.setPiece(index, piece.getOrdinal(), piece.isWhite(), piece.getMoveCount());
+            if (piece.justMadeDoubleJump()) {
+                position.setDoubleJumped(index);
+            }
+        }
+        return position;
+    }
+
     public Tile getTile(int row, int column) {
         //return tiles[LENGTH * row + column];
         //return tiles[TABLE[row][column]];
@@ -172,287 +273,153 @@ public final class Grid {
     //we dont need to get the pieces to look deeper.
     public List<Piece> getPieces() {
         List<Piece> pieces = new ArrayList<>(AI.NUMBER_OF_PIECES);
-        for (int index = 0; index != LINEAR_LENGTH; ++index) {
-            Piece piece = tiles[index].getOccupant();
-            if (piece != null) {
-                pieces.add(piece);
-            }
+        for (long occupied = whites | blacks; occupied != 0L; occupied &= (occupied - 1)) {
+            pieces.add(tiles[Long.numberOfTrailingZeros(occupied)].getOccupant());
         }
         return pieces;
     }
     
+    /**
+     * Recalculates the protections of every tile from scratch. Searches that
+     * move pieces back and forth should instead use a {@link ProtectionHolder},
+     * which only recalculates the pieces affected by a move.
+     * @param whites The White pieces on this grid.
+     * @param blacks The Black pieces on this grid.
+     */
     public void setProtections(List<Piece> whites, List<Piece> blacks) {
-        tiles[0].removeProtections();
-        tiles[1].removeProtections();
-        tiles[2].removeProtections();
-        tiles[3].removeProtections();
-        tiles[4].removeProtections();
-        tiles[5].removeProtections();
-        tiles[6].removeProtections();
-        tiles[7].removeProtections();
-        tiles[8].removeProtections();
-        tiles[9].removeProtections();
-        tiles[10].removeProtections();
-        tiles[11].removeProtections();
-        tiles[12].removeProtections();
-        tiles[13].removeProtections();
-        tiles[14].removeProtections();
-        tiles[15].removeProtections();
-        tiles[16].removeProtections();
-        tiles[17].removeProtections();
-        tiles[18].removeProtections();
-        tiles[19].removeProtections();
-        tiles[20].removeProtections();
-        tiles[21].removeProtections();
-        tiles[22].removeProtections();
-        tiles[23].removeProtections();
-        tiles[24].removeProtections();
-        tiles[25].removeProtections();
-        tiles[26].removeProtections();
-        tiles[27].removeProtections();
-        tiles[28].removeProtections();
-        tiles[29].removeProtections();
-        tiles[30].removeProtections();
-        tiles[31].removeProtections();
-        tiles[32].removeProtections();
-        tiles[33].removeProtections();
-        tiles[34].removeProtections();
-        tiles[35].removeProtections();
-        tiles[36].removeProtections();
-        tiles[37].removeProtections();
-        tiles[38].removeProtections();
-        tiles[39].removeProtections();
-        tiles[40].removeProtections();
-        tiles[41].removeProtections();
-        tiles[42].removeProtections();
-        tiles[43].removeProtections();
-        tiles[44].removeProtections();
-        tiles[45].removeProtections();
-        tiles[46].removeProtections();
-        tiles[47].removeProtections();
-        tiles[48].removeProtections();
-        tiles[49].removeProtections();
-        tiles[50].removeProtections();
-        tiles[51].removeProtections();
-        tiles[52].removeProtections();
-        tiles[53].removeProtections();
-        tiles[54].removeProtections();
-        tiles[55].removeProtections();
-        tiles[56].removeProtections();
-        tiles[57].removeProtections();
-        tiles[58].removeProtections();
-        tiles[59].removeProtections();
-        tiles[60].removeProtections();
-        tiles[61].removeProtections();
-        tiles[62].removeProtections();
-        tiles[63].removeProtections();
+        long white = 0L;
         for (int index = (whites.size() - 1); index >= 0; --index) {
-            whites.get(index).setProtectedTiles(this);
+            Piece piece = whites.get(index);
+            white |= (piece.protectedSquares = piece.getProtectedBitboard(this));
         }
+        long black = 0L;
         for (int index = (blacks.size() - 1); index >= 0; --index) {
-            blacks.get(index).setProtectedTiles(this);
+            Piece piece = blacks.get(index);
+            black |= (piece.protectedSquares = piece.getProtectedBitboard(this));
         }
+        setProtections(white, black);
     }
 
     public void setProtections(List<Piece> pieces) {
-        tiles[0].removeProtections();
-        tiles[1].removeProtections();
-        tiles[2].removeProtections();
-        tiles[3].removeProtections();
-        tiles[4].removeProtections();
-        tiles[5].removeProtections();
-        tiles[6].removeProtections();
-        tiles[7].removeProtections();
-        tiles[8].removeProtections();
-        tiles[9].removeProtections();
-        tiles[10].removeProtections();
-        tiles[11].removeProtections();
-        tiles[12].removeProtections();
-        tiles[13].removeProtections();
-        tiles[14].removeProtections();
-        tiles[15].removeProtections();
-        tiles[16].removeProtections();
-        tiles[17].removeProtections();
-        tiles[18].removeProtections();
-        tiles[19].removeProtections();
-        tiles[20].removeProtections();
-        tiles[21].removeProtections();
-        tiles[22].removeProtections();
-        tiles[23].removeProtections();
-        tiles[24].removeProtections();
-        tiles[25].removeProtections();
-        tiles[26].removeProtections();
-        tiles[27].removeProtections();
-        tiles[28].removeProtections();
-        tiles[29].removeProtections();
-        tiles[30].removeProtections();
-        tiles[31].removeProtections();
-        tiles[32].removeProtections();
-        tiles[33].removeProtections();
-        tiles[34].removeProtections();
-        tiles[35].removeProtections();
-        tiles[36].removeProtections();
-        tiles[37].removeProtections();
-        tiles[38].removeProtections();
-        tiles[39].removeProtections();
-        tiles[40].removeProtections();
-        tiles[41].removeProtections();
-        tiles[42].removeProtections();
-        tiles[43].removeProtections();
-        tiles[44].removeProtections();
-        tiles[45].removeProtections();
-        tiles[46].removeProtections();
-        tiles[47].removeProtections();
-        tiles[48].removeProtections();
-        tiles[49].removeProtections();
-        tiles[50].removeProtections();
-        tiles[51].removeProtections();
-        tiles[52].removeProtections();
-        tiles[53].removeProtections();
-        tiles[54].removeProtections();
-        tiles[55].removeProtections();
-        tiles[56].removeProtections();
-        tiles[57].removeProtections();
-        tiles[58].removeProtections();
-        tiles[59].removeProtections();
-        tiles[60].removeProtections();
-        tiles[61].removeProtections();
-        tiles[62].removeProtections();
-        tiles[63].removeProtections();
+        long white = 0L;
+        long black = 0L;
         for (int index = (pieces.size() - 1); index >= 0; --index) {
-            pieces.get(index).setProtectedTiles(this);
+            Piece piece = pieces.get(index);
+            if (piece.isWhite()) {
+                white |= (piece.protectedSquares = piece.getProtectedBitboard(this));
+            }
+            else {
+                black |= (piece.protectedSquares = piece.getProtectedBitboard(this));
+            }
         }
+        setProtections(white, black);
+    }
+
+    private void setProtections(long white, long black) {
+        whiteProtections = white;
+        blackProtections = black;
+    }
+
+    /**
+     * Changes the protections of this grid.
+     * @param white The new tiles protected by White.
+     * @param black The new tiles protected by Black.
+     */
+    void updateProtections(long white, long black) {
+        whiteProtections = white;
+        blackProtections = black;
+    }
+
+    long getWhiteProtections() {
+        return whiteProtections;
+    }
+
+    long getBlackProtections() {
+        return blackProtections;
+    }
+
+    long getWhiteOccupancy() {
+        return whites;
+    }
+
+    long getBlackOccupancy() {
+        return blacks;
+    }
+
+    long getOccupancy() {
+        return whites | blacks;
+    }
+
+    long getWhitePieces(int ordinal) {
+        return whitePieces[ordinal];
+    }
+
+    long getBlackPieces(int ordinal) {
+        return blackPieces[ordinal];
+    }
+
+    int getWhiteMaterial() {
+        return whiteMaterial;
+    }
+
+    int getBlackMaterial() {
+        return blackMaterial;
+    }
+
+    /**
+     * Records a piece placed on a tile in the type bitboards, material and
+     * piece square sums of this grid, called by the tiles. So making and
+     * taking back a move only changes these by the pieces that moved.
+     * @param piece The piece.
+     * @param bit The bit of the tile.
+     */
+    void addPiece(Piece piece, long bit) {
+        final int ordinal = piece.getOrdinal();
+        final int index = Long.numberOfTrailingZeros(bit);
+        final long key = Zobrist.getKey(piece, index);
+        hash ^= key;
+        if (ordinal == PAWN_ORDINAL) {
+            pawnKey ^= key;
+        }
+        if (piece.isWhite()) {
+            whitePieces[ordinal] |= bit;
+            whiteMaterial += MATERIAL[ordinal];
+            whitePositions += WHITE_POSITIONS[ordinal][index];
+        }
+        else {
+            blackPieces[ordinal] |= bit;
+            blackMaterial += MATERIAL[ordinal];
+            blackPositions += BLACK_POSITIONS[ordinal][index];
+        }
+        phase += PHASES[ordinal];
+    }
+
+    void removePiece(Piece piece, long bit) {
+        final int ordinal = piece.getOrdinal();
+        final int index = Long.numberOfTrailingZeros(bit);
+        final long key = Zobrist.getKey(piece, index);
+        hash ^= key;
+        if (ordinal == PAWN_ORDINAL) {
+            pawnKey ^= key;
+        }
+        if (piece.isWhite()) {
+            whitePieces[ordinal] &= ~bit;
+            whiteMaterial -= MATERIAL[ordinal];
+            whitePositions -= WHITE_POSITIONS[ordinal][index];
+        }
+        else {
+            blackPieces[ordinal] &= ~bit;
+            blackMaterial -= MATERIAL[ordinal];
+            blackPositions -= BLACK_POSITIONS[ordinal][index];
+        }
+        phase -= PHASES[ordinal];
     }
 
     public void clear() {
-        tiles[0].removeProtections();
-        tiles[1].removeProtections();
-        tiles[2].removeProtections();
-        tiles[3].removeProtections();
-        tiles[4].removeProtections();
-        tiles[5].removeProtections();
-        tiles[6].removeProtections();
-        tiles[7].removeProtections();
-        tiles[8].removeProtections();
-        tiles[9].removeProtections();
-        tiles[10].removeProtections();
-        tiles[11].removeProtections();
-        tiles[12].removeProtections();
-        tiles[13].removeProtections();
-        tiles[14].removeProtections();
-        tiles[15].removeProtections();
-        tiles[16].removeProtections();
-        tiles[17].removeProtections();
-        tiles[18].removeProtections();
-        tiles[19].removeProtections();
-        tiles[20].removeProtections();
-        tiles[21].removeProtections();
-        tiles[22].removeProtections();
-        tiles[23].removeProtections();
-        tiles[24].removeProtections();
-        tiles[25].removeProtections();
-        tiles[26].removeProtections();
-        tiles[27].removeProtections();
-        tiles[28].removeProtections();
-        tiles[29].removeProtections();
-        tiles[30].removeProtections();
-        tiles[31].removeProtections();
-        tiles[32].removeProtections();
-        tiles[33].removeProtections();
-        tiles[34].removeProtections();
-        tiles[35].removeProtections();
-        tiles[36].removeProtections();
-        tiles[37].removeProtections();
-        tiles[38].removeProtections();
-        tiles[39].removeProtections();
-        tiles[40].removeProtections();
-        tiles[41].removeProtections();
-        tiles[42].removeProtections();
-        tiles[43].removeProtections();
-        tiles[44].removeProtections();
-        tiles[45].removeProtections();
-        tiles[46].removeProtections();
-        tiles[47].removeProtections();
-        tiles[48].removeProtections();
-        tiles[49].removeProtections();
-        tiles[50].removeProtections();
-        tiles[51].removeProtections();
-        tiles[52].removeProtections();
-        tiles[53].removeProtections();
-        tiles[54].removeProtections();
-        tiles[55].removeProtections();
-        tiles[56].removeProtections();
-        tiles[57].removeProtections();
-        tiles[58].removeProtections();
-        tiles[59].removeProtections();
-        tiles[60].removeProtections();
-        tiles[61].removeProtections();
-        tiles[62].removeProtections();
-        tiles[63].removeProtections();
-        tiles[0].removeOccupant();
-        tiles[1].removeOccupant();
-        tiles[2].removeOccupant();
-        tiles[3].removeOccupant();
-        tiles[4].removeOccupant();
-        tiles[5].removeOccupant();
-        tiles[6].removeOccupant();
-        tiles[7].removeOccupant();
-        tiles[8].removeOccupant();
-        tiles[9].removeOccupant();
-        tiles[10].removeOccupant();
-        tiles[11].removeOccupant();
-        tiles[12].removeOccupant();
-        tiles[13].removeOccupant();
-        tiles[14].removeOccupant();
-        tiles[15].removeOccupant();
-        tiles[16].removeOccupant();
-        tiles[17].removeOccupant();
-        tiles[18].removeOccupant();
-        tiles[19].removeOccupant();
-        tiles[20].removeOccupant();
-        tiles[21].removeOccupant();
-        tiles[22].removeOccupant();
-        tiles[23].removeOccupant();
-        tiles[24].removeOccupant();
-        tiles[25].removeOccupant();
-        tiles[26].removeOccupant();
-        tiles[27].removeOccupant();
-        tiles[28].removeOccupant();
-        tiles[29].removeOccupant();
-        tiles[30].removeOccupant();
-        tiles[31].removeOccupant();
-        tiles[32].removeOccupant();
-        tiles[33].removeOccupant();
-        tiles[34].removeOccupant();
-        tiles[35].removeOccupant();
-        tiles[36].removeOccupant();
-        tiles[37].removeOccupant();
-        tiles[38].removeOccupant();
-        tiles[39].removeOccupant();
-        tiles[40].removeOccupant();
-        tiles[41].removeOccupant();
-        tiles[42].removeOccupant();
-        tiles[43].removeOccupant();
-        tiles[44].removeOccupant();
-        tiles[45].removeOccupant();
-        tiles[46].removeOccupant();
-        tiles[47].removeOccupant();
-        tiles[48].removeOccupant();
-        tiles[49].removeOccupant();
-        tiles[50].removeOccupant();
-        tiles[51].removeOccupant();
-        tiles[52].removeOccupant();
-        tiles[53].removeOccupant();
-        tiles[54].removeOccupant();
-        tiles[55].removeOccupant();
-        tiles[56].removeOccupant();
-        tiles[57].removeOccupant();
-        tiles[58].removeOccupant();
-        tiles[59].removeOccupant();
-        tiles[60].removeOccupant();
-        tiles[61].removeOccupant();
-        tiles[62].removeOccupant();
-        tiles[63].removeOccupant();
+        whiteProtections = blackProtections = 0L;
+        for (long occupied = whites | blacks; occupied != 0L; occupied &= (occupied - 1)) {
+            tiles[Long.numberOfTrailingZeros(occupied)].removeOccupant();
+        }
     }
 
     //we used fast equals for Database (HashMap) purposes, speeds things up
@@ -465,10 +432,13 @@ public final class Grid {
 
     //simply compare the pieces on both grids without their movecounts
     public final boolean fastEquals(Grid other) {
-        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+        if (whites != other.whites || blacks != other.blacks) {
+            return false;
+        }
+        //same tiles are occupied by the same colors, only the types may differ
+        for (long occupied = whites | blacks; occupied != 0L; occupied &= (occupied - 1)) {
+            final int index = Long.numberOfTrailingZeros(occupied);
             if (!pieceEquals(tiles[index].getOccupant(), other.tiles[index].getOccupant())) {
-                //System.out.println(tiles[index]);
-                //System.out.println(other.tiles[index]);
                 return false;
             }
         }
@@ -477,7 +447,16 @@ public final class Grid {
 
     //maximum security checking 
     public final boolean deepEquals(Grid other) {
-        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+        if (whiteProtections != other.whiteProtections || blackProtections != other.blackProtections
+                || whites != other.whites || blacks != other.blacks
+                || whiteMaterial != other.whiteMaterial || blackMaterial != other.blackMaterial
+                || whitePositions != other.whitePositions || blackPositions != other.blackPositions || phase != other.phase
+                || hash != other.hash || pawnKey != other.pawnKey
+                || !Arrays.equals(whitePieces, other.whitePieces) || !Arrays.equals(blackPieces, other.blackPieces)) {
+            return false;
+        }
+        for (long occupied = whites | blacks; occupied != 0L; occupied &= (occupied - 1)) {
+            final int index = Long.numberOfTrailingZeros(occupied);
             if (!tiles[index].equals(other.tiles[index])) {
                 return false;
             }
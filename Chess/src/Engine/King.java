@@ -1,11 +1,13 @@
 package Engine;
 
+import static Engine.AttackTables.KING_MASKS;
+import static Engine.AttackTables.KING_TARGETS;
 import static Engine.EvaluationConstants.KING_PROTECTION;
 import static Util.ChessConstants.BLACK_KING;
 import static Util.ChessConstants.KING;
+import static Util.ChessConstants.KING_ORDINAL;
 import static Util.ChessConstants.KING_VALUE;
 import static Util.ChessConstants.WHITE_KING;
-import static Util.ChessConstants.LENGTH;
 import static Util.ChessConstants.WHITE_PIECE_ROW;
 import static Util.ChessConstants.BLACK_PIECE_ROW;
 import static Util.ChessConstants.LEFT_KING_CASTLE_COLUMN;
@@ -16,7 +18,6 @@ import static Util.ChessConstants.NUMBER_OF_KING_PROTECTED_TILES;
 import static Util.ChessConstants.RIGHT_ROOK_START_COLUMN;
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -58,6 +59,11 @@ public final class King extends Piece {
     public String getType() {
         return KING;
     }
+
+    @Override
+    public int getOrdinal() {
+        return KING_ORDINAL;
+    }
     
     @Override
     public int getProtectionValue() {
@@ -142,59 +148,13 @@ public final class King extends Piece {
 
     @Override
     public Iterator<Tile> getMoveTiles(Grid grid) {
-        final List<Tile> list = new LinkedList<>();
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(up, left);
-                if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                    list.add(tile);
-                }
-            }
-            Tile tile = grid.getTile(up, currentColumn);
-            if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                list.add(tile);
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(up, right);
-                if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                    list.add(tile);
-                }
-            }
-        }
-        if (left >= 0) {
-            Tile tile = grid.getTile(currentRow, left);
-            if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                list.add(tile);
-            }
-        }
-        if (right < LENGTH) {
-            Tile tile = grid.getTile(currentRow, right);
-            if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                list.add(tile);
-            }
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(down, left);
-                if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                    list.add(tile);
-                }
-            }
-            Tile tile = grid.getTile(down, currentColumn);
-            if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                list.add(tile);
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(down, right);
-                if (!tile.protectedByEnemy(this) && !tile.isOccupied()) {
-                    list.add(tile);
-                }
+        final int[] targets = KING_TARGETS[getIndex()];
+        final List<Tile> list = new ArrayList<>(targets.length);
+        //the King may not step onto a protected tile
+        final long blocked = grid.getOccupancy() | (isWhite() ? grid.getBlackProtections() : grid.getWhiteProtections());
+        for (int target : targets) {
+            if ((blocked & (1L << target)) == 0L) {
+                list.add(grid.getTile(target));
             }
         }
         return list.iterator();
@@ -202,59 +162,12 @@ public final class King extends Piece {
 
     @Override
     public List<Tile> getAttackTiles(Grid grid) {
+        final int[] targets = KING_TARGETS[getIndex()];
         final List<Tile> list = new ArrayList<>(NUMBER_OF_KING_PROTECTED_TILES);
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(up, left);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    list.add(tile);
-                }
-            }
-            Tile tile = grid.getTile(up, currentColumn);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                list.add(tile);
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(up, right);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    list.add(tile);
-                }
-            }
-        }
-        if (left >= 0) {
-            Tile tile = grid.getTile(currentRow, left);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                list.add(tile);
-            }
-        }
-        if (right < LENGTH) {
-            Tile tile = grid.getTile(currentRow, right);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                list.add(tile);
-            }
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(down, left);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    list.add(tile);
-                }
-            }
-            Tile tile = grid.getTile(down, currentColumn);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                list.add(tile);
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(down, right);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    list.add(tile);
-                }
+        final long targetable = getEnemyOccupancy(grid) & ~(isWhite() ? grid.getBlackProtections() : grid.getWhiteProtections());
+        for (int target : targets) {
+            if ((targetable & (1L << target)) != 0L) {
+                list.add(grid.getTile(target));
             }
         }
         return list;
@@ -262,167 +175,27 @@ public final class King extends Piece {
     
     @Override
     public int getNumberOfAttackTiles(Grid grid) {
-        int count = 0;
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(up, left);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    ++count;
-                }
-            }
-            Tile tile = grid.getTile(up, currentColumn);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                ++count;
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(up, right);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    ++count;
-                }
-            }
-        }
-        if (left >= 0) {
-            Tile tile = grid.getTile(currentRow, left);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                ++count;
-            }
-        }
-        if (right < LENGTH) {
-            Tile tile = grid.getTile(currentRow, right);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                ++count;
-            }
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                Tile tile = grid.getTile(down, left);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    ++count;
-                }
-            }
-            Tile tile = grid.getTile(down, currentColumn);
-            if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                ++count;
-            }
-            if (right < LENGTH) {
-                tile = grid.getTile(down, right);
-                if (!tile.protectedByEnemy(this) && tile.isOccupied() && !isAlly(tile.getOccupant())) {
-                    ++count;
-                }
-            }
-        }
-        return count;
+        final long targetable = getEnemyOccupancy(grid) & ~(isWhite() ? grid.getBlackProtections() : grid.getWhiteProtections());
+        return Long.bitCount(KING_MASKS[getIndex()] & targetable);
     }
 
     @Override
     public List<Tile> getProtectedTiles(Grid grid) {
-        final List<Tile> list = new ArrayList<>(NUMBER_OF_KING_PROTECTED_TILES);
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                list.add(grid.getTile(up, left));
-            }
-            list.add(grid.getTile(up, currentColumn));
-            if (right < LENGTH) {
-                list.add(grid.getTile(up, right));
-            }
-        }
-        if (left >= 0) {
-            list.add(grid.getTile(currentRow, left));
-        }
-        if (right < LENGTH) {
-            list.add(grid.getTile(currentRow, right));
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                list.add(grid.getTile(down, left));
-            }
-            list.add(grid.getTile(down, currentColumn));
-            if (right < LENGTH) {
-                list.add(grid.getTile(down, right));
-            }
-        }
-        return list;
+        return getTargetTiles(grid, KING_TARGETS[getIndex()]);
     }
     
     @Override
     public void setProtectedTiles(Grid grid) {
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                grid.getTile(up, left).setProtectedBy(this);
-            }
-            grid.getTile(up, currentColumn).setProtectedBy(this);
-            if (right < LENGTH) {
-                grid.getTile(up, right).setProtectedBy(this);
-            }
-        }
-        if (left >= 0) {
-            grid.getTile(currentRow, left).setProtectedBy(this);
-        }
-        if (right < LENGTH) {
-            grid.getTile(currentRow, right).setProtectedBy(this);
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                grid.getTile(down, left).setProtectedBy(this);
-            }
-            grid.getTile(down, currentColumn).setProtectedBy(this);
-            if (right < LENGTH) {
-                grid.getTile(down, right).setProtectedBy(this);
-            }
-        }
+        setTargetsProtected(grid, KING_TARGETS[getIndex()]);
     }
 
     @Override
     public int getNumberOfProtectedTiles(Grid grid) {
-        int count = 0;
-        final int currentRow = getRow();
-        final int currentColumn = getColumn();
-        final int up = currentRow - 1;
-        final int down = currentRow + 1;
-        final int left = currentColumn - 1;
-        final int right = currentColumn + 1;
-        if (up >= 0) {
-            if (left >= 0) {
-                ++count;
-            }
-            ++count;
-            if (right < LENGTH) {
-                ++count;
-            }
-        }
-        if (left >= 0) {
-            ++count;
-        }
-        if (right < LENGTH) {
-            ++count;
-        }
-        if (down < LENGTH) {
-            if (left >= 0) {
-                ++count;
-            }
-            ++count;
-            if (right < LENGTH) {
-                ++count;
-            }
-        }
-        return count;
+        return KING_TARGETS[getIndex()].length;
+    }
+
+    @Override
+    public long getProtectedBitboard(Grid grid) {
+        return KING_MASKS[getIndex()];
     }
-}
\ No newline at end of file
+}
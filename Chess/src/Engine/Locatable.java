@@ -12,6 +12,15 @@ public interface Locatable {
         return (getRow() << 3) + getColumn();
     }
     
+    /**
+     * Gets a bitboard with only the bit of this location set, bit i being the
+     * location with index i.
+     * @return The bitboard of this location.
+     */
+    default long getSquareMask() {
+        return 1L << getIndex();
+    }
+    
     default String getNotationLocation() {
         return "[" + (LENGTH - getRow()) + "," + ((char) (getColumn() + 65)) + "]";
     }
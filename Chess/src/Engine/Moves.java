@@ -0,0 +1,136 @@
+package Engine;
+
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.PAWN_ORDINAL;
+
+/**
+ * Moves used by the search are packed into a single int, so move lists are
+ * plain int arrays that can be sorted cheaply.
+ *
+ * Layout: bits 0-5 hold the tile the piece moves from, bits 6-11 the tile it
+ * moves to, bits 12-14 the ordinal of the promoted piece plus 1 (0 if the move
+ * is not a promotion), bits 16-17 the type of the move, bits 18-20 the ordinal
+ * of the moving piece and bits 21-23 the ordinal of the captured piece plus 1
+ * (0 if nothing is captured). The lowest 16 bits are what the
+ * {@link TranspositionTable} stores.
+ *
+ * @author zwill
+ */
+final class Moves {
+
+    static final int NORMAL = 0;
+    static final int CASTLE = 1;
+    static final int EN_PASSANT = 2;
+
+    //ordinal used when a move captures nothing
+    static final int NONE = -1;
+
+    //no legal chess position has more than 218 moves
+    static final int MAX_MOVES = 256;
+
+    //bits of a move kept by the transposition table
+    static final int TABLE_MASK = 0xFFFF;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int TYPE_SHIFT = 16;
+    private static final int PIECE_SHIFT = 18;
+    private static final int CAPTURED_SHIFT = 21;
+    private static final int TILE_MASK = 0x3F;
+    private static final int ORDINAL_MASK = 0x7;
+    private static final int TYPE_MASK = 0x3;
+
+    private Moves() {
+
+    }
+
+    /**
+     * Creates a move that is not a promotion, castle or en passant.
+     *
+     * @param from The tile the piece moves from.
+     * @param to The tile the piece moves to.
+     * @param piece The ordinal of the moving piece.
+     * @param captured The ordinal of the captured piece, {@link #NONE} if
+     * nothing is captured.
+     * @return The packed move.
+     */
+    static int create(int from, int to, int piece, int captured) {
+        return from | (to << TO_SHIFT) | (piece << PIECE_SHIFT) | ((captured + 1) << CAPTURED_SHIFT);
+    }
+
+    /**
+     * Creates a Pawn promotion.
+     *
+     * @param from The tile the Pawn moves from.
+     * @param to The tile the Pawn moves to.
+     * @param captured The ordinal of the captured piece, {@link #NONE} if
+     * nothing is captured.
+     * @param promotion The ordinal of the piece the Pawn is promoted to.
+     * @return The packed move.
+     */
+    static int createPromotion(int from, int to, int captured, int promotion) {
+        return create(from, to, PAWN_ORDINAL, captured) | ((promotion + 1) << PROMOTION_SHIFT);
+    }
+
+    static int createCastle(int from, int to) {
+        return create(from, to, KING_ORDINAL, NONE) | (CASTLE << TYPE_SHIFT);
+    }
+
+    static int createEnPassant(int from, int to) {
+        return create(from, to, PAWN_ORDINAL, PAWN_ORDINAL) | (EN_PASSANT << TYPE_SHIFT);
+    }
+
+    static int getFrom(int move) {
+        return move & TILE_MASK;
+    }
+
+    static int getTo(int move) {
+        return (move >>> TO_SHIFT) & TILE_MASK;
+    }
+
+    static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & ORDINAL_MASK) != 0;
+    }
+
+    /**
+     * Gets the ordinal of the piece a Pawn is promoted to.
+     *
+     * @param move The packed move.
+     * @return The ordinal, only valid if the move is a promotion.
+     */
+    static int getPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & ORDINAL_MASK) - 1;
+    }
+
+    static int getType(int move) {
+        return (move >>> TYPE_SHIFT) & TYPE_MASK;
+    }
+
+    static int getPiece(int move) {
+        return (move >>> PIECE_SHIFT) & ORDINAL_MASK;
+    }
+
+    static boolean isCapture(int move) {
+        return ((move >>> CAPTURED_SHIFT) & ORDINAL_MASK) != 0;
+    }
+
+    /**
+     * Gets the ordinal of the piece a move captures.
+     *
+     * @param move The packed move.
+     * @return The ordinal, {@link #NONE} if nothing is captured.
+     */
+    static int getCaptured(int move) {
+        return ((move >>> CAPTURED_SHIFT) & ORDINAL_MASK) - 1;
+    }
+
+    /**
+     * Checks whether a move neither captures nor promotes.
+     *
+     * @param move The packed move.
+     * @return True if the move only changes the position of pieces.
+     */
+    static boolean isQuiet(int move) {
+        return (move & ((ORDINAL_MASK << CAPTURED_SHIFT) | (ORDINAL_MASK << PROMOTION_SHIFT))) == 0;
+    }
+}
@@ -1,8 +1,17 @@
 package Engine;
 
+import static Engine.AttackTables.BLACK_PAWN_CAPTURES;
+import static Engine.AttackTables.BLACK_PAWN_MASKS;
+import static Engine.AttackTables.WHITE_PAWN_CAPTURES;
+import static Engine.AttackTables.WHITE_PAWN_MASKS;
 import static Engine.EvaluationConstants.PAWN_PROTECTION;
 import static Util.ChessConstants.BLACK_PAWN;
 import static Util.ChessConstants.PAWN;
+import static Util.ChessConstants.BISHOP_ORDINAL;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
+import static Util.ChessConstants.PAWN_ORDINAL;
+import static Util.ChessConstants.QUEEN_ORDINAL;
+import static Util.ChessConstants.ROOK_ORDINAL;
 import static Util.ChessConstants.PAWN_VALUE;
 import static Util.ChessConstants.WHITE_PAWN;
 import static Util.ChessConstants.LENGTH;
@@ -69,6 +78,11 @@ public final class Pawn extends Piece {
     public String getType() {
         return PAWN;
     }
+
+    @Override
+    public int getOrdinal() {
+        return PAWN_ORDINAL;
+    }
     
     @Override
     public int getProtectionValue() {
@@ -157,175 +171,32 @@ public final class Pawn extends Piece {
 
     @Override
     public List<Tile> getAttackTiles(Grid grid) {
-        final List<Tile> list = new ArrayList<>(2); //Maximum possible length is 2
-        if (isBlack()) {
-            int nextRow = getRow() + 1;
-            if (nextRow < LENGTH) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    Tile tile = grid.getTile(nextRow, nextColumn);
-                    if (tile.isOccupiedByWhite()) {
-                        list.add(tile);
-                    }
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    Tile tile = grid.getTile(nextRow, nextColumn);
-                    if (tile.isOccupiedByWhite()) {
-                        list.add(tile);
-                    }
-                }
-            }
-            return list;
-        }
-        int nextRow = getRow() - 1;
-        if (nextRow >= 0) {
-            final int currentColumn = getColumn();
-            int nextColumn = currentColumn - 1;
-            if (nextColumn >= 0) {
-                Tile tile = grid.getTile(nextRow, nextColumn);
-                if (tile.isOccupiedByBlack()) {
-                    list.add(tile);
-                }
-            }
-            if ((nextColumn = currentColumn + 1) < LENGTH) {
-                Tile tile = grid.getTile(nextRow, nextColumn);
-                if (tile.isOccupiedByBlack()) {
-                    list.add(tile);
-                }
-            }
-        }
-        return list;
+        return getTargetAttackTiles(grid, (isWhite() ? WHITE_PAWN_CAPTURES : BLACK_PAWN_CAPTURES)[getIndex()]);
     }
     
     @Override
     public int getNumberOfAttackTiles(Grid grid) {
-        int count = 0;
-        if (isBlack()) {
-            int nextRow = getRow() + 1;
-            if (nextRow < LENGTH) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    if (grid.getTile(nextRow, nextColumn).isOccupiedByWhite()) {
-                        ++count;
-                    }
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    if (grid.getTile(nextRow, nextColumn).isOccupiedByWhite()) {
-                        return ++count;
-                    }
-                }
-            }
-            return count;
-        }
-        int nextRow = getRow() - 1;
-        if (nextRow >= 0) {
-            final int currentColumn = getColumn();
-            int nextColumn = currentColumn - 1;
-            if (nextColumn >= 0) {
-                if (grid.getTile(nextRow, nextColumn).isOccupiedByBlack()) {
-                    ++count;
-                }
-            }
-            if ((nextColumn = currentColumn + 1) < LENGTH) {
-                if (grid.getTile(nextRow, nextColumn).isOccupiedByBlack()) {
-                    return ++count;
-                }
-            }
-        }
-        return count;
+        return Long.bitCount(getProtectedBitboard(grid) & getEnemyOccupancy(grid));
     }
 
     @Override
     public List<Tile> getProtectedTiles(Grid grid) {
-        final List<Tile> list = new ArrayList<>(2); //Maximum possible length is 2
-        if (isBlack()) {
-            final int nextRow = getRow() + 1;
-            if (nextRow < LENGTH) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    list.add(grid.getTile(nextRow, nextColumn));
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    list.add(grid.getTile(nextRow, nextColumn));
-                }
-            }
-        }
-        else {
-            final int nextRow = getRow() - 1;
-            if (nextRow >= 0) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    list.add(grid.getTile(nextRow, nextColumn));
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    list.add(grid.getTile(nextRow, nextColumn));
-                }
-            }
-        }
-        return list;
+        return getTargetTiles(grid, (isWhite() ? WHITE_PAWN_CAPTURES : BLACK_PAWN_CAPTURES)[getIndex()]);
     }
 
     @Override
     public void setProtectedTiles(Grid grid) {
-        if (isBlack()) {
-            final int nextRow = getRow() + 1;
-            if (nextRow < LENGTH) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    grid.getTile(nextRow, nextColumn).setProtectedBy(this);
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    grid.getTile(nextRow, nextColumn).setProtectedBy(this);
-                }
-            }
-        }
-        else {
-            final int nextRow = getRow() - 1;
-            if (nextRow >= 0) {
-                final int currentColumn = getColumn();
-                int nextColumn = currentColumn - 1;
-                if (nextColumn >= 0) {
-                    grid.getTile(nextRow, nextColumn).setProtectedBy(this);
-                }
-                if ((nextColumn = currentColumn + 1) < LENGTH) {
-                    grid.getTile(nextRow, nextColumn).setProtectedBy(this);
-                }
-            }
-        }
+        setTargetsProtected(grid, (isWhite() ? WHITE_PAWN_CAPTURES : BLACK_PAWN_CAPTURES)[getIndex()]);
     }
 
     @Override
     public int getNumberOfProtectedTiles(Grid grid) {
-        int count = 0;
-        if (isBlack()) {
-            if ((getRow() + 1) < LENGTH) {
-                final int currentColumn = getColumn();
-                if ((currentColumn - 1) >= 0) {
-                    ++count;
-                }
-                if ((currentColumn + 1) < LENGTH) {
-                    return ++count;
-                }
-            }
-            return count;
-        }
-        else {
-            if ((getRow() - 1) >= 0) {
-                final int currentColumn = getColumn();
-                if ((currentColumn - 1) >= 0) {
-                    ++count;
-                }
-                if ((currentColumn + 1) < LENGTH) {
-                    return ++count;
-                }
-            }
-            return count;
-        }
+        return (isWhite() ? WHITE_PAWN_CAPTURES : BLACK_PAWN_CAPTURES)[getIndex()].length;
+    }
+
+    @Override
+    public long getProtectedBitboard(Grid grid) {
+        return (isWhite() ? WHITE_PAWN_MASKS : BLACK_PAWN_MASKS)[getIndex()];
     }
 
     @Override
@@ -438,8 +309,32 @@ public final class Pawn extends Piece {
         };
     }
 
-    @Override
-    public String encode() {
-        return "(" + isWhite() + "," + getType() + "," + getRow() + "," + getColumn() + "," + justMadeDoubleJump + ")";
+    /**
+     * Promotes a Pawn to a single type of piece.
+     * @param pawn The Pawn being promoted.
+     * @param ordinal The ordinal of the new piece.
+     * @return A new piece of the given type, in the same location and with the
+     * same move count as the Pawn.
+     */
+    public static Piece getPromoted(Piece pawn, int ordinal) {
+        final int row = pawn.getRow();
+        final int column = pawn.getColumn();
+        final int moveCount = pawn.getMoveCount();
+        final boolean color = pawn.isWhite();
+        switch (ordinal) {
+            case QUEEN_ORDINAL: {
+                return new Queen(row, column, moveCount, color);
+            }
+            case ROOK_ORDINAL: {
+                return new Rook(row, column, moveCount, color);
+            }
+            case BISHOP_ORDINAL: {
+                return new Bishop(row, column, moveCount, color);
+            }
+            case KNIGHT_ORDINAL: {
+                return new Knight(row, column, moveCount, color);
+            }
+        }
+        throw new IllegalArgumentException("Invalid Ordinal: " + ordinal);
     }
 }
\ No newline at end of file
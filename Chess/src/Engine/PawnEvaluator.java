@@ -1,11 +1,13 @@
 package Engine;
 
 import static Util.ChessConstants.BLACK_PAWN_START_ROW;
+import static Util.ChessConstants.PAWN_ORDINAL;
 import static Util.ChessConstants.WHITE_PAWN_START_ROW;
 
 /**
  * Evaluates Pawns, giving a bonus, penalty or 0 depending on the context of the
- * board.
+ * board. Only other Pawns are looked at, so the score of all the Pawns is
+ * remembered by pawn structure in a {@link PawnTable}.
  *
  * @author zwill
  */
@@ -20,6 +22,9 @@ public final class PawnEvaluator {
     private static final int DOUBLED_PAWN_PENALTY = 20; //severe penalty if 2 or more pawns are in one vertical column
     private static final int ISOLATED_PAWN_PENALTY = 15; //less penalty, pawn can be protected by other pieces
 
+    //shared by all searches, the table needs no locking
+    static final PawnTable TABLE = new PawnTable();
+
     /**
      * White seeks to move pawns from row 6 to row 1. When White Pawns reach row
      * 1, they are one step away from being promoted. Note that it is impossible
@@ -52,6 +57,33 @@ public final class PawnEvaluator {
         60, //row 6, Black Pawn about to be promoted
     };
 
+    /**
+     * Evaluates the pawn structure of both sides, looking it up by the pawn
+     * key of the grid before scoring every Pawn.
+     *
+     * @param grid The chess board.
+     * @return The packed entry of the pawn structure, read by the getters of
+     * {@link PawnTable}.
+     */
+    static long evaluate(final Grid grid) {
+        final long key = grid.pawnKey;
+        final long entry = TABLE.probe(key);
+        if (entry != PawnTable.MISS) {
+            return entry;
+        }
+        int whiteScore = 0;
+        int blackScore = 0;
+        for (long pawns = grid.whitePieces[PAWN_ORDINAL]; pawns != 0L; pawns &= (pawns - 1)) {
+            final int index = Long.numberOfTrailingZeros(pawns);
+            whiteScore += evaluateWhitePawn(grid, index / LENGTH, index % LENGTH);
+        }
+        for (long pawns = grid.blackPieces[PAWN_ORDINAL]; pawns != 0L; pawns &= (pawns - 1)) {
+            final int index = Long.numberOfTrailingZeros(pawns);
+            blackScore += evaluateBlackPawn(grid, index / LENGTH, index % LENGTH);
+        }
+        return TABLE.store(key, whiteScore, blackScore);
+    }
+
     public static final int evaluateWhitePawn(final Grid grid, final int whitePawnRow, final int whitePawnColumn) {
         final int leftColumn = whitePawnColumn - 1;
         final int rightColumn = whitePawnColumn + 1;
@@ -0,0 +1,102 @@
+package Engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size hash table of pawn structures, indexed by the Zobrist key of the
+ * Pawns alone. Each entry remembers the score {@link PawnEvaluator} gives the
+ * Pawns of each side. Pawns move rarely compared to the other pieces, so
+ * nearly every position evaluated finds its pawn structure here.
+ *
+ * Like the {@link TranspositionTable}, entries are packed into a single long
+ * and stored next to the key xored with that long, so the table may be shared
+ * by search threads without locking.
+ *
+ * @author zwill
+ */
+public final class PawnTable {
+
+    //returned when a pawn structure is not in the table
+    public static final long MISS = 0L;
+
+    //default number of entries, 16 bytes each
+    public static final int DEFAULT_SIZE = 1 << 14;
+
+    //layout of an entry: white score | black score | valid
+    private static final int BLACK_SCORE_SHIFT = 16;
+    private static final long SCORE_MASK = 0xFFFFL;
+
+    //set in every entry, so no entry equals MISS
+    private static final long VALID = 1L << 63;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    public PawnTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param size The number of entries, rounded down to a power of 2.
+     */
+    public PawnTable(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid Size: " + size);
+        }
+        size = Integer.highestOneBit(size);
+        keys = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Finds the entry of the given pawn structure.
+     *
+     * @param key The pawn key of the position.
+     * @return The packed entry or {@link #MISS} if the structure is not stored.
+     */
+    public long probe(long key) {
+        final int index = (int) key & mask;
+        final long entry = entries[index];
+        return ((keys[index] ^ entry) == key) ? entry : MISS;
+    }
+
+    /**
+     * Stores the evaluation of a pawn structure, always replacing the entry
+     * that was there.
+     *
+     * @param key The pawn key of the position.
+     * @param whiteScore The score of the White Pawns.
+     * @param blackScore The score of the Black Pawns.
+     * @return The packed entry.
+     */
+    public long store(long key, int whiteScore, int blackScore) {
+        final long entry = (whiteScore & SCORE_MASK)
+                | ((blackScore & SCORE_MASK) << BLACK_SCORE_SHIFT)
+                | VALID;
+        final int index = (int) key & mask;
+        entries[index] = entry;
+        keys[index] = key ^ entry;
+        return entry;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+    }
+
+    public static int getWhiteScore(long entry) {
+        return (short) entry;
+    }
+
+    public static int getBlackScore(long entry) {
+        return (short) (entry >>> BLACK_SCORE_SHIFT);
+    }
+}
@@ -3,6 +3,7 @@ package Engine;
 import static Util.ChessConstants.BLACK;
 import static Util.ChessConstants.WHITE;
 import static Util.Constants.SPACE;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -13,6 +14,10 @@ public abstract class Piece implements Cloneable, Comparable<Piece>, Locatable {
     private int column;
     private int moveCount;
     private final boolean color;
+
+    //tiles protected by this piece as of the last protection update,
+    //kept by the grid so that only affected pieces need to be recalculated
+    long protectedSquares;
     
     protected Piece(int r, int c, boolean side) {
         row = r;
@@ -201,6 +206,15 @@ public abstract class Piece implements Cloneable, Comparable<Piece>, Locatable {
      * @return The type of this piece.
      */
     public abstract String getType();
+
+    /**
+     * Gets the ordinal of the type of this piece, which is suitable for
+     * indexing tables kept per piece type.
+     * @see Util.ChessConstants.PAWN_ORDINAL
+     * @see Util.ChessConstants.KING_ORDINAL
+     * @return The ordinal of the type of this piece.
+     */
+    public abstract int getOrdinal();
     
     /**
      * Gets the full name of this piece which is its color (White or Black)
@@ -235,6 +249,155 @@ public abstract class Piece implements Cloneable, Comparable<Piece>, Locatable {
 
     public abstract int getNumberOfProtectedTiles(Grid grid);
 
+    /**
+     * Gets the tiles protected by this piece as a bitboard, which must always
+     * agree with {@link #setProtectedTiles(Grid)}.
+     * @param grid The grid this piece is on.
+     * @return The bitboard of protected tiles, bit i being the tile with index i.
+     */
+    public abstract long getProtectedBitboard(Grid grid);
+
+    final long getEnemyOccupancy(Grid grid) {
+        return color ? grid.blacks : grid.whites;
+    }
+
+    //the methods below walk the tables of AttackTables, rays for the sliding
+    //pieces and target lists for the Knight and King
+
+    /**
+     * Gets how many tiles of a ray, counted from this piece, are protected.
+     * The ray ends at the first occupied tile, but like
+     * {@link #setProtectedTiles(Grid)} the tile behind an enemy King is still
+     * protected, so the protected tiles are always the start of the ray.
+     * @param grid The grid this piece is on.
+     * @param ray The tiles of the ray, from nearest to farthest.
+     * @return The number of protected tiles at the start of the ray.
+     */
+    final int getProtectedLength(Grid grid, int[] ray) {
+        final long occupied = grid.whites | grid.blacks;
+        for (int next = 0; next != ray.length; ++next) {
+            if ((occupied & (1L << ray[next])) != 0L) {
+                Piece occupant = grid.getTile(ray[next]).getOccupant();
+                if (occupant.isKing() && !isAlly(occupant)) {
+                    if (++next != ray.length && (occupied & (1L << ray[next])) == 0L) {
+                        return next + 1;
+                    }
+                    return next;
+                }
+                return next + 1;
+            }
+        }
+        return ray.length;
+    }
+
+    final Iterator<Tile> getRayMoveTiles(Grid grid, int[][] rays) {
+        final List<Tile> list = new ArrayList<>();
+        final long occupied = grid.whites | grid.blacks;
+        for (int[] ray : rays) {
+            for (int next = 0; next != ray.length && (occupied & (1L << ray[next])) == 0L; ++next) {
+                list.add(grid.getTile(ray[next]));
+            }
+        }
+        return list.iterator();
+    }
+
+    final List<Tile> getRayAttackTiles(Grid grid, int[][] rays, int capacity) {
+        final List<Tile> list = new ArrayList<>(capacity);
+        final long occupied = grid.whites | grid.blacks;
+        final long enemies = getEnemyOccupancy(grid);
+        for (int[] ray : rays) {
+            for (int next = 0; next != ray.length; ++next) {
+                final long bit = 1L << ray[next];
+                if ((occupied & bit) != 0L) {
+                    if ((enemies & bit) != 0L) {
+                        list.add(grid.getTile(ray[next]));
+                    }
+                    break;
+                }
+            }
+        }
+        return list;
+    }
+
+    final int getNumberOfRayAttackTiles(Grid grid, int[][] rays) {
+        int count = 0;
+        final long occupied = grid.whites | grid.blacks;
+        final long enemies = getEnemyOccupancy(grid);
+        for (int[] ray : rays) {
+            for (int next = 0; next != ray.length; ++next) {
+                final long bit = 1L << ray[next];
+                if ((occupied & bit) != 0L) {
+                    if ((enemies & bit) != 0L) {
+                        ++count;
+                    }
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    final List<Tile> getRayProtectedTiles(Grid grid, int[][] rays) {
+        final List<Tile> list = new ArrayList<>();
+        for (int[] ray : rays) {
+            for (int next = 0, length = getProtectedLength(grid, ray); next != length; ++next) {
+                list.add(grid.getTile(ray[next]));
+            }
+        }
+        return list;
+    }
+
+    final void setRayProtectedTiles(Grid grid, int[][] rays) {
+        for (int[] ray : rays) {
+            for (int next = 0, length = getProtectedLength(grid, ray); next != length; ++next) {
+                grid.getTile(ray[next]).setProtectedBy(this);
+            }
+        }
+    }
+
+    final int getNumberOfRayProtectedTiles(Grid grid, int[][] rays) {
+        int count = 0;
+        for (int[] ray : rays) {
+            count += getProtectedLength(grid, ray);
+        }
+        return count;
+    }
+
+    final long getRayProtectedBitboard(Grid grid, int[][] rays) {
+        long bitboard = 0L;
+        for (int[] ray : rays) {
+            for (int next = 0, length = getProtectedLength(grid, ray); next != length; ++next) {
+                bitboard |= 1L << ray[next];
+            }
+        }
+        return bitboard;
+    }
+
+    final List<Tile> getTargetAttackTiles(Grid grid, int[] targets) {
+        final List<Tile> list = new ArrayList<>(targets.length);
+        final long enemies = getEnemyOccupancy(grid);
+        for (int target : targets) {
+            if ((enemies & (1L << target)) != 0L) {
+                list.add(grid.getTile(target));
+            }
+        }
+        return list;
+    }
+
+    final List<Tile> getTargetTiles(Grid grid, int[] targets) {
+        final List<Tile> list = new ArrayList<>(targets.length);
+        for (int target : targets) {
+            list.add(grid.getTile(target));
+        }
+        return list;
+    }
+
+    final void setTargetsProtected(Grid grid, int[] targets) {
+        for (int target : targets) {
+            grid.getTile(target).setProtectedBy(this);
+        }
+    }
+
     //These methods only apply to Pawn, they are defined here to avoid the need for casting.
     public boolean justMadeDoubleJump() {
         return false;
@@ -282,16 +445,6 @@ public abstract class Piece implements Cloneable, Comparable<Piece>, Locatable {
     
     public abstract int getProtectionValue();
     
-    /**
-     * Encodes the all the properties of this piece except the number of times it
-     * has moved. This method is used by {@see AI} in order to avoid threefold 
-     * repetition.
-     * @return 
-     */
-    public String encode() {
-        return "(" + color + "," + getType() + "," + row + "," + column + ")";
-    }
-    
     /**
      * Compares this piece vs the given piece by their exact value.
      *
@@ -0,0 +1,198 @@
+package Engine;
+
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.PAWN_ORDINAL;
+
+/**
+ * The piece square tables of {@link EvaluatorPowerful} and the packed middle
+ * game and end game scores they are summed into. The grid keeps these sums up
+ * to date as pieces move, so the tables are kept apart from the evaluator and
+ * loading a grid does not load the evaluator.
+ *
+ * Tables inspired from:
+ * https://chessprogramming.wikispaces.com/Simplified+evaluation+function#Piece-Square%20Tables
+ * https://github.com/bytefire/Shutranj/blob/master/Shutranj.Engine/Evaluation2.cs
+ *
+ * With minor modifications
+ *
+ * @author zwill
+ */
+final class PieceSquareTables {
+
+    private PieceSquareTables() {
+
+    }
+
+    static final int[] PAWN_POSITION_WHITE = {
+        0, 0, 0, 0, 0, 0, 0, 0,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        10, 10, 20, 30, 30, 20, 10, 10,
+        5, 5, 10, 25, 25, 10, 5, 5,
+        0, 0, 0, 20, 20, 0, 0, 0,
+        5, -5, -10, 0, 0, -10, -5, 5,
+        5, 10, 10, -20, -20, 10, 10, 5,
+        0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    static final int[] KNIGHT_POSITION_WHITE = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20, 0, 0, 0, 0, -20, -40,
+        -30, 7, 10, 15, 15, 10, 7, -30,
+        -30, 7, 15, 20, 20, 15, 7, -30,
+        -30, 7, 15, 20, 20, 15, 7, -30,
+        -30, 7, 10, 15, 15, 10, 7, -30,
+        -40, -20, 0, 5, 5, 0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    static final int[] BISHOP_POSITION_WHITE = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10, 0, 0, 0, 0, 0, 0, -10,
+        -10, 0, 5, 10, 10, 5, 0, -10,
+        -10, 5, 5, 10, 10, 5, 5, -10,
+        -10, 0, 10, 10, 10, 10, 0, -10,
+        -10, 10, 10, 10, 10, 10, 10, -10,
+        -10, 5, 0, 0, 0, 0, 5, -10,
+        -20, -10, -40, -10, -10, -40, -10, -20
+    };
+
+    static final int[] ROOK_POSITION_WHITE = {
+        0, 0, 0, 0, 0, 0, 0, 0,
+        5, 10, 10, 10, 10, 10, 10, 5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    static final int[] QUEEN_POSITION_WHITE = {
+        -20, -10, -10, -5, -5, -10, -10, -20,
+        -10, 0, 0, 0, 0, 0, 0, -10,
+        -10, 0, 5, 5, 5, 5, 0, -10,
+        -5, 0, 5, 5, 5, 5, 0, -5,
+        -5, 0, 5, 5, 5, 5, 0, -5,
+        -10, 0, 5, 5, 5, 5, 0, -10,
+        -10, 0, 0, 0, 0, 0, 0, -10,
+        -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    static final int[] KING_POSITION_WHITE_MID = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+        20, 20, 0, 0, 0, 0, 20, 20,
+        20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    static final int[] KING_POSITION_WHITE_END = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10, 0, 0, -10, -20, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -30, 0, 0, 0, 0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    static final int[] PAWN_POSITION_BLACK = new int[LINEAR_LENGTH];
+    static final int[] KNIGHT_POSITION_BLACK = new int[LINEAR_LENGTH];
+    static final int[] BISHOP_POSITION_BLACK = new int[LINEAR_LENGTH];
+    static final int[] ROOK_POSITION_BLACK = new int[LINEAR_LENGTH];
+    static final int[] QUEEN_POSITION_BLACK = new int[LINEAR_LENGTH];
+    static final int[] KING_POSITION_BLACK_MID = new int[LINEAR_LENGTH];
+    static final int[] KING_POSITION_BLACK_END = new int[LINEAR_LENGTH];
+
+    //[ordinal][index], the tables above by type of piece with the middle game
+    //and end game score of every tile packed into one int, the grid keeps
+    //their sums over its pieces
+    static final int[][] WHITE_POSITIONS = new int[KING_ORDINAL + 1][LINEAR_LENGTH];
+    static final int[][] BLACK_POSITIONS = new int[KING_ORDINAL + 1][LINEAR_LENGTH];
+
+    //[ordinal], how much each piece left on the board counts towards the
+    //middle game, Pawns and Kings do not count
+    static final int[] PHASES = {0, 1, 1, 2, 4, 0};
+
+    //phase of the starting position, all the scores are middle game scores
+    static final int MAX_PHASE = 24;
+
+    private static final int[] LITTLE_ENDIAN_RANK_FILE_MAPPING = {
+        56, 57, 58, 59, 60, 61, 62, 63,
+        48, 49, 50, 51, 52, 53, 54, 55,
+        40, 41, 42, 43, 44, 45, 46, 47,
+        32, 33, 34, 35, 36, 37, 38, 39,
+        24, 25, 26, 27, 28, 29, 30, 31,
+        16, 17, 18, 19, 20, 21, 22, 23,
+        8, 9, 10, 11, 12, 13, 14, 15,
+        0, 1, 2, 3, 4, 5, 6, 7
+    };
+
+    static {
+        for (int index = 0; index < LINEAR_LENGTH; ++index) {
+            final int mirrorIndex = LITTLE_ENDIAN_RANK_FILE_MAPPING[index];
+            PAWN_POSITION_BLACK[mirrorIndex] = PAWN_POSITION_WHITE[index];
+            KNIGHT_POSITION_BLACK[mirrorIndex] = KNIGHT_POSITION_WHITE[index];
+            BISHOP_POSITION_BLACK[mirrorIndex] = BISHOP_POSITION_WHITE[index];
+            ROOK_POSITION_BLACK[mirrorIndex] = ROOK_POSITION_WHITE[index];
+            QUEEN_POSITION_BLACK[mirrorIndex] = QUEEN_POSITION_WHITE[index];
+            KING_POSITION_BLACK_MID[mirrorIndex] = KING_POSITION_WHITE_MID[index];
+            KING_POSITION_BLACK_END[mirrorIndex] = KING_POSITION_WHITE_END[index];
+        }
+        final int[][] white = {PAWN_POSITION_WHITE, KNIGHT_POSITION_WHITE, BISHOP_POSITION_WHITE, ROOK_POSITION_WHITE, QUEEN_POSITION_WHITE};
+        final int[][] black = {PAWN_POSITION_BLACK, KNIGHT_POSITION_BLACK, BISHOP_POSITION_BLACK, ROOK_POSITION_BLACK, QUEEN_POSITION_BLACK};
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            for (int ordinal = PAWN_ORDINAL; ordinal != KING_ORDINAL; ++ordinal) {
+                WHITE_POSITIONS[ordinal][index] = pack(white[ordinal][index], white[ordinal][index]);
+                BLACK_POSITIONS[ordinal][index] = pack(black[ordinal][index], black[ordinal][index]);
+            }
+            WHITE_POSITIONS[KING_ORDINAL][index] = pack(KING_POSITION_WHITE_MID[index], KING_POSITION_WHITE_END[index]);
+            BLACK_POSITIONS[KING_ORDINAL][index] = pack(KING_POSITION_BLACK_MID[index], KING_POSITION_BLACK_END[index]);
+        }
+    }
+
+    /**
+     * Packs a middle game and an end game score into one int, the end game
+     * score in the high half. Packed scores are added and subtracted like
+     * plain ints, as long as each half stays within a short.
+     *
+     * @param middleGame The middle game score.
+     * @param endGame The end game score.
+     * @return The packed score.
+     */
+    static int pack(int middleGame, int endGame) {
+        return (endGame << 16) + middleGame;
+    }
+
+    static int getMiddleGame(int packed) {
+        return (short) packed;
+    }
+
+    static int getEndGame(int packed) {
+        //the low half is signed, undo its borrow from the high half
+        return (short) ((packed + 0x8000) >> 16);
+    }
+
+    /**
+     * Blends the 2 halves of a packed score by the phase of the game, so a
+     * score changes smoothly as pieces come off instead of jumping at some
+     * amount of material.
+     *
+     * @param packed The packed score.
+     * @param phase The phase of the position, from 0 (only Pawns and Kings
+     * are left) to {@link #MAX_PHASE} (all pieces are left), greater values
+     * after promotions count as {@link #MAX_PHASE}.
+     * @return The blended score.
+     */
+    static int taper(int packed, int phase) {
+        if (phase > MAX_PHASE) {
+            phase = MAX_PHASE;
+        }
+        return (getMiddleGame(packed) * phase + getEndGame(packed) * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+}
@@ -1,7 +1,6 @@
 package Engine;
 
 import Util.ChessConstants;
-import static Util.Constants.SPACE;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -123,6 +122,40 @@ public final class Pieces {
         return copy;
     }
 
+    /**
+     * Creates a piece of the given type.
+     *
+     * @param ordinal The ordinal of the piece.
+     * @param row The row of the piece.
+     * @param column The column of the piece.
+     * @param moveCount The number of times the piece has moved.
+     * @param white The color of the piece.
+     * @return The new piece.
+     */
+    static final Piece create(int ordinal, int row, int column, int moveCount, boolean white) {
+        switch (ordinal) {
+            case ChessConstants.PAWN_ORDINAL: {
+                return new Pawn(row, column, moveCount, white);
+            }
+            case ChessConstants.KNIGHT_ORDINAL: {
+                return new Knight(row, column, moveCount, white);
+            }
+            case ChessConstants.BISHOP_ORDINAL: {
+                return new Bishop(row, column, moveCount, white);
+            }
+            case ChessConstants.ROOK_ORDINAL: {
+                return new Rook(row, column, moveCount, white);
+            }
+            case ChessConstants.QUEEN_ORDINAL: {
+                return new Queen(row, column, moveCount, white);
+            }
+            case ChessConstants.KING_ORDINAL: {
+                return new King(row, column, moveCount, white);
+            }
+        }
+        throw new IllegalArgumentException("Invalid Ordinal: " + ordinal);
+    }
+
     /**
      * Finds and returns the white king object from the given list of white
      * pieces.
@@ -257,40 +290,6 @@ public final class Pieces {
         return null;
     }
 
-    private static final StringBuilder ENCODER = new StringBuilder(100);
-
-    //encode format for SEEN_POSITIONS is pieces with space between them and no trailing space at end
-    static final String encode(List<Piece> pieces) {
-        ENCODER.setLength(0);
-        for (Iterator<Piece> it = pieces.iterator(); it.hasNext();) {
-            ENCODER.append(it.next().encode());
-            if (it.hasNext()) {
-                ENCODER.append(SPACE);
-            }
-            else {
-                break;
-            }
-        }
-        return ENCODER.toString();
-    }
-
-    static final String encode(List<Piece> whites, List<Piece> blacks) {
-        ENCODER.setLength(0);
-        for (int index = 0, size = whites.size(); index != size; ++index) {
-            ENCODER.append(whites.get(index).encode()).append(SPACE);
-        }
-        for (Iterator<Piece> it = blacks.iterator(); it.hasNext();) {
-            ENCODER.append(it.next().encode());
-            if (it.hasNext()) {
-                ENCODER.append(SPACE);
-            }
-            else {
-                break;
-            }
-        }
-        return ENCODER.toString();
-    }
-
     @Deprecated
     static final int getWhiteState(Grid grid, List<Piece> pieces, List<Piece> whites, King whiteKing) {
         return (whiteTrapped(grid, pieces, whites, whiteKing)) ? ((whiteKing.inCheck(grid)) ? ChessConstants.CHECKMATED : ChessConstants.STALEMATED) : ChessConstants.SAFE;
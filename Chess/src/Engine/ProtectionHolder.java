@@ -1,51 +1,125 @@
 package Engine;
 
-import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.BISHOP_ORDINAL;
+import static Util.ChessConstants.NUMBER_OF_PIECES;
+import static Util.ChessConstants.QUEEN_ORDINAL;
+import java.util.List;
 
-//by storing the tile's protections instead of recalculating them
-//we save a lot of time and increase our speed by a lot!
+/**
+ * Undo record for tile protections. Instead of recalculating the protections
+ * of every piece after a move, only the moved pieces and the sliding pieces
+ * whose rays touch a changed tile are recalculated. The previous protections
+ * of those pieces are saved here so they can be read back when the move is
+ * taken back.
+ *
+ * A sliding piece protects one tile past an enemy King, so sliders touching
+ * either King are always recalculated as well.
+ *
+ * Usage: call update after making a move and reset after taking it back.
+ */
 final class ProtectionHolder {
 
-    private static final int LENGTH = LINEAR_LENGTH;
-    private BooleanHolder[] protectionGrid = new BooleanHolder[LENGTH];
-    
+    private final Piece[] pieces = new Piece[NUMBER_OF_PIECES];
+    private final long[] protections = new long[NUMBER_OF_PIECES];
+    private int size;
+
+    private long whiteProtections;
+    private long blackProtections;
+
+    //for holders that are reused, only valid after the first update
+    ProtectionHolder() {
+
+    }
+
     public ProtectionHolder(Grid grid) {
-        for (int index = 0; index != LENGTH; ++index) {
-            Tile tile = grid.getTile(index);
-            protectionGrid[index] = new BooleanHolder(tile.protectedByWhite(), tile.protectedByBlack());
-        }
+        whiteProtections = grid.getWhiteProtections();
+        blackProtections = grid.getBlackProtections();
     }
 
     /**
-     * Resets tile protections on a particular Grid.
-     * @param grid The given grid.
+     * Updates the protections of a grid after a move.
+     * @param grid The grid the move was made on.
+     * @param whites The White pieces, with the King first.
+     * @param blacks The Black pieces, with the King first.
+     * @param changed Bitboard of the tiles whose occupants changed.
      */
-    void reset(Grid grid) {
-        for (int index = 0; index != LENGTH; ++index) {
-            BooleanHolder current = protectionGrid[index];
-            grid.getTile(index).setProtections(current.a, current.b);
-        }
+    void update(Grid grid, List<Piece> whites, List<Piece> blacks, long changed) {
+        whiteProtections = grid.getWhiteProtections();
+        blackProtections = grid.getBlackProtections();
+        size = 0;
+        final long kings = whites.get(0).getSquareMask() | blacks.get(0).getSquareMask();
+        grid.updateProtections(update(grid, whites, changed, kings), update(grid, blacks, changed, kings));
     }
 
     /**
-     * Clears this ProtectionHolder, rendering it 
-     * un-useful after this operations returns.
+     * Updates the protections of a grid after a move, for when the pieces of
+     * both sides are kept in 1 list.
+     * @param grid The grid the move was made on.
+     * @param pieces All pieces on the grid.
+     * @param changed Bitboard of the tiles whose occupants changed.
      */
-    void clear() {
-        for (int index = 0; index != LENGTH; ++index) {
-            protectionGrid[index] = null;
+    void update(Grid grid, List<Piece> pieces, long changed) {
+        whiteProtections = grid.getWhiteProtections();
+        blackProtections = grid.getBlackProtections();
+        size = 0;
+        long kings = 0L;
+        for (int index = (pieces.size() - 1); index >= 0; --index) {
+            Piece piece = pieces.get(index);
+            if (piece.isKing()) {
+                kings |= piece.getSquareMask();
+            }
         }
-        protectionGrid = null;
+        long white = 0L;
+        long black = 0L;
+        for (int index = (pieces.size() - 1); index >= 0; --index) {
+            Piece piece = pieces.get(index);
+            if (piece.isWhite()) {
+                white |= update(grid, piece, changed, kings);
+            }
+            else {
+                black |= update(grid, piece, changed, kings);
+            }
+        }
+        grid.updateProtections(white, black);
     }
 
-    private static final class BooleanHolder {
+    private long update(Grid grid, List<Piece> side, long changed, long kings) {
+        long bitboard = 0L;
+        for (int index = (side.size() - 1); index >= 0; --index) {
+            bitboard |= update(grid, side.get(index), changed, kings);
+        }
+        return bitboard;
+    }
+
+    private long update(Grid grid, Piece piece, long changed, long kings) {
+        final long previous = piece.protectedSquares;
+        if ((piece.getSquareMask() & changed) != 0L || (isSlider(piece) && (previous & (changed | kings)) != 0L)) {
+            final long current = piece.getProtectedBitboard(grid);
+            if (current != previous) {
+                pieces[size] = piece;
+                protections[size++] = previous;
+                return piece.protectedSquares = current;
+            }
+        }
+        return previous;
+    }
+
+    private static boolean isSlider(Piece piece) {
+        final int ordinal = piece.getOrdinal();
+        return ordinal >= BISHOP_ORDINAL && ordinal <= QUEEN_ORDINAL;
+    }
 
-        private final boolean a;
-        private final boolean b;
-        
-        private BooleanHolder(boolean first, boolean second) {
-            a = first;
-            b = second;
+    /**
+     * Resets tile protections on a particular Grid to what they were before
+     * the last update.
+     * @param grid The given grid.
+     */
+    void reset(Grid grid) {
+        for (int index = (size - 1); index >= 0; --index) {
+            pieces[index].protectedSquares = protections[index];
+            pieces[index] = null;
         }
+        size = 0;
+        grid.updateProtections(whiteProtections, blackProtections);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,384 @@
+package Engine;
+
+import static Util.ChessConstants.LINEAR_LENGTH;
+import Util.LongShortMap;
+import java.util.Arrays;
+
+/**
+ * Holds all the mutable state of a single search: the node counter, the timer,
+ * the evaluator, the move ordering tables and where progress is reported to.
+ *
+ * The search algorithms themselves are stateless, every call receives the
+ * context of the search it belongs to. So any number of searches may run at
+ * the same time, as long as each thread uses its own context. A context must
+ * not be shared between threads, only the {@link TranspositionTable} may be.
+ *
+ * @author zwill
+ */
+public final class SearchContext {
+
+    /**
+     * Working memory of a single node, reused by every node at the same ply so
+     * that searching allocates nothing.
+     */
+    static final class Frame {
+
+        final int[] moves = new int[Moves.MAX_MOVES];
+        final int[] scores = new int[Moves.MAX_MOVES];
+    }
+
+    /**
+     * Receives progress updates from a running search.
+     */
+    public interface Statistics {
+
+        void increasePositionsScanned();
+    }
+
+    //for searches nobody is watching
+    public static final Statistics NO_STATISTICS = new Statistics() {
+        @Override
+        public void increasePositionsScanned() {
+
+        }
+    };
+
+    //deepest ply the move ordering tables keep track of
+    static final int MAX_PLY = 64;
+
+    //number of killer moves remembered per ply
+    static final int NUMBER_OF_KILLERS = 2;
+
+    final SearchTimer timer;
+    final Evaluator evaluator;
+    final Statistics statistics;
+    final TranspositionTable table;
+
+    //[ply][slot], quiet moves that caused a cutoff at that ply
+    final int[][] killers = new int[MAX_PLY][NUMBER_OF_KILLERS];
+
+    //[color][from * 64 + to], white first
+    final int[][] history = new int[2][LINEAR_LENGTH * LINEAR_LENGTH];
+
+    //history scores are halved once one of them reaches this
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    //distance from the position the search started at
+    int ply;
+
+    //working memory of each ply, grows when the search goes deeper
+    private Frame[] frames = new Frame[MAX_PLY];
+
+    //set while searching the reply to a null move, so 2 null moves are never
+    //made in a row
+    boolean afterNullMove;
+
+    //keys of the positions on the current search path, by ply
+    private long[] path = new long[MAX_PLY];
+
+    //first ply a repetition may reach back to, moved past every null move
+    //since a passed turn does not repeat anything
+    int pathStart;
+
+    //number of positions scored as a draw by repetition so far
+    long repetitions;
+
+    //how often each position was reached in the game so far, may be null
+    private LongShortMap gameHistory;
+
+    //selective search, changes results so it is off when they must match
+    //a full width search
+    private boolean nullMovePruning = !AlphaBetaBlack.CHECK_MODE;
+    private boolean lateMoveReductions = !AlphaBetaBlack.CHECK_MODE;
+    private boolean repetitionDetection = !AlphaBetaBlack.CHECK_MODE;
+    private boolean lazyEvaluation = !AlphaBetaBlack.CHECK_MODE;
+
+    //number of positions evaluated
+    private long nodes;
+
+    //the search ends once this many positions have been evaluated
+    private long nodeLimit = Long.MAX_VALUE;
+
+    //the clock is only read once per this many checks, must be a power of 2
+    private static final int CHECK_INTERVAL = 1024;
+    private int checks;
+
+    //set by another thread or once time runs out, ends this search early
+    private volatile boolean stopped;
+
+    /**
+     * Creates a context evaluating with {@link Evaluators#MAIN} and the shared
+     * transposition table, reporting nothing.
+     *
+     * @param timer The timer that limits the search.
+     */
+    public SearchContext(SearchTimer timer) {
+        this(timer, Evaluators.MAIN, NO_STATISTICS);
+    }
+
+    public SearchContext(SearchTimer timer, Evaluator evaluator, Statistics statistics) {
+        this(timer, evaluator, statistics, AlphaBetaBlack.TABLE);
+    }
+
+    /**
+     * Creates a new context.
+     *
+     * @param timer The timer that limits the search.
+     * @param evaluator The evaluation function used at the leaves.
+     * @param statistics Where progress is reported to.
+     * @param table The transposition table, which may be shared with other
+     * searches.
+     */
+    public SearchContext(SearchTimer timer, Evaluator evaluator, Statistics statistics, TranspositionTable table) {
+        if (timer == null) {
+            throw new NullPointerException("SearchContext timer cannot be null.");
+        }
+        if (evaluator == null) {
+            throw new NullPointerException("SearchContext evaluator cannot be null.");
+        }
+        if (statistics == null) {
+            throw new NullPointerException("SearchContext statistics cannot be null.");
+        }
+        if (table == null) {
+            throw new NullPointerException("SearchContext table cannot be null.");
+        }
+        this.timer = timer;
+        this.evaluator = evaluator;
+        this.statistics = statistics;
+        this.table = table;
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    public void resetNodeCount() {
+        nodes = 0L;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Limits the number of positions this search may evaluate, counted from
+     * the last {@link #resetNodeCount()}.
+     *
+     * @param nodeLimit The maximum number of positions, {@link Long#MAX_VALUE}
+     * for no limit.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit <= 0L) {
+            throw new IllegalArgumentException("Invalid Node Limit: " + nodeLimit);
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Ends this search as soon as possible, even if its timer has time left.
+     * May be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean usesNullMovePruning() {
+        return nullMovePruning;
+    }
+
+    public void setNullMovePruning(boolean enable) {
+        nullMovePruning = enable;
+    }
+
+    public boolean usesLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public void setLateMoveReductions(boolean enable) {
+        lateMoveReductions = enable;
+    }
+
+    public boolean usesRepetitionDetection() {
+        return repetitionDetection;
+    }
+
+    public void setRepetitionDetection(boolean enable) {
+        repetitionDetection = enable;
+    }
+
+    public boolean usesLazyEvaluation() {
+        return lazyEvaluation;
+    }
+
+    public void setLazyEvaluation(boolean enable) {
+        lazyEvaluation = enable;
+    }
+
+    public LongShortMap getGameHistory() {
+        return gameHistory;
+    }
+
+    /**
+     * Sets the positions played in the game so far, which positions in the
+     * search may repeat.
+     *
+     * @param gameHistory How often each full key, see
+     * {@link Zobrist#getKey(Board, boolean)}, was reached in the game or null
+     * for no game history. Read but never changed by the search.
+     */
+    public void setGameHistory(LongShortMap gameHistory) {
+        this.gameHistory = gameHistory;
+    }
+
+    /**
+     * Records the position at the current ply on the search path and checks
+     * whether it is a draw by repetition. That is the case when it already
+     * occurred on the search path, or twice before in the game, so this would
+     * be the third time.
+     *
+     * @param key The full key of the position.
+     * @return True if the position should be scored as a draw.
+     */
+    boolean isRepetition(long key) {
+        if (ply >= path.length) {
+            path = Arrays.copyOf(path, ply << 1);
+        }
+        path[ply] = key;
+        //the same side must be to move and it takes at least 4 ply to get
+        //back to a position
+        for (int previous = ply - 4; previous >= pathStart; previous -= 2) {
+            if (path[previous] == key) {
+                ++repetitions;
+                return true;
+            }
+        }
+        if (gameHistory != null && gameHistory.get(key, (short) 0) >= 2) {
+            ++repetitions;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether this search must end, called at every node. The timer is
+     * only read every {@link #CHECK_INTERVAL} calls, a stop signal or the node
+     * limit is noticed at once.
+     *
+     * @return True if the search has been stopped, ran out of time or
+     * evaluated as many positions as it may.
+     */
+    boolean timeOver() {
+        if (stopped) {
+            return true;
+        }
+        if (nodes >= nodeLimit || ((++checks & (CHECK_INTERVAL - 1)) == 0 && timer.timeOver())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Checks whether this search ended early, without reading the timer. The
+     * results of a search that ended early are incomplete.
+     *
+     * @return True if the search was stopped, ran out of time or reached its
+     * node limit.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Evaluates a leaf position and counts it.
+     *
+     * @param board The position.
+     * @return The score in Black's perspective.
+     */
+    int evaluate(Board board) {
+        ++nodes;
+        statistics.increasePositionsScanned();
+        return evaluator.evaluateInBlackPerspective(board);
+    }
+
+    /**
+     * Evaluates a leaf position whose exact score is only needed inside the
+     * window and counts it, see
+     * {@link Evaluator#evaluateInBlackPerspective(Board, int, int)}.
+     *
+     * @param board The position.
+     * @param alpha Black's lower bound of the window.
+     * @param beta Black's upper bound of the window.
+     * @return The score in Black's perspective.
+     */
+    int evaluate(Board board, int alpha, int beta) {
+        if (!lazyEvaluation) {
+            return evaluate(board);
+        }
+        ++nodes;
+        statistics.increasePositionsScanned();
+        return evaluator.evaluateInBlackPerspective(board, alpha, beta);
+    }
+
+    /**
+     * Gets the working memory of the current ply. The node owns it until it
+     * returns, its children use the frames of the plies below.
+     *
+     * @return The frame of the current ply.
+     */
+    Frame getFrame() {
+        if (ply >= frames.length) {
+            frames = Arrays.copyOf(frames, ply << 1);
+        }
+        Frame frame = frames[ply];
+        if (frame == null) {
+            frames[ply] = frame = new Frame();
+        }
+        return frame;
+    }
+
+    int getKiller(int slot) {
+        return (ply < MAX_PLY) ? killers[ply][slot] : 0;
+    }
+
+    int getHistory(boolean white, int move) {
+        return history[white ? 0 : 1][(Moves.getFrom(move) << 6) | Moves.getTo(move)];
+    }
+
+    /**
+     * Remembers a quiet move that caused a cutoff at the current ply, so it is
+     * tried early in sibling positions and anywhere else it is legal.
+     *
+     * @param white Whether White made the move.
+     * @param move The move.
+     * @param depth The number of ply that were left to search, deeper cutoffs
+     * count for more.
+     */
+    void addCutoff(boolean white, int move, int depth) {
+        if (ply < MAX_PLY) {
+            final int[] slots = killers[ply];
+            if (slots[0] != move) {
+                slots[1] = slots[0];
+                slots[0] = move;
+            }
+        }
+        final int[] scores = history[white ? 0 : 1];
+        final int index = (Moves.getFrom(move) << 6) | Moves.getTo(move);
+        if ((scores[index] += depth * depth) >= HISTORY_LIMIT) {
+            for (int next = 0; next != scores.length; ++next) {
+                scores[next] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Forgets the killer moves and history scores, should be called before
+     * searching an unrelated position.
+     */
+    public void clearMoveOrdering() {
+        for (int ply = 0; ply != MAX_PLY; ++ply) {
+            Arrays.fill(killers[ply], 0);
+        }
+        Arrays.fill(history[0], 0);
+        Arrays.fill(history[1], 0);
+    }
+}
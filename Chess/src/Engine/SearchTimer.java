@@ -4,51 +4,60 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Timer class used to time how long an {@link AI} can
- * spend searching. 
+ * spend searching.
+ *
+ * The timer only remembers deadlines, there is no thread counting down. The
+ * searching thread reads the clock itself when it asks whether time is over,
+ * so it should not ask at every node, see {@link SearchContext}.
+ *
+ * There are 2 deadlines: once the soft deadline has passed no new search
+ * iteration should be started, once the hard deadline has passed every search
+ * must stop.
  * @author Will
  */
 public final class SearchTimer {
-    
-    private final Countdown countdown;
-    
-    private volatile boolean terminated = false;
+
+    //part of the countdown time after which no new iteration is started
+    private static final int SOFT_LIMIT_PERCENT = 50;
+
+    private volatile String name;
+
     private volatile boolean timing = false;
     private volatile boolean override = false;
-    
+
     private volatile long nanosecondsCountdown;
     private volatile long startTime;
+    private volatile long softDeadline;
+    private volatile long hardDeadline;
     private volatile long nanosecondsElapsed;
 
-    @SuppressWarnings("CallToThreadStartDuringObjectConstruction")
     SearchTimer(int seconds, String timerName) {
         if (timerName == null) {
             throw new NullPointerException("SearchTimer name cannot be null.");
         }
         nanosecondsCountdown = TimeUnit.NANOSECONDS.convert(seconds, TimeUnit.SECONDS);
-        (countdown = new Countdown(timerName)).start();
+        name = timerName;
     }
-        
+
     /**
      * Sets the name of this SearchTimer. If the given name is null, this method
      * returns immediately.
      * @param timerName The new name of this SearchTimer.
-     * @throws SecurityException If the given name cannot replace
-     * the current SearchTimer name.
      */
-    public void setName(String timerName) throws SecurityException {
+    public void setName(String timerName) {
         if (timerName != null) {
-            countdown.setName(timerName);
+            name = timerName;
         }
     }
-    
+
     /**
      * Gets the current name of this SearchTimer.
      * @return The current name of this SearchTimer.
      */
     public String getName() {
-        return countdown.getName();
+        return name;
     }
-    
+
     /**
      * Sets the countdown time (in seconds) of this SearchTimer.
      * @param seconds The new countdown time (in seconds).
@@ -56,7 +65,7 @@ public final class SearchTimer {
     public void setCountdownTime(int seconds) { //dont reinvent the wheel
         nanosecondsCountdown = TimeUnit.NANOSECONDS.convert(seconds, TimeUnit.SECONDS);
     }
-    
+
     /**
      * Gets the current countdown time (in seconds) of this SearchTimer.
      * @return The current countdown time (in seconds) of this SearchTimer.
@@ -69,19 +78,26 @@ public final class SearchTimer {
      * Starts the countdown of this SearchTimer from the beginning.
      */
     public void startTiming() {
+        final long now = System.nanoTime();
         nanosecondsElapsed = 0;
-        startTime = System.nanoTime();
-        timing = true;
+        startTime = now;
+        softDeadline = now + nanosecondsCountdown / 100 * SOFT_LIMIT_PERCENT;
+        hardDeadline = now + nanosecondsCountdown;
         override = false;
+        timing = true;
     }
 
     /**
-     * Forcibly stops the countdown of this SearchTimer.
+     * Forcibly stops the countdown of this SearchTimer, may be called from any
+     * thread.
      */
     public void stopTiming() {
-        timing = false;
+        if (timing) {
+            nanosecondsElapsed = System.nanoTime() - startTime;
+            timing = false;
+        }
     }
-    
+
     /**
      * Gets the number of seconds that has elapsed since this SearchTimer
      * has started its countdown.
@@ -89,66 +105,45 @@ public final class SearchTimer {
      * has started its countdown.
      */
     public int timeElapsed() {
-        return (int) TimeUnit.SECONDS.convert(nanosecondsElapsed, TimeUnit.NANOSECONDS);
+        final long elapsed = timing ? (System.nanoTime() - startTime) : nanosecondsElapsed;
+        return (int) TimeUnit.SECONDS.convert(elapsed, TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Determines whether or not this SearchTimer is active.
-     * @return {@code true} if this SearchTimer is not counting down, {@code false}
-     * otherwise.
+     * Determines whether or not this SearchTimer is active. Reads the clock,
+     * so it should not be called at every node.
+     * @return {@code true} if this SearchTimer is not counting down or its hard
+     * deadline has passed, {@code false} otherwise.
      */
     public boolean timeOver() {
-        return override ? true : !timing;
-    }
-    
-    public void setOverride(boolean over) {
-        override = over;
+        if (override || !timing) {
+            return true;
+        }
+        //compared by difference since System.nanoTime() may overflow
+        if (System.nanoTime() - hardDeadline >= 0) {
+            stopTiming();
+            return true;
+        }
+        return false;
     }
-    
+
     /**
-     * Permanently disables this SearchTimer and terminates its 
-     * internal thread.
+     * Determines whether or not a new search iteration should be started.
+     * @return {@code true} if this SearchTimer is not counting down or its soft
+     * deadline has passed, {@code false} otherwise.
      */
-    public void disable() {
-        terminated = true;
+    public boolean softTimeOver() {
+        return timeOver() || System.nanoTime() - softDeadline >= 0;
     }
-    
-    /**
-     * Countdown helper thread class to hide the {@link run()} method
-     * from outside callers.
-     */
-    private final class Countdown extends Thread {
-        
-        private Countdown(String threadName) {
-            super(threadName);
-        }
 
-        @Override
-        public final void run() {
-            try {
-                while (!terminated) { //loop forever
-                    if (timing) { //if timer is running
-                        //update time
-                        if ((nanosecondsElapsed = (System.nanoTime() - startTime)) >= nanosecondsCountdown) {
-                            timing = false; //if time is reached, then stop running.
-                            //System.out.println(secondsElapsed);
-                        }
-                    }
-                    else {
-                        TimeUnit.MILLISECONDS.sleep(1000); //was 100
-                    }
-                }
-            }
-            catch (InterruptedException ex) {
-                throw new RuntimeException(ex);
-            }
-        }
+    public void setOverride(boolean over) {
+        override = over;
     }
-    
+
     /**
      * This method always throws a {@link CloneNotSupportedException} because a
-     * SearchTimer cannot be properly cloned as it uses an internal {@link Thread} for
-     * concurrent timing.
+     * SearchTimer is shared by every search of an {@link AI}, a copy would not
+     * be stopped along with it.
      *
      * @return Never
      * @throws CloneNotSupportedException
@@ -168,7 +163,6 @@ public final class SearchTimer {
             System.out.println(timer.secondsElapsed());
         }
         System.out.println(timer.secondsElapsed());
-        timer.disable();
     }
      */
-}
\ No newline at end of file
+}
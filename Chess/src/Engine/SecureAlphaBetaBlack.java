@@ -9,7 +9,6 @@ import static Util.ChessConstants.WHITE_PIECE_ROW;
 import static Util.Constants.NEGATIVE_INFINITY;
 import static Util.Constants.POSITIVE_INFINITY;
 import java.util.List;
-import static Engine.Evaluators.MAIN;
 import java.util.Iterator;
 
 //Unchanged, except for changing to iterators for move tiles
@@ -19,7 +18,6 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
 
     //when using checkmode, allow for indefinate time
     private static final boolean CHECK_MODE = AlphaBetaBlack.CHECK_MODE;
-    private static long PERFT_COUNTER;
 
     static {
         System.out.println("---------------------------------------------------");
@@ -32,20 +30,12 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
 
     }
 
-    public static void setPerftCounter(long l) {
-        PERFT_COUNTER = l;
-    }
-
-    public static long getPerftCounter() {
-        return PERFT_COUNTER;
-    }
-
-    public static final int min(Board board, int depth) {
-        SecureMinMaxBlack.setPerftCounter(PERFT_COUNTER = 0L);
+    public static final int min(SearchContext context, Board board, int depth) {
         Board clonedBoard = new Board(board);
-        int result = INSTANCE.min(board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+        int result = INSTANCE.min(context, board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
         if (CHECK_MODE) {
-            if (result != SecureMinMaxBlack.min(board, depth)) {
+            //a separate context, so the node count of this search is not affected
+            if (result != SecureMinMaxBlack.min(new SearchContext(context.timer, context.evaluator, SearchContext.NO_STATISTICS), board, depth)) {
                 throw new Error();
             }
         }
@@ -55,12 +45,12 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
         return result;
     }
 
-    public static final int max(Board board, int depth) {
-        SecureMinMaxBlack.setPerftCounter(PERFT_COUNTER = 0L);
+    public static final int max(SearchContext context, Board board, int depth) {
         Board clonedBoard = new Board(board);
-        int result = INSTANCE.max(board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+        int result = INSTANCE.max(context, board, depth, NEGATIVE_INFINITY, POSITIVE_INFINITY);
         if (CHECK_MODE) {
-            if (result != SecureMinMaxBlack.max(board, depth)) {
+            //a separate context, so the node count of this search is not affected
+            if (result != SecureMinMaxBlack.max(new SearchContext(context.timer, context.evaluator, SearchContext.NO_STATISTICS), board, depth)) {
                 throw new Error();
             }
         }
@@ -76,6 +66,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * moves, here we pick a move which leads to smallest possible max (the
      * worst Black can do).
      *
+     * @param context The state of the search.
      * @param board The chess board.
      * @param depth Number of ply to search ahead.
      * @param alpha Current highest score for Black, Black seeks to maximize
@@ -88,17 +79,15 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * wining or that White is about to be checkmated by Black.
      */
     @Override
-    public final int min(final Board board, int depth, int alpha, int beta) {
+    public final int min(final SearchContext context, final Board board, int depth, int alpha, int beta) {
         if (CHECK_MODE) {
             if (depth == 0) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+                return context.evaluate(board);
             }
         }
         else {
-            if (depth == 0 || AI.TIMER.timeOver()) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+            if (depth == 0 || context.timeOver()) {
+                return context.evaluate(board);
             }
         }
         
@@ -147,7 +136,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                     {
                         Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                         {
-                            int result = max(board, depth, alpha, beta);
+                            int result = max(context, board, depth, alpha, beta);
                             if (result < value) {
                                 value = result;
                             }
@@ -194,7 +183,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                     {
                         Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                         {
-                            int result = max(board, depth, alpha, beta);
+                            int result = max(context, board, depth, alpha, beta);
                             if (result < value) {
                                 value = result;
                             }
@@ -255,7 +244,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth, alpha, beta);
+                                    int result = max(context, board, depth, alpha, beta);
                                     if (result < value) {
                                         value = result;
                                     }
@@ -298,7 +287,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                         {
                             Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                             {
-                                int result = max(board, depth, alpha, beta);
+                                int result = max(context, board, depth, alpha, beta);
                                 if (result < value) {
                                     value = result;
                                 }
@@ -351,7 +340,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth, alpha, beta);
+                                    int result = max(context, board, depth, alpha, beta);
                                     if (result < value) {
                                         value = result;
                                     }
@@ -400,7 +389,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth, alpha, beta);
+                                    int result = max(context, board, depth, alpha, beta);
                                     if (result < value) {
                                         value = result;
                                     }
@@ -457,7 +446,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth, alpha, beta);
+                                    int result = max(context, board, depth, alpha, beta);
                                     if (result < value) {
                                         value = result;
                                     }
@@ -503,7 +492,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                         {
                             Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                             {
-                                int result = max(board, depth, alpha, beta);
+                                int result = max(context, board, depth, alpha, beta);
                                 if (result < value) {
                                     value = result;
                                 }
@@ -549,7 +538,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
             Tester.checkPieces(blacks, clonedBlacks);
         }
 
-        return (value == POSITIVE_INFINITY) ? checkWhiteEndGame(grid, whiteKing, depth + 1) : value;
+        return (value == POSITIVE_INFINITY) ? checkWhiteEndGame(context, grid, whiteKing, depth + 1) : value;
     }
 
     /**
@@ -558,6 +547,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * moves, here we pick a move which leads to greatest possible max (the best
      * Black can do).
      *
+     * @param context The state of the search.
      * @param board The chess board.
      * @param depth Number of ply to search ahead.
      * @param alpha Current highest score for Black, Black seeks to maximize
@@ -570,17 +560,15 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * losing or that Black is about to be checkmated by White.
      */
     @Override
-    public final int max(final Board board, int depth, int alpha, int beta) {
+    public final int max(final SearchContext context, final Board board, int depth, int alpha, int beta) {
         if (CHECK_MODE) {
             if (depth == 0) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+                return context.evaluate(board);
             }
         }
         else {
-            if (depth == 0 || AI.TIMER.timeOver()) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+            if (depth == 0 || context.timeOver()) {
+                return context.evaluate(board);
             }
         }
         
@@ -629,7 +617,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                     {
                         Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                         {
-                            int result = min(board, depth, alpha, beta);
+                            int result = min(context, board, depth, alpha, beta);
                             if (result > value) {
                                 value = result;
                             }
@@ -676,7 +664,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                     {
                         Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                         {
-                            int result = min(board, depth, alpha, beta);
+                            int result = min(context, board, depth, alpha, beta);
                             if (result > value) {
                                 value = result;
                             }
@@ -737,7 +725,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth, alpha, beta);
+                                    int result = min(context, board, depth, alpha, beta);
                                     if (result > value) {
                                         value = result;
                                     }
@@ -780,7 +768,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                         {
                             Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                             {
-                                int result = min(board, depth, alpha, beta);
+                                int result = min(context, board, depth, alpha, beta);
                                 if (result > value) {
                                     value = result;
                                 }
@@ -833,7 +821,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth, alpha, beta);
+                                    int result = min(context, board, depth, alpha, beta);
                                     if (result > value) {
                                         value = result;
                                     }
@@ -882,7 +870,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth, alpha, beta);
+                                    int result = min(context, board, depth, alpha, beta);
                                     if (result > value) {
                                         value = result;
                                     }
@@ -939,7 +927,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth, alpha, beta);
+                                    int result = min(context, board, depth, alpha, beta);
                                     if (result > value) {
                                         value = result;
                                     }
@@ -985,7 +973,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
                         {
                             Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                             {
-                                int result = min(board, depth, alpha, beta);
+                                int result = min(context, board, depth, alpha, beta);
                                 if (result > value) {
                                     value = result;
                                 }
@@ -1031,7 +1019,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
             Tester.checkPieces(blacks, clonedBlacks);
         }
 
-        return (value == NEGATIVE_INFINITY) ? checkBlackEndGame(grid, blackKing, depth + 1) : value;
+        return (value == NEGATIVE_INFINITY) ? checkBlackEndGame(context, grid, blackKing, depth + 1) : value;
     }
 
     /**
@@ -1039,6 +1027,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against White or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param whiteKing The White player's King.
      * @param depth How close this position is from the base node. The bigger
@@ -1048,8 +1037,8 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * this position is a Checkmate against White or 0 if this position is a
      * Stalemate.
      */
-    private static int checkWhiteEndGame(final Grid grid, final King whiteKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
+    private static int checkWhiteEndGame(final SearchContext context, final Grid grid, final King whiteKing, final int depth) {
+        context.statistics.increasePositionsScanned();
         //a bigger "depth", is actually shallower in the tree
         return whiteKing.inCheck(grid) ? (CHECKMATE_VALUE + depth) : 0;
     }
@@ -1059,6 +1048,7 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against Black or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param blackKing The Black player's King.
      * @param depth How close this position is from the base node. The bigger
@@ -1068,8 +1058,8 @@ public final class SecureAlphaBetaBlack extends AdvancedSearchAlgorithm {
      * this position is a Checkmate against Black or 0 if this position is a
      * Stalemate.
      */
-    private static int checkBlackEndGame(final Grid grid, final King blackKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
+    private static int checkBlackEndGame(final SearchContext context, final Grid grid, final King blackKing, final int depth) {
+        context.statistics.increasePositionsScanned();
         //a lower "depth", is actually deeper in the tree
         return blackKing.inCheck(grid) ? (-CHECKMATE_VALUE - depth) : 0;
     }
@@ -7,11 +7,11 @@ public final class SecureAlphaBetaWhite {
     }
 
     //these methods will use checking if SecureAlphaBetaBlack does
-    static final int min(Board board, int depth) {
-        return -SecureAlphaBetaBlack.max(board, depth);
+    static final int min(SearchContext context, Board board, int depth) {
+        return -SecureAlphaBetaBlack.max(context, board, depth);
     }
     
-    static final int max(Board board, int depth) {
-        return -SecureAlphaBetaBlack.min(board, depth);
+    static final int max(SearchContext context, Board board, int depth) {
+        return -SecureAlphaBetaBlack.min(context, board, depth);
     }
 }
\ No newline at end of file
@@ -9,14 +9,12 @@ import static Util.ChessConstants.WHITE_PIECE_ROW;
 import static Util.Constants.NEGATIVE_INFINITY;
 import static Util.Constants.POSITIVE_INFINITY;
 import java.util.List;
-import static Engine.Evaluators.MAIN;
 import java.util.Iterator;
 
 //Changes: "pawnIndex is always equal to pieceIndex"
 public final class SecureMinMaxBlack {
 
     private static final boolean CHECK_MODE = AlphaBetaBlack.CHECK_MODE;
-    private static long PERFT_COUNTER;
 
     static {
         System.out.println("---------------------------------------------------");
@@ -29,19 +27,12 @@ public final class SecureMinMaxBlack {
 
     }
 
-    public static void setPerftCounter(long l) {
-        PERFT_COUNTER = l;
-    }
-
-    public static long getPerftCounter() {
-        return PERFT_COUNTER;
-    }
-
     /**
      * Minimizing component of the Min-Max search function seeking to reduce
      * Black's score by as much as possible. This method implements White's
      * moves.
      *
+     * @param context The state of the search.
      * @param board The chess board.
      * @param depth Number of ply to search ahead.
      * @return The least possible score to reduce Black's score as much as
@@ -49,17 +40,15 @@ public final class SecureMinMaxBlack {
      * wining or that White is about to be checkmated by Black.
      */
     //pick lowest of the max (worst enemy-Black can do)
-    static final int min(final Board board, int depth) {
+    static final int min(final SearchContext context, final Board board, int depth) {
         if (CHECK_MODE) {
             if (depth == 0) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+                return context.evaluate(board);
             }
         }
         else {
-            if (depth == 0 || AI.TIMER.timeOver()) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+            if (depth == 0 || context.timeOver()) {
+                return context.evaluate(board);
             }
         }
 
@@ -108,7 +97,7 @@ public final class SecureMinMaxBlack {
                     {
                         Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                         {
-                            int result = max(board, depth);
+                            int result = max(context, board, depth);
                             if (result < min) {
                                 min = result;
                             }
@@ -142,7 +131,7 @@ public final class SecureMinMaxBlack {
                     {
                         Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                         {
-                            int result = max(board, depth);
+                            int result = max(context, board, depth);
                             if (result < min) {
                                 min = result;
                             }
@@ -195,7 +184,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth);
+                                    int result = max(context, board, depth);
                                     if (result < min) {
                                         min = result;
                                     }
@@ -222,7 +211,7 @@ public final class SecureMinMaxBlack {
                         {
                             Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                             {
-                                int result = max(board, depth);
+                                int result = max(context, board, depth);
                                 if (result < min) {
                                     min = result;
                                 }
@@ -260,7 +249,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth);
+                                    int result = max(context, board, depth);
                                     if (result < min) {
                                         min = result;
                                     }
@@ -298,7 +287,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth);
+                                    int result = max(context, board, depth);
                                     if (result < min) {
                                         min = result;
                                     }
@@ -344,7 +333,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                                 {
-                                    int result = max(board, depth);
+                                    int result = max(context, board, depth);
                                     if (result < min) {
                                         min = result;
                                     }
@@ -375,7 +364,7 @@ public final class SecureMinMaxBlack {
                         {
                             Piece pawn = Pieces.checkWhiteEnPassantRights(blacks);
                             {
-                                int result = max(board, depth);
+                                int result = max(context, board, depth);
                                 if (result < min) {
                                     min = result;
                                 }
@@ -407,7 +396,7 @@ public final class SecureMinMaxBlack {
             Tester.checkPieces(blacks, clonedBlacks);
         }
 
-        return (min == POSITIVE_INFINITY) ? checkWhiteEndGame(grid, whiteKing, depth + 1) : min;
+        return (min == POSITIVE_INFINITY) ? checkWhiteEndGame(context, grid, whiteKing, depth + 1) : min;
     }
 
     /**
@@ -424,17 +413,15 @@ public final class SecureMinMaxBlack {
      * losing or is about to be checkmated.
      */
     //pick highest of the min (aka worst enemy-white can do)
-    static final int max(final Board board, int depth) {
+    static final int max(final SearchContext context, final Board board, int depth) {
         if (CHECK_MODE) {
             if (depth == 0) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+                return context.evaluate(board);
             }
         }
         else {
-            if (depth == 0 || AI.TIMER.timeOver()) {
-                ++PERFT_COUNTER;
-                return MAIN.evaluateInBlackPerspective(board);
+            if (depth == 0 || context.timeOver()) {
+                return context.evaluate(board);
             }
         }
 
@@ -483,7 +470,7 @@ public final class SecureMinMaxBlack {
                     {
                         Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                         {
-                            int result = min(board, depth);
+                            int result = min(context, board, depth);
                             if (result > max) {
                                 max = result;
                             }
@@ -517,7 +504,7 @@ public final class SecureMinMaxBlack {
                     {
                         Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                         {
-                            int result = min(board, depth);
+                            int result = min(context, board, depth);
                             if (result > max) {
                                 max = result;
                             }
@@ -570,7 +557,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth);
+                                    int result = min(context, board, depth);
                                     if (result > max) {
                                         max = result;
                                     }
@@ -597,7 +584,7 @@ public final class SecureMinMaxBlack {
                         {
                             Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                             {
-                                int result = min(board, depth);
+                                int result = min(context, board, depth);
                                 if (result > max) {
                                     max = result;
                                 }
@@ -635,7 +622,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth);
+                                    int result = min(context, board, depth);
                                     if (result > max) {
                                         max = result;
                                     }
@@ -673,7 +660,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth);
+                                    int result = min(context, board, depth);
                                     if (result > max) {
                                         max = result;
                                     }
@@ -719,7 +706,7 @@ public final class SecureMinMaxBlack {
                             {
                                 Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                                 {
-                                    int result = min(board, depth);
+                                    int result = min(context, board, depth);
                                     if (result > max) {
                                         max = result;
                                     }
@@ -750,7 +737,7 @@ public final class SecureMinMaxBlack {
                         {
                             Piece pawn = Pieces.checkBlackEnPassantRights(whites);
                             {
-                                int result = min(board, depth);
+                                int result = min(context, board, depth);
                                 if (result > max) {
                                     max = result;
                                 }
@@ -782,7 +769,7 @@ public final class SecureMinMaxBlack {
             Tester.checkPieces(blacks, clonedBlacks);
         }
 
-        return (max == NEGATIVE_INFINITY) ? checkBlackEndGame(grid, blackKing, depth + 1) : max;
+        return (max == NEGATIVE_INFINITY) ? checkBlackEndGame(context, grid, blackKing, depth + 1) : max;
     }
 
     /**
@@ -790,6 +777,7 @@ public final class SecureMinMaxBlack {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against White or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param whiteKing The White player's King.
      * @param depth How close this position is from the base node. The bigger
@@ -799,8 +787,8 @@ public final class SecureMinMaxBlack {
      * this position is a Checkmate against White or 0 if this position is a
      * Stalemate.
      */
-    private static int checkWhiteEndGame(final Grid grid, final King whiteKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
+    private static int checkWhiteEndGame(final SearchContext context, final Grid grid, final King whiteKing, final int depth) {
+        context.statistics.increasePositionsScanned();
         //a bigger "depth", is actually shallower in the tree
         return whiteKing.inCheck(grid) ? (CHECKMATE_VALUE + depth) : 0;
     }
@@ -810,6 +798,7 @@ public final class SecureMinMaxBlack {
      * legal moves. The function then determines whether such a position is a
      * Checkmate against Black or a Stalemate.
      *
+     * @param context The state of the search.
      * @param grid The current chess board.
      * @param blackKing The Black player's King.
      * @param depth How close this position is from the base node. The bigger
@@ -819,8 +808,8 @@ public final class SecureMinMaxBlack {
      * this position is a Checkmate against Black or 0 if this position is a
      * Stalemate.
      */
-    private static int checkBlackEndGame(final Grid grid, final King blackKing, final int depth) {
-        AI.DIALOG.increasePositionsScanned();
+    private static int checkBlackEndGame(final SearchContext context, final Grid grid, final King blackKing, final int depth) {
+        context.statistics.increasePositionsScanned();
         //a lower "depth", is actually deeper in the tree
         return blackKing.inCheck(grid) ? (-CHECKMATE_VALUE - depth) : 0;
     }
@@ -6,11 +6,11 @@ public final class SecureMinMaxWhite {
         
     }
     
-    static final int min(Board board, int depth) {
-        return -SecureMinMaxBlack.max(board, depth);
+    static final int min(SearchContext context, Board board, int depth) {
+        return -SecureMinMaxBlack.max(context, board, depth);
     }
     
-    static final int max(Board board, int depth) {
-        return -SecureMinMaxBlack.min(board, depth);
+    static final int max(SearchContext context, Board board, int depth) {
+        return -SecureMinMaxBlack.min(context, board, depth);
     }
 }
\ No newline at end of file
@@ -8,12 +8,12 @@ import Util.ChessConstants;
 import static Util.ChessConstants.LENGTH;
 import static Util.ChessConstants.LINEAR_LENGTH;
 import static Util.Constants.RUNTIME;
+import Util.Fen;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 public final class Tester {
     
@@ -132,6 +132,8 @@ public final class Tester {
         
         testErrorPosition();
         
+        testFen();
+        
         RUNTIME.exit(0);
     }
 
@@ -221,6 +223,37 @@ public final class Tester {
         testPosition(pieces, false);
     }
 
+    //checks that positions survive being written as FEN and read again and
+    //that both engines read the same position, boards do not keep the move
+    //clocks so every position has the clocks of a new game
+    private static void testFen() {
+        System.out.println("Testing FEN");
+        final String[] positions = {
+            Fen.START,
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 0 1",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 1",
+            "r3k2r/8/8/8/3pP3/8/8/R3K1R1 b Qkq e3 0 1"
+        };
+        for (String fen : positions) {
+            final boolean whiteToMove = Fen.parse(fen).isWhiteToMove();
+            final Board board = Board.fromFen(fen);
+            if (!board.toFen(whiteToMove).equals(fen)) {
+                throw new Error(board.toFen(whiteToMove));
+            }
+            final FastAI.Board fastBoard = new FastAI.Board();
+            fastBoard.setPosition(Fen.parse(fen));
+            if (!fastBoard.getPosition(whiteToMove).toString().equals(fen)) {
+                throw new Error(fastBoard.getPosition(whiteToMove).toString());
+            }
+            //perft takes true for black
+            final long nodes = perft(board.grid, 3, !whiteToMove);
+            if (nodes != fastBoard.perft(3, whiteToMove)) {
+                throw new Error();
+            }
+            System.out.println(fen + " perft(3) = " + nodes);
+        }
+    }
+
     //checks to see if evaluator & evaluator special agree
     //check protected tiles!
     static void checkEvaluators(Grid grid) {
@@ -291,19 +324,29 @@ public final class Tester {
         List<Piece> copiedPieces = Pieces.getDeepCopy(pieces);
 
         if (TEST_PERFT) {
+            final FastAI.Board fastBoard = toFastBoard(pieces);
             for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
                 long startTime = System.nanoTime();
-                System.out.println((!color ? "White" : "Black") + " Perft(" + depth + ") Result: " + perft(grid, depth, color) + " Took: " + TimeUnit.SECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " seconds");
+                final long result = perft(grid, depth, color);
+                System.out.println((!color ? "White" : "Black") + " Perft(" + depth + ") Result: " + result + " Took: " + TimeUnit.SECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " seconds");
+                //the legal bitboard generator must agree with the engine
+                startTime = System.nanoTime();
+                final long fastResult = fastBoard.perft(depth, !color);
+                System.out.println("FastAI Perft(" + depth + ") Result: " + fastResult + " Took: " + TimeUnit.MILLISECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " milliseconds");
+                if (fastResult != result) {
+                    throw new Error();
+                }
             }
         }
         else {
+            final SearchContext context = new SearchContext(AI.TEST_TIMER);
             for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
                 long startTime = System.nanoTime();
-                int score = !color ? SecureMinMaxBlack.min(new Board(new Grid(grid)), depth) : SecureMinMaxBlack.max(new Board(new Grid(grid)), depth);
+                int score = !color ? SecureMinMaxBlack.min(context, new Board(new Grid(grid)), depth) : SecureMinMaxBlack.max(context, new Board(new Grid(grid)), depth);
                 long nanoSecondsElapsed = System.nanoTime() - startTime;
                 double secondElapsed = nanoSecondsElapsed / 1000000000.0;
-                System.out.println("SecureMinMaxBlack (" + ((!color) ? "Min-White" : "Max-Black") + ") Depth: " + depth + " Score: " + score + " Perft: " + SecureMinMaxBlack.getPerftCounter() + " Took: " + secondElapsed + " seconds & " + nanoSecondsElapsed + " nanoseconds");
-                SecureMinMaxBlack.setPerftCounter(0);
+                System.out.println("SecureMinMaxBlack (" + ((!color) ? "Min-White" : "Max-Black") + ") Depth: " + depth + " Score: " + score + " Perft: " + context.getNodeCount() + " Took: " + secondElapsed + " seconds & " + nanoSecondsElapsed + " nanoseconds");
+                context.resetNodeCount();
             }
         }
 
@@ -311,6 +354,20 @@ public final class Tester {
         System.out.println();
     }
 
+    //same position on a FastAI board, whose color is true for white
+    static final FastAI.Board toFastBoard(final List<Piece> pieces) {
+        final FastAI.Board board = new FastAI.Board();
+        board.clear();
+        for (int index = 0, size = pieces.size(); index != size; ++index) {
+            final Piece piece = pieces.get(index);
+            board.setPiece(ChessConstants.getLocation(piece.getRow(), piece.getColumn()), piece.getOrdinal(), piece.isWhite(), piece.getMoveCount());
+            if (piece.justMadeDoubleJump()) {
+                board.setDoubleJumped(ChessConstants.getLocation(piece.getRow(), piece.getColumn()));
+            }
+        }
+        return board;
+    }
+
     //checks to make sure all piece protection methods are working properly
     static final void checkProtections(final List<Piece> pieces, final boolean color) {
         final List<Piece> clonedPieces = Pieces.getDeepCopy(pieces);
@@ -385,6 +442,7 @@ public final class Tester {
 
         final Grid clonedGrid = new Grid(grid);
         final List<Piece> clonedPieces = Pieces.getDeepCopy(pieces);
+        final ProtectionHolder holder = new ProtectionHolder(grid);
 
         if (color) {
             //black moves
@@ -405,7 +463,7 @@ public final class Tester {
                         leftRookTile.removeOccupant();
                         kingCastleTile.setOccupant(blackKing);
                         leftRookCastleTile.setOccupant(leftRook);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | leftRookTile.getSquareMask() | kingCastleTile.getSquareMask() | leftRookCastleTile.getSquareMask());
 
                         blackKing.increaseMoveCount();
                         leftRook.increaseMoveCount();
@@ -423,7 +481,7 @@ public final class Tester {
                         leftRookTile.setOccupant(leftRook);
                         kingCastleTile.removeOccupant();
                         leftRookCastleTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     else {
                         Tile rightRookTile = grid.getTile(ChessConstants.BLACK_PIECE_ROW, 7);
@@ -434,7 +492,7 @@ public final class Tester {
                         rightRookTile.removeOccupant();
                         kingCastleTile.setOccupant(blackKing);
                         rightRookCastleTile.setOccupant(rightRook);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | rightRookTile.getSquareMask() | kingCastleTile.getSquareMask() | rightRookCastleTile.getSquareMask());
 
                         blackKing.increaseMoveCount();
                         rightRook.increaseMoveCount();
@@ -452,7 +510,7 @@ public final class Tester {
                         rightRookTile.setOccupant(rightRook);
                         kingCastleTile.removeOccupant();
                         rightRookCastleTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -479,7 +537,7 @@ public final class Tester {
                             int pawnIndex = pieces.indexOf(black);
                             pieces.set(pawnIndex, replace);
                             int removeIndex = Pieces.remove(pieces, enemy);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | attackTile.getSquareMask());
                             if (!blackKing.inCheck(grid)) {
                                 replace.increaseMoveCount();
                                 {
@@ -494,14 +552,14 @@ public final class Tester {
                             attackTile.setOccupant(enemy);
                             pieces.add(removeIndex, enemy);
                             pieces.set(pawnIndex, black);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     else {
                         previousTile.removeOccupant();
                         attackTile.setOccupant(black);
                         int removeIndex = Pieces.remove(pieces, enemy);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | attackTile.getSquareMask());
                         if (!blackKing.inCheck(grid)) {
                             black.increaseMoveCount();
                             {
@@ -516,7 +574,7 @@ public final class Tester {
                         previousTile.setOccupant(black);
                         attackTile.setOccupant(enemy);
                         pieces.add(removeIndex, enemy);
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -530,7 +588,7 @@ public final class Tester {
                             whitePawnTile.removeOccupant();
                             enPassantTile.setOccupant(black);
                             int removeIndex = Pieces.remove(pieces, whitePawn);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | whitePawnTile.getSquareMask() | enPassantTile.getSquareMask());
                             if (!blackKing.inCheck(grid)) {
                                 black.increaseMoveCount();
                                 {
@@ -546,7 +604,7 @@ public final class Tester {
                             whitePawnTile.setOccupant(whitePawn);
                             enPassantTile.removeOccupant();
                             pieces.add(removeIndex, whitePawn);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     {
@@ -558,7 +616,7 @@ public final class Tester {
                             whitePawnTile.removeOccupant();
                             enPassantTile.setOccupant(black);
                             int removeIndex = Pieces.remove(pieces, whitePawn);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | whitePawnTile.getSquareMask() | enPassantTile.getSquareMask());
                             if (!blackKing.inCheck(grid)) {
                                 black.increaseMoveCount();
                                 {
@@ -574,7 +632,7 @@ public final class Tester {
                             whitePawnTile.setOccupant(whitePawn);
                             enPassantTile.removeOccupant();
                             pieces.add(removeIndex, whitePawn);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
@@ -596,7 +654,7 @@ public final class Tester {
                             moveTile.setOccupant(replace);
                             int pawnIndex = pieces.indexOf(black);
                             pieces.set(pawnIndex, replace);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | moveTile.getSquareMask());
                             if (!blackKing.inCheck(grid)) {
                                 replace.increaseMoveCount();
                                 {
@@ -610,13 +668,13 @@ public final class Tester {
                             previousTile.setOccupant(black);
                             moveTile.removeOccupant();
                             pieces.set(pawnIndex, black);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     else {
                         previousTile.removeOccupant();
                         moveTile.setOccupant(black);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | moveTile.getSquareMask());
                         if (!blackKing.inCheck(grid)) {
                             //see if this pawn has made a double jump
                             //this is for enpassant purposes
@@ -641,7 +699,7 @@ public final class Tester {
                         }
                         previousTile.setOccupant(black);
                         moveTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -668,7 +726,7 @@ public final class Tester {
                         leftRookTile.removeOccupant();
                         kingCastleTile.setOccupant(whiteKing);
                         leftRookCastleTile.setOccupant(leftRook);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | leftRookTile.getSquareMask() | kingCastleTile.getSquareMask() | leftRookCastleTile.getSquareMask());
 
                         whiteKing.increaseMoveCount();
                         leftRook.increaseMoveCount();
@@ -686,7 +744,7 @@ public final class Tester {
                         leftRookTile.setOccupant(leftRook);
                         kingCastleTile.removeOccupant();
                         leftRookCastleTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     else {
                         Tile rightRookTile = grid.getTile(ChessConstants.WHITE_PIECE_ROW, 7);
@@ -697,7 +755,7 @@ public final class Tester {
                         rightRookTile.removeOccupant();
                         kingCastleTile.setOccupant(whiteKing);
                         rightRookCastleTile.setOccupant(rightRook);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | rightRookTile.getSquareMask() | kingCastleTile.getSquareMask() | rightRookCastleTile.getSquareMask());
 
                         whiteKing.increaseMoveCount();
                         rightRook.increaseMoveCount();
@@ -715,7 +773,7 @@ public final class Tester {
                         rightRookTile.setOccupant(rightRook);
                         kingCastleTile.removeOccupant();
                         rightRookCastleTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -742,7 +800,7 @@ public final class Tester {
                             int pawnIndex = pieces.indexOf(white);
                             pieces.set(pawnIndex, replace);
                             int removeIndex = Pieces.remove(pieces, enemy);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | attackTile.getSquareMask());
                             if (!whiteKing.inCheck(grid)) {
                                 replace.increaseMoveCount();
                                 {
@@ -757,14 +815,14 @@ public final class Tester {
                             attackTile.setOccupant(enemy);
                             pieces.add(removeIndex, enemy);
                             pieces.set(pawnIndex, white);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     else {
                         previousTile.removeOccupant();
                         attackTile.setOccupant(white);
                         int removeIndex = Pieces.remove(pieces, enemy);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | attackTile.getSquareMask());
                         if (!whiteKing.inCheck(grid)) {
                             white.increaseMoveCount();
                             {
@@ -779,7 +837,7 @@ public final class Tester {
                         previousTile.setOccupant(white);
                         attackTile.setOccupant(enemy);
                         pieces.add(removeIndex, enemy);
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -793,7 +851,7 @@ public final class Tester {
                             blackPawnTile.removeOccupant();
                             enPassantTile.setOccupant(white);
                             int removeIndex = Pieces.remove(pieces, blackPawn);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | blackPawnTile.getSquareMask() | enPassantTile.getSquareMask());
                             if (!whiteKing.inCheck(grid)) {
                                 white.increaseMoveCount();
                                 {
@@ -809,7 +867,7 @@ public final class Tester {
                             blackPawnTile.setOccupant(blackPawn);
                             enPassantTile.removeOccupant();
                             pieces.add(removeIndex, blackPawn);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     {
@@ -821,7 +879,7 @@ public final class Tester {
                             blackPawnTile.removeOccupant();
                             enPassantTile.setOccupant(white);
                             int removeIndex = Pieces.remove(pieces, blackPawn);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | blackPawnTile.getSquareMask() | enPassantTile.getSquareMask());
                             if (!whiteKing.inCheck(grid)) {
                                 white.increaseMoveCount();
                                 {
@@ -837,7 +895,7 @@ public final class Tester {
                             blackPawnTile.setOccupant(blackPawn);
                             enPassantTile.removeOccupant();
                             pieces.add(removeIndex, blackPawn);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
@@ -859,7 +917,7 @@ public final class Tester {
                             moveTile.setOccupant(replace);
                             int pawnIndex = pieces.indexOf(white);
                             pieces.set(pawnIndex, replace);
-                            grid.setProtections(pieces);
+                            holder.update(grid, pieces, previousTile.getSquareMask() | moveTile.getSquareMask());
                             if (!whiteKing.inCheck(grid)) {
                                 replace.increaseMoveCount();
                                 {
@@ -873,13 +931,13 @@ public final class Tester {
                             previousTile.setOccupant(white);
                             moveTile.removeOccupant();
                             pieces.set(pawnIndex, white);
-                            grid.setProtections(pieces);
+                            holder.reset(grid);
                         }
                     }
                     else {
                         previousTile.removeOccupant();
                         moveTile.setOccupant(white);
-                        grid.setProtections(pieces);
+                        holder.update(grid, pieces, previousTile.getSquareMask() | moveTile.getSquareMask());
                         if (!whiteKing.inCheck(grid)) {
                             boolean madeDoubleJump = false;
                             if (white.isPawn() && !white.hasMoved()) {
@@ -902,7 +960,7 @@ public final class Tester {
                         }
                         previousTile.setOccupant(white);
                         moveTile.removeOccupant();
-                        grid.setProtections(pieces);
+                        holder.reset(grid);
                     }
                     Tester.check(grid, clonedGrid, pieces, clonedPieces);
                 }
@@ -911,89 +969,4 @@ public final class Tester {
             return moves;
         }
     }
-
-    //will not work since we dont read piece movecounts
-    //which is important for enpassant and castling and other stuff
-    @Deprecated
-    public static Grid readGrid(String line) {
-        Grid grid = new Grid();
-        String[] split = line.split(Pattern.quote("/"));
-        for (int index = 0; index < split.length; ++index) {
-            String original = split[index];
-            String formatted = "";
-            for (int outer = 0, length = original.length(); outer != length; ++outer) {
-                if (Character.isDigit(original.charAt(outer))) {
-                    int spaces = Integer.parseInt(original.substring(outer, outer + 1));
-                    while (spaces-- > 0) {
-                        formatted += " ";
-                    }
-                }
-                else {
-                    formatted += original.substring(outer, outer + 1);
-                }
-            }
-            split[index] = formatted;
-        }
-        int gridIndex = 0;
-        for (String each : split) {
-            for (char current : each.toCharArray()) {
-                if (Character.isLetter(current)) {
-                    switch (current) {
-                        case 'K': {
-                            grid.getTile(gridIndex).setOccupant(new King(0, 0, true));
-                            break;
-                        }
-                        case 'Q': {
-                            grid.getTile(gridIndex).setOccupant(new Queen(0, 0, true));
-                            break;
-                        }
-                        case 'R': {
-                            grid.getTile(gridIndex).setOccupant(new Rook(0, 0, true));
-                            break;
-                        }
-                        case 'B': {
-                            grid.getTile(gridIndex).setOccupant(new Bishop(0, 0, true));
-                            break;
-                        }
-                        case 'N': {
-                            grid.getTile(gridIndex).setOccupant(new Knight(0, 0, true));
-                            break;
-                        }
-                        case 'P': {
-                            grid.getTile(gridIndex).setOccupant(new Pawn(0, 0, true));
-                            break;
-                        }
-
-                        case 'k': {
-                            grid.getTile(gridIndex).setOccupant(new King(0, 0, !true));
-                            break;
-                        }
-                        case 'q': {
-                            grid.getTile(gridIndex).setOccupant(new Queen(0, 0, !true));
-                            break;
-                        }
-                        case 'r': {
-                            grid.getTile(gridIndex).setOccupant(new Rook(0, 0, !true));
-                            break;
-                        }
-                        case 'b': {
-                            grid.getTile(gridIndex).setOccupant(new Bishop(0, 0, !true));
-                            break;
-                        }
-                        case 'n': {
-                            grid.getTile(gridIndex).setOccupant(new Knight(0, 0, !true));
-                            break;
-                        }
-                        case 'p': {
-                            grid.getTile(gridIndex).setOccupant(new Pawn(0, 0, !true));
-                            break;
-                        }
-                    }
-                }
-                ++gridIndex;
-            }
-        }
-        grid.setProtections(grid.getPieces());
-        return grid;
-    }
-}
\ No newline at end of file
+}
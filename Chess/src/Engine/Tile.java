@@ -1,8 +1,15 @@
 package Engine;
 
 import Util.Constants;
+import static Util.ChessConstants.LENGTH;
 import Util.EmptyList;
 
+/**
+ * A single square of a {@link Grid}. Whether a tile is occupied or protected
+ * is not stored in the tile but read from the bitboards of its grid, a tile
+ * only remembers its occupant and keeps the bitboards and material of its grid
+ * up to date when the occupant changes.
+ */
 @SuppressWarnings("EqualsAndHashcode")
 public final class Tile implements Locatable {
     
@@ -10,25 +17,28 @@ public final class Tile implements Locatable {
     
     public final int row;
     public final int column;
- 
-    private boolean protectedByWhite;
-    private boolean protectedByBlack;
+
+    private final Grid grid;
+
+    //bit of this tile in the bitboards of its grid
+    private final long bit;
     
     private Piece occupant;
     
-    public Tile(int r, int c) {
+    Tile(Grid owner, int r, int c) {
+        grid = owner;
         row = r;
         column = c;
+        bit = 1L << (LENGTH * r + c);
     }
-    
-    public Tile(Tile tile) {
-        row = tile.row;
-        column = tile.column;
-        protectedByWhite = tile.protectedByWhite;
-        protectedByBlack = tile.protectedByBlack;
+
+    //the grid copies its bitboards itself
+    Tile(Grid owner, Tile tile) {
+        this(owner, tile.row, tile.column);
         Piece originalOccupant = tile.occupant;
         if (originalOccupant != null) {
             occupant = originalOccupant.clone();
+            occupant.protectedSquares = originalOccupant.protectedSquares;
         }
     }
 
@@ -61,37 +71,38 @@ public final class Tile implements Locatable {
     }
     
     public boolean protectedByWhite() {
-        return protectedByWhite;
+        return (grid.whiteProtections & bit) != 0L;
     }
 
     public boolean protectedByBlack() {
-        return protectedByBlack;
+        return (grid.blackProtections & bit) != 0L;
     }
     
     public boolean protectedByEnemy(Piece piece) {
-        return piece.isWhite() ? protectedByBlack : protectedByWhite;
+        return ((piece.isWhite() ? grid.blackProtections : grid.whiteProtections) & bit) != 0L;
     }
     
     public boolean protectedByAlly(Piece piece) {
-        return piece.isWhite() ? protectedByWhite : protectedByBlack;
+        return ((piece.isWhite() ? grid.whiteProtections : grid.blackProtections) & bit) != 0L;
     }
     
     public void setProtectedBy(Piece piece) { 
         if (piece.isWhite()) {
-            protectedByWhite = true;
+            grid.whiteProtections |= bit;
         }
         else {
-            protectedByBlack = true;
+            grid.blackProtections |= bit;
         }
     }
     
     public void removeProtections() {
-        protectedByWhite = protectedByBlack = false;
+        grid.whiteProtections &= ~bit;
+        grid.blackProtections &= ~bit;
     }
     
     public void setProtections(boolean white, boolean black) {
-        protectedByWhite = white;
-        protectedByBlack = black;
+        grid.whiteProtections = white ? (grid.whiteProtections | bit) : (grid.whiteProtections & ~bit);
+        grid.blackProtections = black ? (grid.blackProtections | bit) : (grid.blackProtections & ~bit);
     }
 
     public boolean isOccupied() {
@@ -99,11 +110,11 @@ public final class Tile implements Locatable {
     }
     
     public boolean isOccupiedByWhite() {
-        return occupant != null && occupant.isWhite();
+        return (grid.whites & bit) != 0L;
     }
     
     public boolean isOccupiedByBlack() {
-        return occupant != null && occupant.isBlack();
+        return (grid.blacks & bit) != 0L;
     }
     
     public Piece getOccupant() {
@@ -112,17 +123,34 @@ public final class Tile implements Locatable {
     
     public Piece popOccupant() {
         Piece piece = occupant;
-        occupant = null;
+        removeOccupant();
         return piece;
     }
     
     public void setOccupant(Piece nextOccupant) {
-        occupant = null;
-        (occupant = nextOccupant).setLocation(row, column);
+        nextOccupant.setLocation(row, column);
+        if (occupant != null) {
+            grid.removePiece(occupant, bit);
+        }
+        occupant = nextOccupant;
+        if (nextOccupant.isWhite()) {
+            grid.whites |= bit;
+            grid.blacks &= ~bit;
+        }
+        else {
+            grid.blacks |= bit;
+            grid.whites &= ~bit;
+        }
+        grid.addPiece(nextOccupant, bit);
     }
 
     public void removeOccupant() {
-        occupant = null;
+        if (occupant != null) {
+            grid.removePiece(occupant, bit);
+            occupant = null;
+        }
+        grid.whites &= ~bit;
+        grid.blacks &= ~bit;
     }
 
     @Override
@@ -131,16 +159,16 @@ public final class Tile implements Locatable {
         Tile other = (Tile) obj;
         return (row == other.row) 
                 && (column == other.column)
-                && (protectedByWhite == other.protectedByWhite)
-                && (protectedByBlack == other.protectedByBlack)
+                && (protectedByWhite() == other.protectedByWhite())
+                && (protectedByBlack() == other.protectedByBlack())
                 && Constants.equals(occupant, other.occupant);
     }
 
     @Override
     public int hashCode() {
         int hash = 3;
-        hash = 5 * hash + (protectedByWhite ? 1 : 0);
-        hash = 5 * hash + (protectedByBlack ? 1 : 0);
+        hash = 5 * hash + (protectedByWhite() ? 1 : 0);
+        hash = 5 * hash + (protectedByBlack() ? 1 : 0);
         hash = 5 * hash + (occupant != null ? occupant.hashCode() : 0);
         return hash;
     }
@@ -153,8 +181,8 @@ public final class Tile implements Locatable {
             result += "Occupied by: " + occupant.getName() + "\n";
         }
         result += "Location: [" + row + ", " + column + "]\n";
-        result += protectedByWhite ? "Protected By White\n" : "Not Protected By White\n";
-        result += protectedByBlack ? "Protected By Black" : "Not Protected By Black";
+        result += protectedByWhite() ? "Protected By White\n" : "Not Protected By White\n";
+        result += protectedByBlack() ? "Protected By Black" : "Not Protected By Black";
         return result;
     }
     
@@ -0,0 +1,167 @@
+package Engine;
+
+import static Engine.EvaluationConstants.CHECKMATE_VALUE;
+import java.util.Arrays;
+
+/**
+ * Fixed size hash table of previously searched positions, indexed by their
+ * Zobrist key. Each entry remembers the score of a position, the depth it was
+ * searched to, whether the score is exact or only a bound and the best move
+ * that was found.
+ *
+ * Entries are packed into a single long and stored next to the key xored with
+ * that long, so a read that races with a write from another search thread
+ * simply fails verification and counts as a miss. No locking is needed.
+ *
+ * @author zwill
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    //returned when a position is not in the table
+    public static final long MISS = 0L;
+
+    //default number of entries, 16 bytes each
+    public static final int DEFAULT_SIZE = 1 << 20;
+
+    //scores this close to checkmate are stored relative to the node
+    static final int CHECKMATE_THRESHOLD = CHECKMATE_VALUE - 1000;
+
+    //layout of an entry: value | depth | bound | move | age
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int AGE_SHIFT = 58;
+    private static final long DEPTH_MASK = 0xFFL;
+    private static final long BOUND_MASK = 0x3L;
+    private static final long MOVE_MASK = 0xFFFFL;
+    private static final long AGE_MASK = 0x3FL;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private volatile int age;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param size The number of entries, rounded down to a power of 2.
+     */
+    public TranspositionTable(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid Size: " + size);
+        }
+        size = Integer.highestOneBit(size);
+        keys = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Finds the entry of the given position.
+     *
+     * @param key The Zobrist key of the position.
+     * @return The packed entry or {@link #MISS} if the position is not stored.
+     */
+    public long probe(long key) {
+        final int index = (int) key & mask;
+        final long entry = entries[index];
+        return ((keys[index] ^ entry) == key) ? entry : MISS;
+    }
+
+    /**
+     * Stores the result of searching a position. Entries from previous
+     * searches are always replaced, otherwise only an entry searched to the
+     * same depth or shallower is replaced.
+     *
+     * @param key The Zobrist key of the position.
+     * @param depth The number of ply searched below the position, at least 1.
+     * @param ply The number of ply between the root and the position.
+     * @param value The score of the position.
+     * @param bound Whether the score is {@link #EXACT}, a {@link #LOWER_BOUND}
+     * or an {@link #UPPER_BOUND}.
+     * @param move The best move found, 0 if none.
+     */
+    public void store(long key, int depth, int ply, int value, int bound, int move) {
+        final int index = (int) key & mask;
+        final long previous = entries[index];
+        if (previous != MISS && getAge(previous) == age && getDepth(previous) > depth && bound != EXACT) {
+            return;
+        }
+        //checkmate scores count ply from the root, but are stored counting
+        //from the position so they hold wherever it is found again
+        if (value >= CHECKMATE_THRESHOLD) {
+            value += ply;
+        }
+        else if (value <= -CHECKMATE_THRESHOLD) {
+            value -= ply;
+        }
+        final long entry = (value & 0xFFFFFFFFL)
+                | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+                | ((bound & BOUND_MASK) << BOUND_SHIFT)
+                | ((move & MOVE_MASK) << MOVE_SHIFT)
+                | ((age & AGE_MASK) << AGE_SHIFT);
+        entries[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Should be called once before every new search, so that entries from
+     * older searches are preferred for replacement.
+     */
+    public void increaseAge() {
+        age = (int) ((age + 1) & AGE_MASK);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+        age = 0;
+    }
+
+    /**
+     * Gets the stored score of an entry, with checkmate scores adjusted to
+     * the node being searched.
+     *
+     * @param entry The packed entry.
+     * @param ply The number of ply between the root and the current node.
+     * @return The score.
+     */
+    public static int getValue(long entry, int ply) {
+        final int value = (int) entry;
+        if (value >= CHECKMATE_THRESHOLD) {
+            return value - ply;
+        }
+        if (value <= -CHECKMATE_THRESHOLD) {
+            return value + ply;
+        }
+        return value;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    public static int getBound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    public static int getMove(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK);
+    }
+
+    private static int getAge(long entry) {
+        return (int) ((entry >>> AGE_SHIFT) & AGE_MASK);
+    }
+}
@@ -0,0 +1,187 @@
+package Engine;
+
+import static Util.ChessConstants.BLACK_PAWN_DOUBLE_JUMP_ROW;
+import static Util.ChessConstants.BLACK_PIECE_ROW;
+import static Util.ChessConstants.LEFT_ROOK_START_COLUMN;
+import static Util.ChessConstants.LENGTH;
+import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.NUMBER_OF_PIECE_TYPES;
+import static Util.ChessConstants.RIGHT_ROOK_START_COLUMN;
+import static Util.ChessConstants.WHITE_PAWN_DOUBLE_JUMP_ROW;
+import static Util.ChessConstants.WHITE_PIECE_ROW;
+import java.util.Random;
+
+/**
+ * Random keys used to hash a chess position into a single long.
+ *
+ * The placement of the pieces is hashed incrementally by the {@link Grid}, a
+ * tile xors out the key of the piece that leaves it and xors in the key of
+ * the piece that enters it. The rest of the state (side to move,
+ * castling rights, en passant and how often each King has moved, which the
+ * evaluation functions reward) is cheap to derive and is mixed in when a full
+ * key is requested.
+ *
+ * @author zwill
+ */
+public final class Zobrist {
+
+    //fixed seed, so keys are identical between runs
+    private static final long SEED = 0x5DEECE66DL;
+
+    //[color][type][square], white first
+    private static final long[] PIECE_KEYS = new long[2 * NUMBER_OF_PIECE_TYPES * LINEAR_LENGTH];
+
+    //white left, white right, black left, black right
+    private static final long[] CASTLE_KEYS = new long[4];
+
+    //column of the pawn that just made a double jump
+    private static final long[] EN_PASSANT_KEYS = new long[LENGTH];
+
+    //white moved once, white moved more than once, same for black
+    private static final long[] KING_KEYS = new long[4];
+
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        Random random = new Random(SEED);
+        for (int index = 0; index != PIECE_KEYS.length; ++index) {
+            PIECE_KEYS[index] = random.nextLong();
+        }
+        for (int index = 0; index != CASTLE_KEYS.length; ++index) {
+            CASTLE_KEYS[index] = random.nextLong();
+        }
+        for (int index = 0; index != EN_PASSANT_KEYS.length; ++index) {
+            EN_PASSANT_KEYS[index] = random.nextLong();
+        }
+        for (int index = 0; index != KING_KEYS.length; ++index) {
+            KING_KEYS[index] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+
+    }
+
+    /**
+     * Gets the key of the given piece standing on the given square.
+     *
+     * @param piece The piece.
+     * @param index The square, from 0 (top left) to 63 (bottom right).
+     * @return The key of the piece on the square.
+     */
+    public static long getKey(Piece piece, int index) {
+        return PIECE_KEYS[((piece.isWhite() ? 0 : NUMBER_OF_PIECE_TYPES) + piece.getOrdinal()) * LINEAR_LENGTH + index];
+    }
+
+    /**
+     * Gets the full key of a position, which is the incrementally maintained
+     * placement hash of the grid combined with the side to move, castling
+     * rights, en passant rights and the state of both Kings.
+     *
+     * @param board The board.
+     * @param whiteToMove Whether White is the side to move.
+     * @return The full key of the position.
+     */
+    public static long getKey(Board board, boolean whiteToMove) {
+        final Grid grid = board.grid;
+        long key = board.grid.hash;
+        if (!whiteToMove) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        {
+            final King whiteKing = board.whiteKing;
+            switch (whiteKing.getMoveCount()) {
+                case 0: {
+                    if (canCastle(grid.getTile(WHITE_PIECE_ROW, LEFT_ROOK_START_COLUMN), true)) {
+                        key ^= CASTLE_KEYS[0];
+                    }
+                    if (canCastle(grid.getTile(WHITE_PIECE_ROW, RIGHT_ROOK_START_COLUMN), true)) {
+                        key ^= CASTLE_KEYS[1];
+                    }
+                    break;
+                }
+                case 1: {
+                    key ^= KING_KEYS[0];
+                    break;
+                }
+                default: {
+                    key ^= KING_KEYS[1];
+                }
+            }
+        }
+        {
+            final King blackKing = board.blackKing;
+            switch (blackKing.getMoveCount()) {
+                case 0: {
+                    if (canCastle(grid.getTile(BLACK_PIECE_ROW, LEFT_ROOK_START_COLUMN), false)) {
+                        key ^= CASTLE_KEYS[2];
+                    }
+                    if (canCastle(grid.getTile(BLACK_PIECE_ROW, RIGHT_ROOK_START_COLUMN), false)) {
+                        key ^= CASTLE_KEYS[3];
+                    }
+                    break;
+                }
+                case 1: {
+                    key ^= KING_KEYS[2];
+                    break;
+                }
+                default: {
+                    key ^= KING_KEYS[3];
+                }
+            }
+        }
+        //only the enemy pawn that just moved can be captured en passant
+        final int row = whiteToMove ? BLACK_PAWN_DOUBLE_JUMP_ROW : WHITE_PAWN_DOUBLE_JUMP_ROW;
+        for (int column = 0; column != LENGTH; ++column) {
+            Piece piece = grid.getTile(row, column).getOccupant();
+            if (piece != null && piece.justMadeDoubleJump() && piece.isWhite() != whiteToMove) {
+                key ^= EN_PASSANT_KEYS[column];
+                break;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Gets the key of everything the evaluation functions look at, which is
+     * the placement hash of the grid combined with how often each King has
+     * moved. Unlike the full key it does not depend on the side to move.
+     *
+     * @param board The board.
+     * @return The evaluation key of the position.
+     */
+    public static long getEvaluationKey(Board board) {
+        long key = board.grid.hash;
+        switch (board.whiteKing.getMoveCount()) {
+            case 0: {
+                break;
+            }
+            case 1: {
+                key ^= KING_KEYS[0];
+                break;
+            }
+            default: {
+                key ^= KING_KEYS[1];
+            }
+        }
+        switch (board.blackKing.getMoveCount()) {
+            case 0: {
+                break;
+            }
+            case 1: {
+                key ^= KING_KEYS[2];
+                break;
+            }
+            default: {
+                key ^= KING_KEYS[3];
+            }
+        }
+        return key;
+    }
+
+    private static boolean canCastle(Tile rookTile, boolean white) {
+        Piece rook = rookTile.getOccupant();
+        return rook != null && rook.isRook() && rook.isWhite() == white && !rook.hasMoved();
+    }
+}
@@ -0,0 +1,314 @@
+package FastAI;
+
+import static Util.ChessConstants.LENGTH;
+import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.getColumn;
+import static Util.ChessConstants.getRow;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Precomputed attack tables for every piece. All methods take a tile index
+ * from [0] to [63] (upper left to lower right, like {@link BitBoard}) and
+ * return the attacked tiles as bits in the same layout as
+ * {@link BitBoard#getBits()}, where tile n is bit (63 - n). Nothing is
+ * allocated after the tables are built.
+ *
+ * Rook and Bishop attacks use fancy magic bitboards: the occupied tiles that
+ * can block a slider are multiplied by a magic number, whose top bits then
+ * index that tile's part of a shared table. The magic numbers were found by
+ * {@link #findMagic}, run {@link #main} to check them.
+ *
+ * @author zwill
+ */
+public final class Attacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[LINEAR_LENGTH];
+    private static final long[] ROOK_MAGICS = {
+        0x8010808400450026L, 0x0000482210009104L, 0x0022000481106802L, 0x82C3000210080085L,
+        0x000100841000200BL, 0x2001020A40122001L, 0x04010994C0008021L, 0x6000210010800041L,
+        0x000A110784084200L, 0x0020014810020400L, 0x0402000884906200L, 0x1208040008018180L,
+        0x0000100008210100L, 0x0130082000108080L, 0x0100902041060600L, 0x00003280004B0100L,
+        0x1118004100820004L, 0x8842010210040008L, 0x0004040002008080L, 0x0548008004008008L,
+        0x8010008008008010L, 0x8480100020008080L, 0x2900200050054000L, 0x0000400080208000L,
+        0x8340824122001284L, 0x8000100104000208L, 0x2504800200800400L, 0x2000800400800801L,
+        0x0480100080800804L, 0x0080801000802000L, 0x0000201000400044L, 0x2400400020800082L,
+        0x00900102000E5084L, 0x0000100402080200L, 0x000E000200080410L, 0x1080040080800800L,
+        0x0000080080100080L, 0x0012110500200040L, 0x0200200280400280L, 0x0070401080002082L,
+        0x10000A001C004081L, 0x0904040010214228L, 0x0081010002080400L, 0x1000828004000801L,
+        0x0000808008001000L, 0xA000888010022002L, 0x0640818020014000L, 0x2080004000402000L,
+        0x020A000400412082L, 0x0084000801021004L, 0x2010800400808200L, 0x0808808008000400L,
+        0x8002000812004020L, 0x210D004110200100L, 0x0024808040002000L, 0x0000802040008000L,
+        0x0100038040221100L, 0x04000820A1100402L, 0x0A00040200900108L, 0x0280240002801800L,
+        0x1200060020084010L, 0x2080200010008008L, 0x0140200010004000L, 0x0080104000208000L
+    };
+    private static final int[] ROOK_SHIFTS = new int[LINEAR_LENGTH];
+    private static final int[] ROOK_OFFSETS = new int[LINEAR_LENGTH];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[LINEAR_LENGTH];
+    private static final long[] BISHOP_MAGICS = {
+        0x021C441002220050L, 0x4000400408008905L, 0x8000001082500440L, 0x4002082420C20488L,
+        0x0000000020460810L, 0xC100014202010483L, 0x1C209204840C5212L, 0x8102002401041004L,
+        0x0812100422888000L, 0x0060040408444004L, 0x4805080358020000L, 0x1100851002021200L,
+        0x2101000020880805L, 0x02B8082402082000L, 0x0009040084840640L, 0x0090881802101840L,
+        0xCA41011602010290L, 0x0010500220800041L, 0x0002240800200200L, 0xA010204414000040L,
+        0x0843064202002020L, 0x0001008040410400L, 0x0B04809820200841L, 0x00008804C0001118L,
+        0x0801086504020100L, 0x1004080E10208480L, 0x0102285200010081L, 0x8201010400020021L,
+        0x4209820080480080L, 0xD002030400408224L, 0x4A04040201601A60L, 0x0084044000049000L,
+        0x200C084000846410L, 0x0020A40000844400L, 0x0700860100881400L, 0x0000840018802004L,
+        0x0010040408401020L, 0x0024280910004841L, 0x09020284A0480220L, 0x00924010200404C0L,
+        0x0400813022011000L, 0x0400804222103A04L, 0x5019004200431C40L, 0x0009000290400400L,
+        0x0014000804109400L, 0x0808001010224610L, 0x0030800912080040L, 0x0010826022100130L,
+        0x0800C20046181540L, 0x1008040212222064L, 0x4008808210420210L, 0x8020020210290000L,
+        0x2000280481080001L, 0x0108901102102091L, 0x0000200802085048L, 0x2021091021080900L,
+        0x0002240904104200L, 0x8006009084304000L, 0x2062011008400000L, 0x0004504008010010L,
+        0x0310890200080020L, 0x0104010226010000L, 0x0621C10101010000L, 0x0440210424008020L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[LINEAR_LENGTH];
+    private static final int[] BISHOP_OFFSETS = new int[LINEAR_LENGTH];
+    private static final long[] BISHOP_ATTACKS;
+
+    private static final long[] KNIGHT_ATTACKS = new long[LINEAR_LENGTH];
+    private static final long[] KING_ATTACKS = new long[LINEAR_LENGTH];
+    private static final long[] WHITE_PAWN_ATTACKS = new long[LINEAR_LENGTH];
+    private static final long[] BLACK_PAWN_ATTACKS = new long[LINEAR_LENGTH];
+
+    //[from][to], tiles strictly between 2 tiles on the same line
+    private static final long[][] BETWEEN = new long[LINEAR_LENGTH][LINEAR_LENGTH];
+
+    static {
+        ROOK_ATTACKS = initSlider(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_ATTACKS = initSlider(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            KNIGHT_ATTACKS[index] = getSteps(index, KNIGHT_STEPS);
+            KING_ATTACKS[index] = getSteps(index, KING_STEPS);
+            //White Pawns move up, Black Pawns move down
+            WHITE_PAWN_ATTACKS[index] = getSteps(index, new int[][]{{-1, -1}, {-1, 1}});
+            BLACK_PAWN_ATTACKS[index] = getSteps(index, new int[][]{{1, -1}, {1, 1}});
+            initBetween(index, ROOK_DIRECTIONS);
+            initBetween(index, BISHOP_DIRECTIONS);
+        }
+    }
+
+    private Attacks() {
+
+    }
+
+    public static final long getRookAttacks(final int index, final long occupied) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[index] + (int) (((occupied & ROOK_MASKS[index]) * ROOK_MAGICS[index]) >>> ROOK_SHIFTS[index])];
+    }
+
+    public static final long getBishopAttacks(final int index, final long occupied) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[index] + (int) (((occupied & BISHOP_MASKS[index]) * BISHOP_MAGICS[index]) >>> BISHOP_SHIFTS[index])];
+    }
+
+    public static final long getQueenAttacks(final int index, final long occupied) {
+        return getRookAttacks(index, occupied) | getBishopAttacks(index, occupied);
+    }
+
+    public static final long getKnightAttacks(final int index) {
+        return KNIGHT_ATTACKS[index];
+    }
+
+    public static final long getKingAttacks(final int index) {
+        return KING_ATTACKS[index];
+    }
+
+    public static final long getPawnAttacks(final int index, final boolean color) {
+        return color ? WHITE_PAWN_ATTACKS[index] : BLACK_PAWN_ATTACKS[index];
+    }
+
+    /**
+     * Gets the tiles strictly between 2 tiles.
+     *
+     * @param from The first tile index.
+     * @param to The second tile index.
+     * @return The tiles between, 0 if the tiles do not share a row, column or
+     * diagonal.
+     */
+    public static final long getBetween(final int from, final int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static final long getBit(final int index) {
+        return 1L << (LINEAR_LENGTH - 1 - index);
+    }
+
+    /**
+     * Gets the tile index of the lowest bit of a bitboard, as the bits are
+     * reversed this is the highest tile index. Clearing the lowest bit with
+     * {@code bitboard & (bitboard - 1)} moves on to the next tile.
+     *
+     * @param bitboard A bitboard with at least 1 bit set.
+     * @return The tile index.
+     */
+    public static final int getIndex(final long bitboard) {
+        return LINEAR_LENGTH - 1 - Long.numberOfTrailingZeros(bitboard);
+    }
+
+    private static void initBetween(int index, int[][] directions) {
+        final int row = getRow(index);
+        final int column = getColumn(index);
+        for (int[] direction : directions) {
+            long between = 0L;
+            for (int nextRow = row + direction[0], nextColumn = column + direction[1];
+                    nextRow >= 0 && nextRow < LENGTH && nextColumn >= 0 && nextColumn < LENGTH;
+                    nextRow += direction[0], nextColumn += direction[1]) {
+                BETWEEN[index][(nextRow << 3) + nextColumn] = between;
+                between |= getBit(nextRow, nextColumn);
+            }
+        }
+    }
+
+    //bit of a tile, in BitBoard layout
+    private static long getBit(int row, int column) {
+        return 1L << (LINEAR_LENGTH - 1 - ((row << 3) + column));
+    }
+
+    private static long getSteps(int index, int[][] steps) {
+        final int row = getRow(index);
+        final int column = getColumn(index);
+        long bitboard = 0L;
+        for (int[] step : steps) {
+            final int nextRow = row + step[0];
+            final int nextColumn = column + step[1];
+            if (nextRow >= 0 && nextRow < LENGTH && nextColumn >= 0 && nextColumn < LENGTH) {
+                bitboard |= getBit(nextRow, nextColumn);
+            }
+        }
+        return bitboard;
+    }
+
+    /**
+     * Walks every direction of a slider until the first occupied tile, which
+     * is included. Slow, only used to fill the tables.
+     */
+    private static long getRays(int index, long occupied, int[][] directions) {
+        final int row = getRow(index);
+        final int column = getColumn(index);
+        long bitboard = 0L;
+        for (int[] direction : directions) {
+            for (int nextRow = row + direction[0], nextColumn = column + direction[1];
+                    nextRow >= 0 && nextRow < LENGTH && nextColumn >= 0 && nextColumn < LENGTH;
+                    nextRow += direction[0], nextColumn += direction[1]) {
+                final long bit = getBit(nextRow, nextColumn);
+                bitboard |= bit;
+                if ((occupied & bit) != 0L) {
+                    break;
+                }
+            }
+        }
+        return bitboard;
+    }
+
+    //tiles whose occupancy changes the attacks of a slider, the last tile of a ray never does
+    private static long getMask(int index, int[][] directions) {
+        final int row = getRow(index);
+        final int column = getColumn(index);
+        long bitboard = 0L;
+        for (int[] direction : directions) {
+            for (int nextRow = row + direction[0], nextColumn = column + direction[1];
+                    nextRow + direction[0] >= 0 && nextRow + direction[0] < LENGTH && nextColumn + direction[1] >= 0 && nextColumn + direction[1] < LENGTH;
+                    nextRow += direction[0], nextColumn += direction[1]) {
+                bitboard |= getBit(nextRow, nextColumn);
+            }
+        }
+        return bitboard;
+    }
+
+    private static long[] initSlider(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            masks[index] = getMask(index, directions);
+            shifts[index] = LINEAR_LENGTH - Long.bitCount(masks[index]);
+            offsets[index] = size;
+            size += 1 << Long.bitCount(masks[index]);
+        }
+        final long[] attacks = new long[size];
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            final long mask = masks[index];
+            //enumerate every subset of the mask
+            long subset = 0L;
+            do {
+                final int key = offsets[index] + (int) ((subset * magics[index]) >>> shifts[index]);
+                final long rays = getRays(index, subset, directions);
+                if (attacks[key] != 0L && attacks[key] != rays) {
+                    throw new Error("Invalid Magic: " + magics[index]);
+                }
+                attacks[key] = rays;
+                subset = (subset - mask) & mask;
+            }
+            while (subset != 0L);
+        }
+        return attacks;
+    }
+
+    /**
+     * Searches for a magic number that maps every blocker subset of a tile to
+     * a table index without destructive collisions.
+     *
+     * @param index The tile index.
+     * @param directions The directions the slider moves in.
+     * @param random The source of candidate numbers.
+     * @return The magic number.
+     */
+    static long findMagic(int index, int[][] directions, Random random) {
+        final long mask = getMask(index, directions);
+        final int bits = Long.bitCount(mask);
+        final long[] occupancies = new long[1 << bits];
+        final long[] references = new long[1 << bits];
+        int count = 0;
+        long subset = 0L;
+        do {
+            occupancies[count] = subset;
+            references[count++] = getRays(index, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+        while (subset != 0L);
+
+        final long[] used = new long[1 << bits];
+        Search:
+        while (true) {
+            //sparse random numbers make good magics
+            final long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) >>> (LINEAR_LENGTH - 8)) < 6) {
+                continue;
+            }
+            Arrays.fill(used, 0L);
+            for (int next = 0; next != count; ++next) {
+                final int key = (int) ((occupancies[next] * magic) >>> (LINEAR_LENGTH - bits));
+                //attacks are never empty, so 0 marks an unused entry
+                if (used[key] == 0L) {
+                    used[key] = references[next];
+                }
+                else if (used[key] != references[next]) {
+                    continue Search;
+                }
+            }
+            return magic;
+        }
+    }
+
+    public static void main(String[] args) {
+        final Random random = new Random();
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            for (int test = 0; test != 10000; ++test) {
+                final long occupied = random.nextLong() & random.nextLong();
+                if (getRookAttacks(index, occupied) != getRays(index, occupied, ROOK_DIRECTIONS)
+                        || getBishopAttacks(index, occupied) != getRays(index, occupied, BISHOP_DIRECTIONS)) {
+                    throw new Error("Slider attacks wrong at " + index + ": " + occupied);
+                }
+            }
+        }
+        System.out.println("Rook table size: " + ROOK_ATTACKS.length + " Bishop table size: " + BISHOP_ATTACKS.length);
+        System.out.println("Rook at 27, empty board:\n" + Board.toBitBoardString(getRookAttacks(27, 0L)));
+        System.out.println("Knight at 0:\n" + Board.toBitBoardString(getKnightAttacks(0)));
+        System.out.println("White Pawn at 52:\n" + Board.toBitBoardString(getPawnAttacks(52, true)));
+    }
+}
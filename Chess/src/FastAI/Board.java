@@ -1,20 +1,30 @@
 package FastAI;
 
 import Util.ChessConstants;
+import static Util.ChessConstants.BISHOP_ORDINAL;
 import static Util.ChessConstants.BISHOP_PREFIX;
+import static Util.ChessConstants.BLACK_ENPASSANT_ROW;
 import static Util.ChessConstants.BLACK_PREFIX;
+import static Util.ChessConstants.KING_ORDINAL;
 import static Util.ChessConstants.KING_PREFIX;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
 import static Util.ChessConstants.KNIGHT_PREFIX;
 import static Util.ChessConstants.LENGTH;
 import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.PAWN_ORDINAL;
 import static Util.ChessConstants.PAWN_PREFIX;
+import static Util.ChessConstants.QUEEN_ORDINAL;
 import static Util.ChessConstants.QUEEN_PREFIX;
+import static Util.ChessConstants.ROOK_ORDINAL;
 import static Util.ChessConstants.ROOK_PREFIX;
+import static Util.ChessConstants.getColumn;
+import static Util.ChessConstants.getLocation;
+import static Util.ChessConstants.getRow;
+import static Util.ChessConstants.WHITE_ENPASSANT_ROW;
 import static Util.ChessConstants.WHITE_PREFIX;
-import java.awt.geom.Point2D;
+import Util.Fen;
+import Util.LongLongMap;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class Board {
     
@@ -55,6 +65,16 @@ public final class Board {
     final BitBoard whiteProtections; //must intialize manually
     final BitBoard blackProtections; //must initialize manually
 
+    //piece bitboards of each color, indexed by ordinal
+    private final BitBoard[] whiteBoards;
+    private final BitBoard[] blackBoards;
+
+    //[tile], where a pinned piece may move: the tiles up to and including its pinner
+    private final long[] pinRays = new long[LINEAR_LENGTH];
+
+    //[ply][move], move lists of perft
+    private int[][] perftMoves = new int[0][];
+
     public Board() {
         whitePawns =       new BitBoard(0b00000000_00000000_00000000_00000000_00000000_00000000_11111111_00000000L);
         whiteKnights =     new BitBoard(0b00000000_00000000_00000000_00000000_00000000_00000000_00000000_01000010L);
@@ -80,6 +100,9 @@ public final class Board {
         
         whiteProtections = new BitBoard(0b00000000_00000000_00000000_00000000_00000000_11111111_11111111_11111111L);
         blackProtections = new BitBoard(0b11111111_11111111_11111111_00000000_00000000_00000000_00000000_00000000L);
+
+        whiteBoards = new BitBoard[]{whitePawns, whiteKnights, whiteBishops, whiteRooks, whiteQueens, whiteKings};
+        blackBoards = new BitBoard[]{blackPawns, blackKnights, blackBishops, blackRooks, blackQueens, blackKings};
     }
 
     public Board(Board grid) {
@@ -105,6 +128,486 @@ public final class Board {
         
         whiteProtections = grid.whiteProtections.clone();
         blackProtections = grid.blackProtections.clone();
+
+        pawnsDoubleJumped.setBits(grid.pawnsDoubleJumped.getBits());
+
+        whiteBoards = new BitBoard[]{whitePawns, whiteKnights, whiteBishops, whiteRooks, whiteQueens, whiteKings};
+        blackBoards = new BitBoard[]{blackPawns, blackKnights, blackBishops, blackRooks, blackQueens, blackKings};
+    }
+
+    /**
+     * Removes every piece from this Board, so that a position can be set up
+     * with {@link #setPiece(int, int, boolean, int)}.
+     */
+    public void clear() {
+        for (int ordinal = PAWN_ORDINAL; ordinal <= KING_ORDINAL; ++ordinal) {
+            whiteBoards[ordinal].clear();
+            blackBoards[ordinal].clear();
+        }
+        whitePieces.clear();
+        blackPieces.clear();
+        pieces.clear();
+        pawnsDoubleJumped.clear();
+        whiteProtections.clear();
+        blackProtections.clear();
+        Arrays.fill(moveCounts, 0);
+    }
+
+    /**
+     * Places a piece on an empty tile.
+     *
+     * @param index The tile index, [0] to [63].
+     * @param ordinal The ordinal of the piece.
+     * @param color The color of the piece, true for white.
+     * @param moveCount The number of times the piece has moved.
+     */
+    public void setPiece(int index, int ordinal, boolean color, int moveCount) {
+        if (index < 0 || index >= LINEAR_LENGTH) {
+            throw new IllegalArgumentException("Invalid Index: " + index);
+        }
+        if (ordinal < PAWN_ORDINAL || ordinal > KING_ORDINAL) {
+            throw new IllegalArgumentException("Invalid Ordinal: " + ordinal);
+        }
+        if (pieces.isBitSet(index)) {
+            throw new IllegalArgumentException("Occupied Index: " + index);
+        }
+        (color ? whiteBoards : blackBoards)[ordinal].setBit(index);
+        (color ? whitePieces : blackPieces).setBit(index);
+        pieces.setBit(index);
+        moveCounts[index] = moveCount;
+    }
+
+    /**
+     * Marks the Pawn on a tile as having just made a double jump, so the
+     * enemy may capture it en passant.
+     *
+     * @param index The tile index of the Pawn.
+     */
+    public void setDoubleJumped(int index) {
+        if (!whitePawns.isBitSet(index) && !blackPawns.isBitSet(index)) {
+            throw new IllegalArgumentException("Invalid Index: " + index);
+        }
+        pawnsDoubleJumped.setBits(Attacks.getBit(index));
+    }
+
+    /**
+     * Replaces the pieces on this Board with those of a position read from
+     * FEN.
+     *
+     * @param position The position.
+     */
+    public void setPosition(Fen position) {
+        clear();
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            if (position.isOccupied(index)) {
+                setPiece(index, position.getOrdinal(index), position.isWhite(index), position.getMoveCount(index));
+            }
+        }
+        if (position.getDoubleJumped() >= 0) {
+            setDoubleJumped(position.getDoubleJumped());
+        }
+    }
+
+    /**
+     * Gets the position on this Board, so it can be written as FEN.
+     *
+     * @param color The side to move, true for white.
+     * @return The position.
+     */
+    public Fen getPosition(boolean color) {
+        final Fen position = new Fen();
+        position.setWhiteToMove(color);
+        for (int index = 0; index != LINEAR_LENGTH; ++index) {
+            final long bit = Attacks.getBit(index);
+            if (whitePieces.isBitSet(index)) {
+                position.setPiece(index, getOrdinal(whiteBoards, bit), true, moveCounts[index]);
+            }
+            else if (blackPieces.isBitSet(index)) {
+                position.setPiece(index, getOrdinal(blackBoards, bit), false, moveCounts[index]);
+            }
+            if ((pawnsDoubleJumped.getBits() & bit) != 0L) {
+                position.setDoubleJumped(index);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Generates every legal move of a side.
+     *
+     * The checkers, pinned pieces and the tiles that resolve a check are
+     * worked out once up front, so each generated move is legal as it is and
+     * never has to be made and tested for leaving the King in check. Castling
+     * follows the rules of the Engine: the King and Rook must not have moved,
+     * the King must not be in check and the tiles between them must be empty
+     * and not attacked.
+     *
+     * @param color The side to move, true for white.
+     * @param moves Receives the moves packed by {@link Moves}, must hold
+     * {@link Moves#MAX_MOVES} moves.
+     * @return The number of moves.
+     */
+    public int generateMoves(final boolean color, final int[] moves) {
+        final BitBoard[] allies = color ? whiteBoards : blackBoards;
+        final BitBoard[] enemies = color ? blackBoards : whiteBoards;
+        final long allyPieces = (color ? whitePieces : blackPieces).getBits();
+        final long occupied = pieces.getBits();
+        final long kingBit = allies[KING_ORDINAL].getBits();
+        final int king = Attacks.getIndex(kingBit);
+
+        final long enemyStraights = enemies[ROOK_ORDINAL].getBits() | enemies[QUEEN_ORDINAL].getBits();
+        final long enemyDiagonals = enemies[BISHOP_ORDINAL].getBits() | enemies[QUEEN_ORDINAL].getBits();
+
+        //sliders see through the King, so it cannot step back along a checking ray
+        final long attacked = getAttacks(enemies, !color, occupied ^ kingBit);
+        final long checkers = getAttackers(king, color, occupied, enemies);
+
+        int size = addMoves(king, KING_ORDINAL, Attacks.getKingAttacks(king) & ~allyPieces & ~attacked, enemies, moves, 0);
+
+        //only the King can escape a double check
+        if (Long.bitCount(checkers) > 1) {
+            return size;
+        }
+
+        //tiles that block or capture the checker
+        long targets = ~allyPieces;
+        if (checkers != 0L) {
+            targets &= checkers | Attacks.getBetween(king, Attacks.getIndex(checkers));
+        }
+
+        long pinned = 0L;
+        for (long snipers = (Attacks.getRookAttacks(king, 0L) & enemyStraights) | (Attacks.getBishopAttacks(king, 0L) & enemyDiagonals); snipers != 0L; snipers &= snipers - 1) {
+            final int sniper = Attacks.getIndex(snipers);
+            final long between = Attacks.getBetween(king, sniper);
+            final long blockers = between & occupied;
+            if ((blockers & allyPieces) != 0L && Long.bitCount(blockers) == 1) {
+                pinned |= blockers;
+                pinRays[Attacks.getIndex(blockers)] = between | Attacks.getBit(sniper);
+            }
+        }
+
+        //pinned Knights can never move
+        for (long knights = allies[KNIGHT_ORDINAL].getBits() & ~pinned; knights != 0L; knights &= knights - 1) {
+            final int from = Attacks.getIndex(knights);
+            size = addMoves(from, KNIGHT_ORDINAL, Attacks.getKnightAttacks(from) & targets, enemies, moves, size);
+        }
+        for (int ordinal = BISHOP_ORDINAL; ordinal <= QUEEN_ORDINAL; ++ordinal) {
+            for (long sliders = allies[ordinal].getBits(); sliders != 0L; sliders &= sliders - 1) {
+                final int from = Attacks.getIndex(sliders);
+                long attacks = (ordinal == BISHOP_ORDINAL) ? Attacks.getBishopAttacks(from, occupied)
+                        : (ordinal == ROOK_ORDINAL) ? Attacks.getRookAttacks(from, occupied)
+                                : Attacks.getQueenAttacks(from, occupied);
+                if ((pinned & Attacks.getBit(from)) != 0L) {
+                    attacks &= pinRays[from];
+                }
+                size = addMoves(from, ordinal, attacks & targets, enemies, moves, size);
+            }
+        }
+
+        final long enemyPieces = (color ? blackPieces : whitePieces).getBits();
+        final int forward = color ? -LENGTH : LENGTH;
+        final int promotionRow = color ? 0 : LENGTH - 1;
+        for (long pawns = allies[PAWN_ORDINAL].getBits(); pawns != 0L; pawns &= pawns - 1) {
+            final int from = Attacks.getIndex(pawns);
+            final long allowed = ((pinned & Attacks.getBit(from)) != 0L) ? (targets & pinRays[from]) : targets;
+            final int next = from + forward;
+            if ((occupied & Attacks.getBit(next)) == 0L) {
+                if ((allowed & Attacks.getBit(next)) != 0L) {
+                    size = addPawnMove(from, next, Moves.NONE, promotionRow, moves, size);
+                }
+                final int jump = next + forward;
+                if (moveCounts[from] == 0 && jump >= 0 && jump < LINEAR_LENGTH
+                        && (occupied & Attacks.getBit(jump)) == 0L && (allowed & Attacks.getBit(jump)) != 0L) {
+                    moves[size++] = Moves.createDoubleJump(from, jump);
+                }
+            }
+            for (long captures = Attacks.getPawnAttacks(from, color) & enemyPieces & allowed; captures != 0L; captures &= captures - 1) {
+                final int to = Attacks.getIndex(captures);
+                size = addPawnMove(from, to, getOrdinal(enemies, Attacks.getBit(to)), promotionRow, moves, size);
+            }
+        }
+
+        final long jumped = pawnsDoubleJumped.getBits() & enemies[PAWN_ORDINAL].getBits();
+        //like the Engine, only Pawns on the en passant row may capture en passant,
+        //even though a Pawn that has not moved may double jump from any row
+        if (jumped != 0L && getRow(Attacks.getIndex(jumped)) == (color ? WHITE_ENPASSANT_ROW : BLACK_ENPASSANT_ROW)) {
+            final int victim = Attacks.getIndex(jumped);
+            final int to = victim + forward;
+            if ((occupied & Attacks.getBit(to)) == 0L) {
+                final int column = getColumn(victim);
+                if (column > 0) {
+                    size = addEnPassant(victim - 1, to, victim, king, color, occupied, enemies, moves, size);
+                }
+                if (column < LENGTH - 1) {
+                    size = addEnPassant(victim + 1, to, victim, king, color, occupied, enemies, moves, size);
+                }
+            }
+        }
+
+        final int row = color ? LENGTH - 1 : 0;
+        if (checkers == 0L && moveCounts[king] == 0 && getRow(king) == row) {
+            final long rooks = allies[ROOK_ORDINAL].getBits();
+            final int leftRook = getLocation(row, 0);
+            if ((rooks & Attacks.getBit(leftRook)) != 0L && moveCounts[leftRook] == 0) {
+                final long path = Attacks.getBit(leftRook + 1) | Attacks.getBit(leftRook + 2) | Attacks.getBit(leftRook + 3);
+                if ((path & (occupied | attacked)) == 0L) {
+                    moves[size++] = Moves.createCastle(king, leftRook + 2);
+                }
+            }
+            final int rightRook = getLocation(row, LENGTH - 1);
+            if ((rooks & Attacks.getBit(rightRook)) != 0L && moveCounts[rightRook] == 0) {
+                final long path = Attacks.getBit(rightRook - 1) | Attacks.getBit(rightRook - 2);
+                if ((path & (occupied | attacked)) == 0L) {
+                    moves[size++] = Moves.createCastle(king, rightRook - 1);
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Makes a move generated by {@link #generateMoves(boolean, int[])}.
+     *
+     * @param move The packed move.
+     * @param color The side making the move, true for white.
+     * @return What {@link #unmakeMove(int, boolean, long)} needs to take the
+     * move back.
+     */
+    public long makeMove(final int move, final boolean color) {
+        final int from = Moves.getFrom(move);
+        final int to = Moves.getTo(move);
+        final int piece = Moves.getPiece(move);
+        final int captured = Moves.getCaptured(move);
+        final int promotion = Moves.getPromotion(move);
+        final int type = Moves.getType(move);
+        final long fromBit = Attacks.getBit(from);
+        final long toBit = Attacks.getBit(to);
+        final BitBoard[] allies = color ? whiteBoards : blackBoards;
+        final BitBoard allyPieces = color ? whitePieces : blackPieces;
+
+        //captured tile, differs from the destination for en passant
+        final int victim = (type == Moves.EN_PASSANT) ? (to + (color ? LENGTH : -LENGTH)) : to;
+        final long undo = (pawnsDoubleJumped.getBits() == 0L ? 0L : Attacks.getIndex(pawnsDoubleJumped.getBits()) + 1L)
+                | ((long) moveCounts[from] << UNDO_COUNT_BITS)
+                | ((long) moveCounts[victim] << (UNDO_COUNT_BITS << 1));
+
+        if (captured != Moves.NONE) {
+            final long victimBit = Attacks.getBit(victim);
+            final BitBoard enemy = (color ? blackBoards : whiteBoards)[captured];
+            enemy.setBits(enemy.getBits() ^ victimBit);
+            final BitBoard enemyPieces = color ? blackPieces : whitePieces;
+            enemyPieces.setBits(enemyPieces.getBits() ^ victimBit);
+            moveCounts[victim] = 0;
+        }
+        if (promotion == Moves.NONE) {
+            allies[piece].setBits(allies[piece].getBits() ^ fromBit ^ toBit);
+        }
+        else {
+            allies[PAWN_ORDINAL].setBits(allies[PAWN_ORDINAL].getBits() ^ fromBit);
+            allies[promotion].setBits(allies[promotion].getBits() ^ toBit);
+        }
+        allyPieces.setBits(allyPieces.getBits() ^ fromBit ^ toBit);
+        moveCounts[to] = moveCounts[from] + 1;
+        moveCounts[from] = 0;
+
+        if (type == Moves.CASTLE) {
+            final int rookFrom = (to > from) ? (to + 1) : (to - 2);
+            final int rookTo = (to > from) ? (to - 1) : (to + 1);
+            final long rookBits = Attacks.getBit(rookFrom) ^ Attacks.getBit(rookTo);
+            allies[ROOK_ORDINAL].setBits(allies[ROOK_ORDINAL].getBits() ^ rookBits);
+            allyPieces.setBits(allyPieces.getBits() ^ rookBits);
+            moveCounts[rookTo] = moveCounts[rookFrom] + 1;
+            moveCounts[rookFrom] = 0;
+        }
+
+        pawnsDoubleJumped.setBits((type == Moves.DOUBLE_JUMP) ? toBit : 0L);
+        pieces.setBits(whitePieces.getBits() | blackPieces.getBits());
+        return undo;
+    }
+
+    /**
+     * Takes back the last move made by {@link #makeMove(int, boolean)}.
+     *
+     * @param move The packed move.
+     * @param color The side that made the move, true for white.
+     * @param undo The value makeMove returned.
+     */
+    public void unmakeMove(final int move, final boolean color, final long undo) {
+        final int from = Moves.getFrom(move);
+        final int to = Moves.getTo(move);
+        final int piece = Moves.getPiece(move);
+        final int captured = Moves.getCaptured(move);
+        final int promotion = Moves.getPromotion(move);
+        final int type = Moves.getType(move);
+        final long fromBit = Attacks.getBit(from);
+        final long toBit = Attacks.getBit(to);
+        final BitBoard[] allies = color ? whiteBoards : blackBoards;
+        final BitBoard allyPieces = color ? whitePieces : blackPieces;
+
+        if (type == Moves.CASTLE) {
+            final int rookFrom = (to > from) ? (to + 1) : (to - 2);
+            final int rookTo = (to > from) ? (to - 1) : (to + 1);
+            final long rookBits = Attacks.getBit(rookFrom) ^ Attacks.getBit(rookTo);
+            allies[ROOK_ORDINAL].setBits(allies[ROOK_ORDINAL].getBits() ^ rookBits);
+            allyPieces.setBits(allyPieces.getBits() ^ rookBits);
+            moveCounts[rookFrom] = moveCounts[rookTo] - 1;
+            moveCounts[rookTo] = 0;
+        }
+
+        if (promotion == Moves.NONE) {
+            allies[piece].setBits(allies[piece].getBits() ^ fromBit ^ toBit);
+        }
+        else {
+            allies[PAWN_ORDINAL].setBits(allies[PAWN_ORDINAL].getBits() ^ fromBit);
+            allies[promotion].setBits(allies[promotion].getBits() ^ toBit);
+        }
+        allyPieces.setBits(allyPieces.getBits() ^ fromBit ^ toBit);
+        moveCounts[from] = (int) ((undo >>> UNDO_COUNT_BITS) & UNDO_COUNT_MASK);
+        moveCounts[to] = 0;
+
+        if (captured != Moves.NONE) {
+            final int victim = (type == Moves.EN_PASSANT) ? (to + (color ? LENGTH : -LENGTH)) : to;
+            final long victimBit = Attacks.getBit(victim);
+            final BitBoard enemy = (color ? blackBoards : whiteBoards)[captured];
+            enemy.setBits(enemy.getBits() ^ victimBit);
+            final BitBoard enemyPieces = color ? blackPieces : whitePieces;
+            enemyPieces.setBits(enemyPieces.getBits() ^ victimBit);
+            moveCounts[victim] = (int) ((undo >>> (UNDO_COUNT_BITS << 1)) & UNDO_COUNT_MASK);
+        }
+
+        final int jumped = (int) (undo & UNDO_JUMP_MASK);
+        pawnsDoubleJumped.setBits((jumped == 0) ? 0L : Attacks.getBit(jumped - 1));
+        pieces.setBits(whitePieces.getBits() | blackPieces.getBits());
+    }
+
+    /**
+     * Determines whether the King of a side is attacked.
+     *
+     * @param color The side, true for white.
+     * @return True if the King is in check.
+     */
+    public boolean inCheck(final boolean color) {
+        final BitBoard[] allies = color ? whiteBoards : blackBoards;
+        return getAttackers(Attacks.getIndex(allies[KING_ORDINAL].getBits()), color, pieces.getBits(), color ? blackBoards : whiteBoards) != 0L;
+    }
+
+    /**
+     * Counts the leaf positions of the legal move tree, should match
+     * {@link Engine.Tester#perft(Engine.Grid, int, boolean)}.
+     *
+     * @param depth The number of ply to play out.
+     * @param color The side to move, true for white.
+     * @return The number of positions reached after exactly depth ply.
+     */
+    public long perft(final int depth, final boolean color) {
+        if (perftMoves.length < depth) {
+            perftMoves = new int[depth][Moves.MAX_MOVES];
+        }
+        return (depth <= 0) ? 1L : perft(depth, color, 0);
+    }
+
+    private long perft(final int depth, final boolean color, final int ply) {
+        final int[] moves = perftMoves[ply];
+        final int size = generateMoves(color, moves);
+        if (depth == 1) {
+            return size;
+        }
+        long nodes = 0L;
+        for (int index = 0; index != size; ++index) {
+            final int move = moves[index];
+            final long undo = makeMove(move, color);
+            nodes += perft(depth - 1, !color, ply + 1);
+            unmakeMove(move, color, undo);
+        }
+        return nodes;
+    }
+
+    private static final int UNDO_COUNT_BITS = 28;
+    private static final long UNDO_COUNT_MASK = (1L << UNDO_COUNT_BITS) - 1;
+    private static final long UNDO_JUMP_MASK = 0x7F;
+
+    //ordinal of the piece on a tile, -1 if none of the given bitboards has it
+    private static int getOrdinal(final BitBoard[] boards, final long bit) {
+        for (int ordinal = PAWN_ORDINAL; ordinal <= KING_ORDINAL; ++ordinal) {
+            if ((boards[ordinal].getBits() & bit) != 0L) {
+                return ordinal;
+            }
+        }
+        return Moves.NONE;
+    }
+
+    //every tile attacked by the given pieces
+    private static long getAttacks(final BitBoard[] boards, final boolean color, final long occupied) {
+        long attacks = 0L;
+        for (long pawns = boards[PAWN_ORDINAL].getBits(); pawns != 0L; pawns &= pawns - 1) {
+            attacks |= Attacks.getPawnAttacks(Attacks.getIndex(pawns), color);
+        }
+        for (long knights = boards[KNIGHT_ORDINAL].getBits(); knights != 0L; knights &= knights - 1) {
+            attacks |= Attacks.getKnightAttacks(Attacks.getIndex(knights));
+        }
+        final long queens = boards[QUEEN_ORDINAL].getBits();
+        for (long diagonals = boards[BISHOP_ORDINAL].getBits() | queens; diagonals != 0L; diagonals &= diagonals - 1) {
+            attacks |= Attacks.getBishopAttacks(Attacks.getIndex(diagonals), occupied);
+        }
+        for (long straights = boards[ROOK_ORDINAL].getBits() | queens; straights != 0L; straights &= straights - 1) {
+            attacks |= Attacks.getRookAttacks(Attacks.getIndex(straights), occupied);
+        }
+        for (long kings = boards[KING_ORDINAL].getBits(); kings != 0L; kings &= kings - 1) {
+            attacks |= Attacks.getKingAttacks(Attacks.getIndex(kings));
+        }
+        return attacks;
+    }
+
+    //enemy pieces attacking a tile, color is the side owning the tile
+    private static long getAttackers(final int index, final boolean color, final long occupied, final BitBoard[] enemies) {
+        final long queens = enemies[QUEEN_ORDINAL].getBits();
+        return (Attacks.getPawnAttacks(index, color) & enemies[PAWN_ORDINAL].getBits())
+                | (Attacks.getKnightAttacks(index) & enemies[KNIGHT_ORDINAL].getBits())
+                | (Attacks.getBishopAttacks(index, occupied) & (enemies[BISHOP_ORDINAL].getBits() | queens))
+                | (Attacks.getRookAttacks(index, occupied) & (enemies[ROOK_ORDINAL].getBits() | queens))
+                | (Attacks.getKingAttacks(index) & enemies[KING_ORDINAL].getBits());
+    }
+
+    private static int addMoves(final int from, final int piece, long targets, final BitBoard[] enemies, final int[] moves, int size) {
+        for (; targets != 0L; targets &= targets - 1) {
+            final int to = Attacks.getIndex(targets);
+            moves[size++] = Moves.create(from, to, piece, getOrdinal(enemies, Attacks.getBit(to)));
+        }
+        return size;
+    }
+
+    private static int addPawnMove(final int from, final int to, final int captured, final int promotionRow, final int[] moves, int size) {
+        if (getRow(to) == promotionRow) {
+            moves[size++] = Moves.createPromotion(from, to, captured, QUEEN_ORDINAL);
+            moves[size++] = Moves.createPromotion(from, to, captured, ROOK_ORDINAL);
+            moves[size++] = Moves.createPromotion(from, to, captured, BISHOP_ORDINAL);
+            moves[size++] = Moves.createPromotion(from, to, captured, KNIGHT_ORDINAL);
+        }
+        else {
+            moves[size++] = Moves.create(from, to, PAWN_ORDINAL, captured);
+        }
+        return size;
+    }
+
+    //the only move whose legality is tested by playing it out, since taking
+    //2 Pawns off the same row may expose the King to a Rook or Queen
+    private int addEnPassant(final int from, final int to, final int victim, final int king, final boolean color, final long occupied, final BitBoard[] enemies, final int[] moves, int size) {
+        final long fromBit = Attacks.getBit(from);
+        if (((color ? whitePawns : blackPawns).getBits() & fromBit) == 0L) {
+            return size;
+        }
+        final long victimBit = Attacks.getBit(victim);
+        final long after = occupied ^ fromBit ^ victimBit ^ Attacks.getBit(to);
+        final long queens = enemies[QUEEN_ORDINAL].getBits();
+        final long attackers = (Attacks.getPawnAttacks(king, color) & enemies[PAWN_ORDINAL].getBits() & ~victimBit)
+                | (Attacks.getKnightAttacks(king) & enemies[KNIGHT_ORDINAL].getBits())
+                | (Attacks.getBishopAttacks(king, after) & (enemies[BISHOP_ORDINAL].getBits() | queens))
+                | (Attacks.getRookAttacks(king, after) & (enemies[ROOK_ORDINAL].getBits() | queens));
+        if (attackers == 0L) {
+            moves[size++] = Moves.createEnPassant(from, to);
+        }
+        return size;
     }
 
     @Override
@@ -296,26 +799,35 @@ public final class Board {
         }
     }
     
-    private static final Map<Point2D.Double, Double> HIST = new HashMap<>();
+    //results by value in the high half and times in the low half
+    private static final LongLongMap HIST = new LongLongMap(1 << 10);
 
     public static double pow(int value, int times) {
-        Point2D.Double entry = new Point2D.Double(value, times);
+        final long entry = ((long) value << 32) | (times & 0xFFFFFFFFL);
         if (HIST.containsKey(entry)) {
-            System.out.println("Read");
-            return HIST.get(entry);
+            return Double.longBitsToDouble(HIST.get(entry, 0L));
         }
         double result = 1.0;
         if (times < 0) {
             for (times = -times; times > 0; --times) {
                 result *= value;
             }
-            HIST.put(entry, result = 1.0 / result);
+            remember(entry, result = 1.0 / result);
             return result;
         }
         for (; times > 0; --times) {
             result *= value;
         }
-        HIST.put(entry, result);
+        remember(entry, result);
         return result;
     }
+
+    private static void remember(long entry, double result) {
+        final long bits = Double.doubleToRawLongBits(result);
+        if (!HIST.put(entry, bits)) {
+            //full, keep only the results used since the cache last filled up
+            HIST.age();
+            HIST.put(entry, bits);
+        }
+    }
 }
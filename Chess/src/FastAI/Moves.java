@@ -0,0 +1,98 @@
+package FastAI;
+
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.PAWN_ORDINAL;
+
+/**
+ * Moves of the FastAI package packed into a single int.
+ *
+ * Layout: bits 0-5 hold the tile the piece moves from, bits 6-11 the tile it
+ * moves to (both [0] to [63] like {@link BitBoard}), bits 12-14 the ordinal of
+ * the moving piece, bits 15-17 the ordinal of the captured piece plus 1 (0 if
+ * nothing is captured), bits 18-20 the ordinal of the promoted piece plus 1 (0
+ * if the move is not a promotion) and bits 21-22 the type of the move.
+ *
+ * @author zwill
+ */
+public final class Moves {
+
+    public static final int NORMAL = 0;
+    public static final int CASTLE = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int DOUBLE_JUMP = 3;
+
+    //ordinal used when a move captures nothing
+    public static final int NONE = -1;
+
+    //no legal chess position has more than 218 moves
+    public static final int MAX_MOVES = 256;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PIECE_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 15;
+    private static final int PROMOTION_SHIFT = 18;
+    private static final int TYPE_SHIFT = 21;
+    private static final int TILE_MASK = 0x3F;
+    private static final int ORDINAL_MASK = 0x7;
+    private static final int TYPE_MASK = 0x3;
+
+    private Moves() {
+
+    }
+
+    public static final int create(int from, int to, int piece, int captured) {
+        return from | (to << TO_SHIFT) | (piece << PIECE_SHIFT) | ((captured + 1) << CAPTURED_SHIFT);
+    }
+
+    public static final int createPromotion(int from, int to, int captured, int promotion) {
+        return create(from, to, PAWN_ORDINAL, captured) | ((promotion + 1) << PROMOTION_SHIFT);
+    }
+
+    public static final int createCastle(int from, int to) {
+        return create(from, to, KING_ORDINAL, NONE) | (CASTLE << TYPE_SHIFT);
+    }
+
+    public static final int createEnPassant(int from, int to) {
+        return create(from, to, PAWN_ORDINAL, PAWN_ORDINAL) | (EN_PASSANT << TYPE_SHIFT);
+    }
+
+    public static final int createDoubleJump(int from, int to) {
+        return create(from, to, PAWN_ORDINAL, NONE) | (DOUBLE_JUMP << TYPE_SHIFT);
+    }
+
+    public static final int getFrom(int move) {
+        return move & TILE_MASK;
+    }
+
+    public static final int getTo(int move) {
+        return (move >>> TO_SHIFT) & TILE_MASK;
+    }
+
+    public static final int getPiece(int move) {
+        return (move >>> PIECE_SHIFT) & ORDINAL_MASK;
+    }
+
+    /**
+     * Gets the ordinal of the piece a move captures.
+     *
+     * @param move The packed move.
+     * @return The ordinal, {@link #NONE} if nothing is captured.
+     */
+    public static final int getCaptured(int move) {
+        return ((move >>> CAPTURED_SHIFT) & ORDINAL_MASK) - 1;
+    }
+
+    /**
+     * Gets the ordinal of the piece a Pawn is promoted to.
+     *
+     * @param move The packed move.
+     * @return The ordinal, {@link #NONE} if the move is not a promotion.
+     */
+    public static final int getPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & ORDINAL_MASK) - 1;
+    }
+
+    public static final int getType(int move) {
+        return (move >>> TYPE_SHIFT) & TYPE_MASK;
+    }
+}
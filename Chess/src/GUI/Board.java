@@ -7,6 +7,7 @@ import static Util.ChessConstants.LINEAR_LENGTH;
 import Util.Constants;
 import Security.DataProtector;
 import Util.History;
+import Util.LongShortMap;
 import Util.Quotes;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -29,7 +30,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import javafx.scene.media.AudioClip;
 import javax.swing.BorderFactory;
@@ -1404,19 +1404,12 @@ public final class Board extends JPanel implements Runnable {
                 for (int index = 0; index != numberOfBlackMoves; ++index) {
                     list.add(blackMoves.get(index));
                 }
-                Map<String, Integer> whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
+                LongShortMap whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
                 list.add(Integer.toString(whiteComputerSelectedPositions.size()));
-                Iterator<String> it = whiteComputerSelectedPositions.keySet().iterator();
-                while (it.hasNext()) {
-                    String position = it.next();
-                    list.add(position + DataProtector.SEPERATOR + whiteComputerSelectedPositions.get(position));
-                }
-                Map<String, Integer> blackComputerSelectedPositions = blackComputer.getSelectedPositions();
+                whiteComputerSelectedPositions.forEach((position, timesSelected) -> list.add(position + DataProtector.SEPERATOR + timesSelected));
+                LongShortMap blackComputerSelectedPositions = blackComputer.getSelectedPositions();
                 list.add(Integer.toString(blackComputerSelectedPositions.size()));
-                for (it = blackComputerSelectedPositions.keySet().iterator(); it.hasNext();) {
-                    String position = it.next();
-                    list.add(position + DataProtector.SEPERATOR + blackComputerSelectedPositions.get(position));
-                }
+                blackComputerSelectedPositions.forEach((position, timesSelected) -> list.add(position + DataProtector.SEPERATOR + timesSelected));
                 return list;
             }
             case WHITE_PLAYER_VS_BLACK_COMPUTER: {
@@ -1435,13 +1428,9 @@ public final class Board extends JPanel implements Runnable {
                 for (int index = 0; index != numberOfBlackMoves; ++index) {
                     list.add(blackMoves.get(index));
                 }
-                Map<String, Integer> blackComputerSelectedPositions = blackComputer.getSelectedPositions();
+                LongShortMap blackComputerSelectedPositions = blackComputer.getSelectedPositions();
                 list.add(Integer.toString(blackComputerSelectedPositions.size()));
-                Iterator<String> it = blackComputerSelectedPositions.keySet().iterator();
-                while (it.hasNext()) {
-                    String position = it.next();
-                    list.add(position + DataProtector.SEPERATOR + blackComputerSelectedPositions.get(position));
-                }
+                blackComputerSelectedPositions.forEach((position, timesSelected) -> list.add(position + DataProtector.SEPERATOR + timesSelected));
                 return list;
             }
             case BLACK_PLAYER_VS_WHITE_COMPUTER: {
@@ -1460,13 +1449,9 @@ public final class Board extends JPanel implements Runnable {
                 for (int index = 0; index != numberOfBlackMoves; ++index) {
                     list.add(blackMoves.get(index));
                 }
-                Map<String, Integer> whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
+                LongShortMap whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
                 list.add(Integer.toString(whiteComputerSelectedPositions.size()));
-                Iterator<String> it = whiteComputerSelectedPositions.keySet().iterator();
-                while (it.hasNext()) {
-                    String position = it.next();
-                    list.add(position + DataProtector.SEPERATOR + whiteComputerSelectedPositions.get(position));
-                }
+                whiteComputerSelectedPositions.forEach((position, timesSelected) -> list.add(position + DataProtector.SEPERATOR + timesSelected));
                 return list;
             }
         }
@@ -1523,19 +1508,17 @@ public final class Board extends JPanel implements Runnable {
                     blackMoves.add(list.get(cursor++));
                 }
                 history.setData(whiteMoves, blackMoves);
-                Map<String, Integer> whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
-                whiteComputerSelectedPositions.clear();
+                whiteComputer.clearGameHistory();
+                LongShortMap whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
                 int numberOfSavedWhiteComputerSelectedPositions = Integer.parseInt(list.get(cursor++));
                 while (numberOfSavedWhiteComputerSelectedPositions-- > 0) {
-                    String[] entry = list.get(cursor++).split(DataProtector.SEPERATOR);
-                    whiteComputerSelectedPositions.put(entry[0], Integer.parseInt(entry[1]));
+                    putSelectedPosition(whiteComputerSelectedPositions, list.get(cursor++));
                 }
-                Map<String, Integer> blackComputerSelectedPositions = blackComputer.getSelectedPositions();
-                blackComputerSelectedPositions.clear();
+                blackComputer.clearGameHistory();
+                LongShortMap blackComputerSelectedPositions = blackComputer.getSelectedPositions();
                 int numberOfSavedBlackComputerSelectedPositions = Integer.parseInt(list.get(cursor++));
                 while (numberOfSavedBlackComputerSelectedPositions-- > 0) {
-                    String[] entry = list.get(cursor++).split(DataProtector.SEPERATOR);
-                    blackComputerSelectedPositions.put(entry[0], Integer.parseInt(entry[1]));
+                    putSelectedPosition(blackComputerSelectedPositions, list.get(cursor++));
                 }
                 repaint();
                 paint = true;
@@ -1567,12 +1550,11 @@ public final class Board extends JPanel implements Runnable {
                     blackMoves.add(list.get(cursor++));
                 }
                 history.setData(whiteMoves, blackMoves);
-                Map<String, Integer> blackComputerSelectedPositions = blackComputer.getSelectedPositions();
-                blackComputerSelectedPositions.clear();
+                blackComputer.clearGameHistory();
+                LongShortMap blackComputerSelectedPositions = blackComputer.getSelectedPositions();
                 int numberOfSavedBlackComputerSelectedPositions = Integer.parseInt(list.get(cursor++));
                 while (numberOfSavedBlackComputerSelectedPositions-- > 0) {
-                    String[] entry = list.get(cursor++).split(DataProtector.SEPERATOR);
-                    blackComputerSelectedPositions.put(entry[0], Integer.parseInt(entry[1]));
+                    putSelectedPosition(blackComputerSelectedPositions, list.get(cursor++));
                 }
                 repaint();
                 paint = true;
@@ -1604,12 +1586,11 @@ public final class Board extends JPanel implements Runnable {
                     blackMoves.add(list.get(cursor++));
                 }
                 history.setData(whiteMoves, blackMoves);
-                Map<String, Integer> whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
-                whiteComputerSelectedPositions.clear();
+                whiteComputer.clearGameHistory();
+                LongShortMap whiteComputerSelectedPositions = whiteComputer.getSelectedPositions();
                 int numberOfSavedWhiteComputerSelectedPositions = Integer.parseInt(list.get(cursor++));
                 while (numberOfSavedWhiteComputerSelectedPositions-- > 0) {
-                    String[] entry = list.get(cursor++).split(DataProtector.SEPERATOR);
-                    whiteComputerSelectedPositions.put(entry[0], Integer.parseInt(entry[1]));
+                    putSelectedPosition(whiteComputerSelectedPositions, list.get(cursor++));
                 }
                 repaint();
                 paint = true;
@@ -1647,6 +1628,19 @@ public final class Board extends JPanel implements Runnable {
         access = Boolean.parseBoolean(list.get(2));
     }
 
+    //reads a saved "key=times selected" entry, saves from older versions
+    //stored the pieces of the position instead of its key and their entries
+    //are skipped
+    private static void putSelectedPosition(LongShortMap selectedPositions, String savedEntry) {
+        String[] entry = savedEntry.split(DataProtector.SEPERATOR);
+        try {
+            selectedPositions.put(Long.parseLong(entry[0]), Short.parseShort(entry[1]));
+        }
+        catch (NumberFormatException ex) {
+            //a legacy entry, the position is simply counted again if selected
+        }
+    }
+
     //a fast buffer used in client-server to send data quickly
     private StringBuilder buffer;
 
@@ -391,7 +391,7 @@ public final class Chess extends JFrame {
                             break;
                         }
                     }
-                    game.getBlackComputer().getSelectedPositions().clear();
+                    game.getBlackComputer().clearGameHistory();
                     game.restart(Board.WHITE_PLAYER_VS_BLACK_COMPUTER);
                 }
                 else {
@@ -406,7 +406,7 @@ public final class Chess extends JFrame {
                             break;
                         }
                     }
-                    game.getWhiteComputer().getSelectedPositions().clear();
+                    game.getWhiteComputer().clearGameHistory();
                     game.restart(Board.BLACK_PLAYER_VS_WHITE_COMPUTER);
                 }
             }
@@ -441,8 +441,8 @@ public final class Chess extends JFrame {
                         break;
                     }
                 }
-                game.getWhiteComputer().getSelectedPositions().clear();
-                game.getBlackComputer().getSelectedPositions().clear();
+                game.getWhiteComputer().clearGameHistory();
+                game.getBlackComputer().clearGameHistory();
                 game.restart(Board.COMPUTER_VS_COMPUTER);
             }
         });
@@ -32,6 +32,15 @@ public final class ChessConstants {
     public static final String ROOK = "Rook";
     public static final String QUEEN = "Queen";
     public static final String KING = "King";
+
+    //piece type ordinals, used to index per type tables
+    public static final int PAWN_ORDINAL = 0;
+    public static final int KNIGHT_ORDINAL = 1;
+    public static final int BISHOP_ORDINAL = 2;
+    public static final int ROOK_ORDINAL = 3;
+    public static final int QUEEN_ORDINAL = 4;
+    public static final int KING_ORDINAL = 5;
+    public static final int NUMBER_OF_PIECE_TYPES = 6;
     
     public static final String WHITE_PREFIX = "W";
     public static final String BLACK_PREFIX = "B";
@@ -0,0 +1,370 @@
+package Util;
+
+import static Util.ChessConstants.BISHOP_ORDINAL;
+import static Util.ChessConstants.BLACK_PAWN_DOUBLE_JUMP_ROW;
+import static Util.ChessConstants.BLACK_PAWN_START_ROW;
+import static Util.ChessConstants.BLACK_PIECE_ROW;
+import static Util.ChessConstants.KING_ORDINAL;
+import static Util.ChessConstants.KING_START_COLUMN;
+import static Util.ChessConstants.KNIGHT_ORDINAL;
+import static Util.ChessConstants.LEFT_ROOK_START_COLUMN;
+import static Util.ChessConstants.LENGTH;
+import static Util.ChessConstants.LINEAR_LENGTH;
+import static Util.ChessConstants.PAWN_ORDINAL;
+import static Util.ChessConstants.QUEEN_ORDINAL;
+import static Util.ChessConstants.RIGHT_ROOK_START_COLUMN;
+import static Util.ChessConstants.ROOK_ORDINAL;
+import static Util.ChessConstants.WHITE_PAWN_DOUBLE_JUMP_ROW;
+import static Util.ChessConstants.WHITE_PAWN_START_ROW;
+import static Util.ChessConstants.WHITE_PIECE_ROW;
+import java.util.Arrays;
+
+/**
+ * A chess position read from or written to Forsyth-Edwards Notation (FEN).
+ *
+ * Tiles are indexed the way the engines index them, row * 8 + column, where
+ * row 0 is Black's back rank (rank 8) and column 0 is the a file.
+ *
+ * FEN stores castling rights and an en passant square, the engines instead
+ * remember how many times each piece has moved and which Pawn just made a
+ * double jump. When reading, a King or Rook keeps a move count of 0 only if
+ * the castling rights say so, Pawns on their starting row and other pieces on
+ * one of their starting tiles have a move count of 0 and everything else has
+ * a move count of 1. The Pawn in front of the en passant square is the one
+ * that just made a double jump. Writing goes the other way, so any position
+ * survives being written and read again as far as the engines can tell.
+ *
+ * @author zwill
+ */
+public final class Fen {
+
+    /**
+     * The standard starting position.
+     */
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //letters of the pieces indexed by ordinal, white pieces are upper case
+    private static final String WHITE_LETTERS = "PNBRQK";
+    private static final String BLACK_LETTERS = "pnbrqk";
+
+    private static final String NONE = "-";
+
+    //ordinal of an empty tile
+    private static final int EMPTY = -1;
+
+    private final int[] ordinals = new int[LINEAR_LENGTH];
+    private final boolean[] colors = new boolean[LINEAR_LENGTH];
+    private final int[] moveCounts = new int[LINEAR_LENGTH];
+
+    //tile of the Pawn that just made a double jump
+    private int doubleJumped = EMPTY;
+
+    private boolean whiteToMove = true;
+    private int halfMoveClock;
+    private int fullMoveNumber = 1;
+
+    /**
+     * Creates an empty position with White to move.
+     */
+    public Fen() {
+        Arrays.fill(ordinals, EMPTY);
+    }
+
+    public boolean isOccupied(int index) {
+        return ordinals[index] != EMPTY;
+    }
+
+    public int getOrdinal(int index) {
+        return ordinals[index];
+    }
+
+    public boolean isWhite(int index) {
+        return colors[index];
+    }
+
+    public int getMoveCount(int index) {
+        return moveCounts[index];
+    }
+
+    /**
+     * Places a piece on a tile, replacing any piece already there.
+     *
+     * @param index The tile index.
+     * @param ordinal The ordinal of the piece.
+     * @param white The color of the piece.
+     * @param moveCount The number of times the piece has moved.
+     */
+    public void setPiece(int index, int ordinal, boolean white, int moveCount) {
+        if (index < 0 || index >= LINEAR_LENGTH) {
+            throw new IllegalArgumentException("Invalid Index: " + index);
+        }
+        if (ordinal < PAWN_ORDINAL || ordinal > KING_ORDINAL) {
+            throw new IllegalArgumentException("Invalid Ordinal: " + ordinal);
+        }
+        if (moveCount < 0) {
+            throw new IllegalArgumentException("Invalid Move Count: " + moveCount);
+        }
+        ordinals[index] = ordinal;
+        colors[index] = white;
+        moveCounts[index] = moveCount;
+    }
+
+    /**
+     * Gets the tile of the Pawn that just made a double jump.
+     *
+     * @return The tile index, or -1 if no Pawn just made a double jump.
+     */
+    public int getDoubleJumped() {
+        return doubleJumped;
+    }
+
+    /**
+     * Marks the Pawn on a tile as having just made a double jump.
+     *
+     * @param index The tile index of the Pawn, or -1 for none.
+     */
+    public void setDoubleJumped(int index) {
+        if (index != EMPTY && (index < 0 || index >= LINEAR_LENGTH || ordinals[index] != PAWN_ORDINAL)) {
+            throw new IllegalArgumentException("Invalid Index: " + index);
+        }
+        doubleJumped = index;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        this.whiteToMove = whiteToMove;
+    }
+
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    public void setHalfMoveClock(int halfMoveClock) {
+        this.halfMoveClock = halfMoveClock;
+    }
+
+    public int getFullMoveNumber() {
+        return fullMoveNumber;
+    }
+
+    public void setFullMoveNumber(int fullMoveNumber) {
+        this.fullMoveNumber = fullMoveNumber;
+    }
+
+    /**
+     * Reads a position. The half move clock and full move number may be left
+     * out, they default to 0 and 1.
+     *
+     * @param fen The position in FEN.
+     * @return The position.
+     * @throws IllegalArgumentException If the text is not valid FEN.
+     */
+    public static Fen parse(String fen) {
+        final String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        final Fen position = new Fen();
+
+        //placement, from rank 8 down to rank 1
+        final String[] rows = fields[0].split("/");
+        if (rows.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        for (int row = 0; row != LENGTH; ++row) {
+            int column = 0;
+            for (char letter : rows[row].toCharArray()) {
+                if (letter >= '1' && letter <= '8') {
+                    column += letter - '0';
+                    continue;
+                }
+                final int white = WHITE_LETTERS.indexOf(letter);
+                final int black = BLACK_LETTERS.indexOf(letter);
+                if ((white == EMPTY && black == EMPTY) || column >= LENGTH) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                final int ordinal = (white != EMPTY) ? white : black;
+                position.setPiece(row * LENGTH + column, ordinal, white != EMPTY, isStartTile(ordinal, white != EMPTY, row, column) ? 0 : 1);
+                ++column;
+            }
+            if (column != LENGTH) {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+        }
+
+        //side to move
+        switch (fields[1]) {
+            case "w": {
+                position.whiteToMove = true;
+                break;
+            }
+            case "b": {
+                position.whiteToMove = false;
+                break;
+            }
+            default: {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+        }
+
+        //castling rights, a King or Rook without them has moved
+        final String castling = fields[2];
+        if (!castling.equals(NONE) && !castling.matches("K?Q?k?q?")) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        position.setCastled(WHITE_PIECE_ROW, true, castling.indexOf('K') >= 0, castling.indexOf('Q') >= 0);
+        position.setCastled(BLACK_PIECE_ROW, false, castling.indexOf('k') >= 0, castling.indexOf('q') >= 0);
+
+        //en passant square, behind the Pawn that just made a double jump
+        final String enPassant = fields[3];
+        if (!enPassant.equals(NONE)) {
+            if (enPassant.length() != 2) {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+            final int column = enPassant.charAt(0) - 'a';
+            final int row = position.whiteToMove ? BLACK_PAWN_DOUBLE_JUMP_ROW : WHITE_PAWN_DOUBLE_JUMP_ROW;
+            if (column < 0 || column >= LENGTH || enPassant.charAt(1) != getRank(position.whiteToMove ? row - 1 : row + 1)) {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+            final int index = row * LENGTH + column;
+            if (position.ordinals[index] != PAWN_ORDINAL || position.colors[index] == position.whiteToMove) {
+                throw new IllegalArgumentException("Invalid FEN: " + fen);
+            }
+            position.doubleJumped = index;
+        }
+
+        try {
+            if (fields.length > 4) {
+                position.halfMoveClock = Integer.parseInt(fields[4]);
+            }
+            if (fields.length > 5) {
+                position.fullMoveNumber = Integer.parseInt(fields[5]);
+            }
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        return position;
+    }
+
+    private static boolean isStartTile(int ordinal, boolean white, int row, int column) {
+        if (ordinal == PAWN_ORDINAL) {
+            return row == (white ? WHITE_PAWN_START_ROW : BLACK_PAWN_START_ROW);
+        }
+        if (row != (white ? WHITE_PIECE_ROW : BLACK_PIECE_ROW)) {
+            return false;
+        }
+        switch (ordinal) {
+            case KNIGHT_ORDINAL: {
+                return column == 1 || column == 6;
+            }
+            case BISHOP_ORDINAL: {
+                return column == 2 || column == 5;
+            }
+            case QUEEN_ORDINAL: {
+                return column == 3;
+            }
+        }
+        //Kings and Rooks are decided by the castling rights
+        return false;
+    }
+
+    //gives the King and Rooks of one side a move count of 0 where they
+    //may still castle
+    private void setCastled(int row, boolean white, boolean right, boolean left) {
+        final int king = row * LENGTH + KING_START_COLUMN;
+        if ((!right && !left) || !isPiece(king, KING_ORDINAL, white)) {
+            return;
+        }
+        final int rightRook = row * LENGTH + RIGHT_ROOK_START_COLUMN;
+        final int leftRook = row * LENGTH + LEFT_ROOK_START_COLUMN;
+        if (right && isPiece(rightRook, ROOK_ORDINAL, white)) {
+            moveCounts[king] = moveCounts[rightRook] = 0;
+        }
+        if (left && isPiece(leftRook, ROOK_ORDINAL, white)) {
+            moveCounts[king] = moveCounts[leftRook] = 0;
+        }
+    }
+
+    private boolean isPiece(int index, int ordinal, boolean white) {
+        return ordinals[index] == ordinal && colors[index] == white;
+    }
+
+    private boolean canCastle(int row, boolean white, int rookColumn) {
+        final int king = row * LENGTH + KING_START_COLUMN;
+        final int rook = row * LENGTH + rookColumn;
+        return isPiece(king, KING_ORDINAL, white) && moveCounts[king] == 0 && isPiece(rook, ROOK_ORDINAL, white) && moveCounts[rook] == 0;
+    }
+
+    private static char getFile(int column) {
+        return (char) ('a' + column);
+    }
+
+    private static char getRank(int row) {
+        return (char) ('8' - row);
+    }
+
+    /**
+     * Writes this position.
+     *
+     * @return The position in FEN.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(90);
+        for (int row = 0; row != LENGTH; ++row) {
+            if (row != 0) {
+                builder.append('/');
+            }
+            int empty = 0;
+            for (int column = 0; column != LENGTH; ++column) {
+                final int index = row * LENGTH + column;
+                if (ordinals[index] == EMPTY) {
+                    ++empty;
+                    continue;
+                }
+                if (empty != 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                builder.append((colors[index] ? WHITE_LETTERS : BLACK_LETTERS).charAt(ordinals[index]));
+            }
+            if (empty != 0) {
+                builder.append(empty);
+            }
+        }
+
+        builder.append(whiteToMove ? " w " : " b ");
+
+        final int length = builder.length();
+        if (canCastle(WHITE_PIECE_ROW, true, RIGHT_ROOK_START_COLUMN)) {
+            builder.append('K');
+        }
+        if (canCastle(WHITE_PIECE_ROW, true, LEFT_ROOK_START_COLUMN)) {
+            builder.append('Q');
+        }
+        if (canCastle(BLACK_PIECE_ROW, false, RIGHT_ROOK_START_COLUMN)) {
+            builder.append('k');
+        }
+        if (canCastle(BLACK_PIECE_ROW, false, LEFT_ROOK_START_COLUMN)) {
+            builder.append('q');
+        }
+        if (builder.length() == length) {
+            builder.append(NONE);
+        }
+
+        //only the side to move may capture en passant
+        if (doubleJumped != EMPTY && colors[doubleJumped] != whiteToMove) {
+            final int row = doubleJumped / LENGTH;
+            builder.append(' ').append(getFile(doubleJumped % LENGTH)).append(getRank(colors[doubleJumped] ? row + 1 : row - 1));
+        }
+        else {
+            builder.append(' ').append(NONE);
+        }
+
+        return builder.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber).toString();
+    }
+}
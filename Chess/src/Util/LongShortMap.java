@@ -0,0 +1,196 @@
+package Util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to short values. Keys and values are kept in
+ * arrays, so nothing is boxed and nothing is allocated after the map has been
+ * created.
+ *
+ * The map uses open addressing with linear probing and never grows: it holds
+ * at most as many entries as it was created with, after that new keys are
+ * refused until entries are removed, the map is cleared or it is aged. Every
+ * entry remembers the generation it was last put or read in, so
+ * {@link #age()} can throw away the entries that are no longer used.
+ *
+ * This class is not thread safe.
+ *
+ * @author zwill
+ */
+public final class LongShortMap {
+
+    /**
+     * Receives every entry of a map.
+     */
+    public interface Visitor {
+
+        void visit(long key, short value);
+    }
+
+    //stamp of a free slot, generations are never 0
+    private static final byte FREE = 0;
+
+    private final long[] keys;
+    private final short[] values;
+
+    //generation each entry was last used in
+    private final byte[] stamps;
+
+    private final int mask;
+    private final int capacity;
+    private int size;
+    private byte generation = 1;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param capacity The maximum number of entries.
+     */
+    public LongShortMap(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 29)) {
+            throw new IllegalArgumentException("Invalid Capacity: " + capacity);
+        }
+        //at most half of the slots are ever used, so probes stay short
+        //and there is always a free slot
+        final int length = Integer.highestOneBit((capacity << 1) - 1) << 1;
+        keys = new long[length];
+        values = new short[length];
+        stamps = new byte[length];
+        mask = length - 1;
+        this.capacity = capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int getHome(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    //slot holding the key, or the complement of the free slot it belongs in
+    private int getSlot(long key) {
+        int slot = getHome(key);
+        while (stamps[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    public boolean containsKey(long key) {
+        return getSlot(key) >= 0;
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key The key.
+     * @param missing Returned when the key is not in this map.
+     * @return The value of the key, or {@code missing}.
+     */
+    public short get(long key, short missing) {
+        final int slot = getSlot(key);
+        if (slot < 0) {
+            return missing;
+        }
+        stamps[slot] = generation;
+        return values[slot];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return False if the key is new and this map is full, in which case
+     * nothing is changed.
+     */
+    public boolean put(long key, short value) {
+        int slot = getSlot(key);
+        if (slot < 0) {
+            if (size == capacity) {
+                return false;
+            }
+            keys[slot = ~slot] = key;
+            ++size;
+        }
+        values[slot] = value;
+        stamps[slot] = generation;
+        return true;
+    }
+
+    public boolean remove(long key) {
+        final int slot = getSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+
+    //empties a slot, moving back later entries of the same run that could
+    //no longer be found otherwise
+    private void delete(int free) {
+        for (int next = (free + 1) & mask; stamps[next] != FREE; next = (next + 1) & mask) {
+            if (((next - getHome(keys[next])) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                stamps[free] = stamps[next];
+                free = next;
+            }
+        }
+        stamps[free] = FREE;
+        --size;
+    }
+
+    public void clear() {
+        Arrays.fill(stamps, FREE);
+        size = 0;
+    }
+
+    /**
+     * Removes every entry that was not put or read since the last time this
+     * map was aged, then starts a new generation.
+     */
+    public void age() {
+        if (size != 0) {
+            //start after a free slot, so no run of entries wraps around into
+            //the slots that were already visited
+            int slot = 0;
+            while (stamps[slot] != FREE) {
+                ++slot;
+            }
+            for (int visited = 0; visited != stamps.length;) {
+                final byte stamp = stamps[slot];
+                if (stamp != FREE && stamp != generation) {
+                    //the slot now holds a later entry, so visit it again
+                    delete(slot);
+                    continue;
+                }
+                slot = (slot + 1) & mask;
+                ++visited;
+            }
+        }
+        generation = (generation == Byte.MAX_VALUE) ? 1 : (byte) (generation + 1);
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot != stamps.length; ++slot) {
+            if (stamps[slot] != FREE) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+}